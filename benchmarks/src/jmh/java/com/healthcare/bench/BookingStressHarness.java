@@ -0,0 +1,184 @@
+package com.healthcare.bench;
+
+import com.healthcare.dao.DBConnection;
+import com.healthcare.dao.UserDAO;
+import com.healthcare.models.Appointment;
+import com.healthcare.models.AppointmentStatus;
+import com.healthcare.models.Doctor;
+import com.healthcare.models.Patient;
+import com.healthcare.models.User;
+import com.healthcare.service.AppointmentService;
+import com.healthcare.service.BookingException;
+import com.healthcare.service.BookingMode;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrency stress test for AppointmentService.bookAppointment.
+ *
+ * Seeds a handful of doctors, then lets many bookers race for the same
+ * small set of slots (10-minute grid, so neighbouring slots clash under
+ * the 20-minute rule). Reports bookings per second and then scans the
+ * appointments table for double bookings.
+ *
+ * Runs against the embedded database (see EmbeddedDatabase). H2 takes no
+ * next-key locks, so CONDITIONAL_INSERT can double-book there; check that
+ * mode against an empty MySQL database by overriding -Dhealthcare.db.*
+ * with -PstressJvmArgs.
+ *
+ * Usage (positional arguments, all optional):
+ *   gradle :benchmarks:stressTest -PstressArgs="512 4"
+ *
+ *   [bookers=256] [doctors=8] [slotsPerDoctor=36] [attemptsPerBooker=20]
+ *   [mode=LOCKED|CONDITIONAL_INSERT]
+ */
+public class BookingStressHarness {
+
+    public static void main(String[] args) throws Exception {
+        int bookers = args.length > 0 ? Integer.parseInt(args[0]) : 256;
+        int doctorCount = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        int slotsPerDoctor = args.length > 2 ? Integer.parseInt(args[2]) : 36;
+        int attempts = args.length > 3 ? Integer.parseInt(args[3]) : 20;
+        BookingMode mode = args.length > 4 ? BookingMode.valueOf(args[4]) : BookingMode.LOCKED;
+
+        EmbeddedDatabase.createSchema();
+
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        UserDAO userDAO = new UserDAO();
+
+        int patientId = seedPatient(userDAO, "stress_p_" + runId);
+        List<Integer> doctorIds = new ArrayList<>();
+        for (int i = 0; i < doctorCount; i++) {
+            Doctor d = new Doctor(0, "stress_d_" + runId + "_" + i, "pass", "Stress Doctor " + i, "General");
+            if (!userDAO.create(d)) {
+                throw new IllegalStateException("Could not seed doctor " + i);
+            }
+            doctorIds.add(((Doctor) userDAO.findByUsername(d.getUsername()).orElseThrow()).getId());
+        }
+
+        // Far in the future so the run never clashes with real data
+        LocalDateTime base = LocalDateTime.now().plusYears(5).withSecond(0).withNano(0);
+
+        AppointmentService service = new AppointmentService();
+        LongAdder booked = new LongAdder();
+        LongAdder conflicts = new LongAdder();
+        LongAdder errors = new LongAdder();
+
+        ExecutorService pool = Executors.newFixedThreadPool(bookers);
+        CountDownLatch startGate = new CountDownLatch(1);
+
+        for (int b = 0; b < bookers; b++) {
+            pool.submit(() -> {
+                startGate.await();
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                for (int i = 0; i < attempts; i++) {
+                    Appointment a = new Appointment();
+                    a.setPatientId(patientId);
+                    a.setDoctorId(doctorIds.get(rnd.nextInt(doctorIds.size())));
+                    a.setAppointmentDateTime(base.plusMinutes(10L * rnd.nextInt(slotsPerDoctor)));
+                    a.setStatus(AppointmentStatus.BOOKED);
+                    try {
+                        service.bookAppointment(a, mode);
+                        booked.increment();
+                    } catch (Exception e) {
+                        if (e instanceof BookingException be
+                                && be.getReason() == BookingException.Reason.CONFLICT) {
+                            conflicts.increment();
+                        } else {
+                            errors.increment();
+                            System.err.println("Booking error: " + e);
+                        }
+                    }
+                }
+                return null;
+            });
+        }
+
+        long start = System.nanoTime();
+        startGate.countDown();
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.HOURS);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long total = (long) bookers * attempts;
+        System.out.printf("mode=%s bookers=%d doctors=%d attempts=%d in %.2fs -> %.0f attempts/s, %.0f bookings/s%n",
+                mode, bookers, doctorCount, total, seconds, total / seconds, booked.sum() / seconds);
+        System.out.printf("booked=%d conflicts=%d errors=%d%n", booked.sum(), conflicts.sum(), errors.sum());
+
+        int doubleBookings = countDoubleBookings(doctorIds);
+        System.out.println("double bookings: " + doubleBookings
+                + (doubleBookings == 0 ? "  (OK)" : "  (FAILED)"));
+        System.out.println(DBConnection.getPoolStats());
+
+        if (doubleBookings > 0 || errors.sum() > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * appointments.patient_id references patients.id, so resolve it
+     * from the profile row rather than the user id.
+     */
+    private static int seedPatient(UserDAO userDAO, String username) throws SQLException {
+        Patient p = new Patient(0, username, "pass", "Stress Patient", "9999999999");
+        if (!userDAO.create(p)) {
+            throw new IllegalStateException("Could not seed patient");
+        }
+        User u = userDAO.findByUsername(username).orElseThrow();
+
+        try (Connection con = DBConnection.getConnection();
+             PreparedStatement ps = con.prepareStatement("SELECT id FROM patients WHERE user_id = ?")) {
+            ps.setInt(1, u.getId());
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    /**
+     * Counts pairs of BOOKED appointments of the same doctor that are
+     * 20 minutes apart or closer.
+     */
+    private static int countDoubleBookings(List<Integer> doctorIds) throws SQLException {
+        String sql = """
+            SELECT appointment_datetime
+            FROM appointments
+            WHERE doctor_id = ? AND status = 'BOOKED'
+            ORDER BY appointment_datetime
+            """;
+
+        int clashes = 0;
+        try (Connection con = DBConnection.getConnection();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+
+            for (int doctorId : doctorIds) {
+                ps.setInt(1, doctorId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    LocalDateTime previous = null;
+                    while (rs.next()) {
+                        Timestamp ts = rs.getTimestamp(1);
+                        LocalDateTime current = ts.toLocalDateTime();
+                        if (previous != null && !current.isAfter(previous.plusMinutes(20))) {
+                            clashes++;
+                        }
+                        previous = current;
+                    }
+                }
+            }
+        }
+        return clashes;
+    }
+}
@@ -0,0 +1,150 @@
+package com.healthcare.bench;
+
+import com.healthcare.dao.DBConnection;
+import com.healthcare.dao.UserDAO;
+import com.healthcare.models.Appointment;
+import com.healthcare.models.AppointmentStatus;
+import com.healthcare.models.Doctor;
+import com.healthcare.models.Patient;
+import com.healthcare.models.User;
+import com.healthcare.service.AppointmentService;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Embedded database shared by the benchmarks of one JMH fork.
+ *
+ * The JDBC URL points at an in-memory H2 database in MySQL mode (set by
+ * benchmarks/build.gradle through -Dhealthcare.db.*), so the DAOs run
+ * unchanged. The tables come from database/schema.sql and are seeded once
+ * per fork through the regular UserDAO / AppointmentService code.
+ */
+public final class EmbeddedDatabase {
+
+    public static final int DOCTORS = 20;
+    public static final int PATIENTS = 50;
+    public static final int APPOINTMENTS_PER_DOCTOR = 500;
+
+    // Seeded appointments sit on a 30-minute grid from here on
+    public static final LocalDateTime BASE_TIME = LocalDateTime.of(2030, 1, 1, 8, 0);
+
+    private static boolean schemaCreated;
+    private static Fixture fixture;
+
+    private EmbeddedDatabase() { }
+
+    /**
+     * Creates and seeds the schema on first use; later calls return the same data.
+     */
+    public static synchronized Fixture get() throws Exception {
+        if (fixture == null) {
+            createSchema();
+            fixture = seed();
+        }
+        return fixture;
+    }
+
+    /**
+     * Creates the tables from database/schema.sql, once per JVM.
+     */
+    public static synchronized void createSchema() throws Exception {
+        if (schemaCreated) {
+            return;
+        }
+        String file = System.getProperty("healthcare.bench.schema", "database/schema.sql");
+        String script = Files.readString(Path.of(file));
+
+        try (Connection con = DBConnection.getConnection();
+             Statement st = con.createStatement()) {
+
+            for (String part : script.split(";")) {
+                String sql = part.replaceAll("(?m)^\\s*--.*$", "").trim();
+                String upper = sql.toUpperCase();
+                // The embedded URL already names the database
+                if (sql.isEmpty() || upper.startsWith("CREATE DATABASE") || upper.startsWith("USE ")) {
+                    continue;
+                }
+                st.execute(sql);
+            }
+        }
+        schemaCreated = true;
+    }
+
+    private static Fixture seed() throws Exception {
+        UserDAO userDAO = new UserDAO();
+
+        List<Integer> doctorIds = new ArrayList<>();
+        for (int i = 0; i < DOCTORS; i++) {
+            Doctor d = new Doctor(0, "bench_doctor_" + i, "pass", "Bench Doctor " + i, "General");
+            if (!userDAO.create(d)) {
+                throw new IllegalStateException("Could not seed doctor " + i);
+            }
+            doctorIds.add(((Doctor) userDAO.findByUsername(d.getUsername()).orElseThrow()).getId());
+        }
+
+        List<Integer> patientIds = new ArrayList<>();
+        List<String> patientUsernames = new ArrayList<>();
+        for (int i = 0; i < PATIENTS; i++) {
+            String username = "bench_patient_" + i;
+            Patient p = new Patient(0, username, "pass", "Bench Patient " + i, "9876543210");
+            if (!userDAO.create(p)) {
+                throw new IllegalStateException("Could not seed patient " + i);
+            }
+            patientIds.add(patientTableId(userDAO.findByUsername(username).orElseThrow()));
+            patientUsernames.add(username);
+        }
+
+        List<Appointment> appointments = new ArrayList<>();
+        for (int d = 0; d < DOCTORS; d++) {
+            for (int i = 0; i < APPOINTMENTS_PER_DOCTOR; i++) {
+                appointments.add(new Appointment(0,
+                        patientIds.get((d + i) % PATIENTS),
+                        doctorIds.get(d),
+                        BASE_TIME.plusMinutes(30L * i),
+                        AppointmentStatus.BOOKED,
+                        null));
+            }
+        }
+        new AppointmentService().bookAppointments(appointments);
+
+        return new Fixture(doctorIds, patientIds, patientUsernames);
+    }
+
+    /**
+     * appointments.patient_id references patients.id, not users.id.
+     */
+    private static int patientTableId(User user) throws SQLException {
+        try (Connection con = DBConnection.getConnection();
+             PreparedStatement ps = con.prepareStatement("SELECT id FROM patients WHERE user_id = ?")) {
+            ps.setInt(1, user.getId());
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    /**
+     * Ids and usernames of the seeded rows.
+     */
+    public static final class Fixture {
+
+        public final List<Integer> doctorIds;
+        public final List<Integer> patientIds;
+        public final List<String> patientUsernames;
+
+        Fixture(List<Integer> doctorIds, List<Integer> patientIds, List<String> patientUsernames) {
+            this.doctorIds = doctorIds;
+            this.patientIds = patientIds;
+            this.patientUsernames = patientUsernames;
+        }
+    }
+}
@@ -0,0 +1,362 @@
+package com.healthcare.bench;
+
+import com.healthcare.dao.DBConnection;
+import com.healthcare.dao.SqlTrace;
+import com.healthcare.dao.UserDAO;
+import com.healthcare.metrics.Metrics;
+import com.healthcare.models.Appointment;
+import com.healthcare.models.AppointmentFilter;
+import com.healthcare.models.AppointmentStatus;
+import com.healthcare.models.Doctor;
+import com.healthcare.models.Patient;
+import com.healthcare.service.AppointmentService;
+import com.healthcare.service.BookingException;
+import com.healthcare.service.BookingMode;
+import com.healthcare.utils.LatencyHistogram;
+import com.healthcare.utils.VirtualThreads;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Clinic-wide booking storm against the embedded database: how many
+ * concurrent bookings the availability check + insert path takes, and
+ * what the other operations cost meanwhile.
+ *
+ * Seeds doctors and patients through UserDAO, then runs a number of
+ * clients (one virtual thread each) that pick operations from a weighted
+ * mix and call AppointmentService directly:
+ *   book      a random patient books a random doctor on a 10-minute grid
+ *             (neighbouring slots clash under the 20-minute rule)
+ *   cancel    cancels an appointment booked earlier in the run
+ *   complete  marks one completed
+ *   list      first page of a random patient's appointments
+ * Cancel/complete fall back to book until something has been booked.
+ *
+ * Reports throughput and p50/p99/p99.9 latency per operation, slot
+ * conflicts, errors, and finally scans for double bookings (exit code 1
+ * if any, or if there were errors). The per-method DAO / service table
+ * from Metrics follows, covering the measured period only.
+ *
+ * Usage (key=value arguments, all optional):
+ *   gradle :benchmarks:loadTest -PloadArgs="clients=500 seconds=30"
+ *
+ *   doctors=50 patients=500 clients=200 seconds=20 warmup=5 slots=300
+ *   mix=book:50,cancel:10,complete:10,list:30  mode=LOCKED|CONDITIONAL_INSERT
+ */
+public class LoadGenerator {
+
+    enum Op {
+        BOOK,
+        CANCEL,
+        COMPLETE,
+        LIST
+    }
+
+    /**
+     * Counters and latencies of one operation type.
+     */
+    static final class OpStats {
+
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder ok = new LongAdder();
+        final LongAdder conflicts = new LongAdder();
+        final LongAdder errors = new LongAdder();
+
+        void reset() {
+            latency.reset();
+            ok.reset();
+            conflicts.reset();
+            errors.reset();
+        }
+    }
+
+    // Far ahead of any real data, so slots never clash with it
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2040, 1, 1, 8, 0);
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = parseArgs(args);
+        int doctorCount = Integer.parseInt(opts.getOrDefault("doctors", "50"));
+        int patientCount = Integer.parseInt(opts.getOrDefault("patients", "500"));
+        int clients = Integer.parseInt(opts.getOrDefault("clients", "200"));
+        int seconds = Integer.parseInt(opts.getOrDefault("seconds", "20"));
+        int warmupSeconds = Integer.parseInt(opts.getOrDefault("warmup", "5"));
+        int slotsPerDoctor = Integer.parseInt(opts.getOrDefault("slots", "300"));
+        BookingMode mode = BookingMode.valueOf(opts.getOrDefault("mode", "LOCKED"));
+        Op[] mix = parseMix(opts.getOrDefault("mix", "book:50,cancel:10,complete:10,list:30"));
+
+        EmbeddedDatabase.createSchema();
+
+        long seedStart = System.nanoTime();
+        List<Integer> doctorIds = seedDoctors(doctorCount);
+        List<Integer> patientIds = seedPatients(patientCount);
+        System.out.printf("seeded %d doctors, %d patients in %d ms%n", doctorCount, patientCount,
+                (System.nanoTime() - seedStart) / 1_000_000);
+
+        Map<Op, OpStats> stats = new EnumMap<>(Op.class);
+        for (Op op : Op.values()) {
+            stats.put(op, new OpStats());
+        }
+
+        AppointmentService service = new AppointmentService();
+        Queue<Integer> booked = new ConcurrentLinkedQueue<>();
+
+        long now = System.nanoTime();
+        long measureFrom = now + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long stopAt = measureFrom + TimeUnit.SECONDS.toNanos(seconds);
+
+        ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor("load-client");
+        CountDownLatch done = new CountDownLatch(clients);
+        AtomicBoolean measuring = new AtomicBoolean();
+
+        for (int c = 0; c < clients; c++) {
+            executor.submit(() -> {
+                try {
+                    ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                    long t;
+                    while ((t = System.nanoTime()) < stopAt) {
+                        // Warmup is over: the first client to notice drops its numbers
+                        if (t >= measureFrom && !measuring.get() && measuring.compareAndSet(false, true)) {
+                            stats.values().forEach(OpStats::reset);
+                            Metrics.resetAll();
+                            SqlTrace.reset();
+                        }
+                        runOne(mix[rnd.nextInt(mix.length)], rnd, service, mode, booked,
+                                doctorIds, patientIds, slotsPerDoctor, stats);
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        done.await();
+        executor.shutdown();
+        double elapsed = (System.nanoTime() - Math.max(measureFrom, now)) / 1e9;
+
+        report(stats, elapsed, clients, mode);
+
+        int doubleBookings = countDoubleBookings();
+        System.out.println("double bookings: " + doubleBookings
+                + (doubleBookings == 0 ? "  (OK)" : "  (FAILED)"));
+        System.out.println(DBConnection.getPoolStats());
+        System.out.println(DBConnection.getStatementCacheStats());
+        if (DBConnection.hasReplicas()) {
+            System.out.println(DBConnection.getReadRoutingStats());
+            DBConnection.getReadRoutingStats().getReplicaPools().forEach(System.out::println);
+        }
+        System.out.println();
+        System.out.print(Metrics.report());
+        if (SqlTrace.isEnabled()) {
+            System.out.println();
+            System.out.print(SqlTrace.report());
+        }
+
+        long errors = stats.values().stream().mapToLong(s -> s.errors.sum()).sum();
+        System.exit(doubleBookings > 0 || errors > 0 ? 1 : 0);
+    }
+
+    private static void runOne(Op op, ThreadLocalRandom rnd, AppointmentService service,
+                               BookingMode mode, Queue<Integer> booked,
+                               List<Integer> doctorIds, List<Integer> patientIds,
+                               int slotsPerDoctor, Map<Op, OpStats> stats) {
+
+        Integer target = null;
+        if (op == Op.CANCEL || op == Op.COMPLETE) {
+            target = booked.poll();
+            if (target == null) {
+                op = Op.BOOK;
+            }
+        }
+
+        OpStats s = stats.get(op);
+        long start = System.nanoTime();
+        try {
+            switch (op) {
+                case BOOK:
+                    Appointment a = new Appointment(0,
+                            patientIds.get(rnd.nextInt(patientIds.size())),
+                            doctorIds.get(rnd.nextInt(doctorIds.size())),
+                            BASE_TIME.plusMinutes(10L * rnd.nextInt(slotsPerDoctor)),
+                            AppointmentStatus.BOOKED, null);
+                    try {
+                        service.bookAppointment(a, mode);
+                        booked.add(a.getId());
+                        s.ok.increment();
+                    } catch (BookingException e) {
+                        if (e.getReason() != BookingException.Reason.CONFLICT) {
+                            throw e;
+                        }
+                        s.conflicts.increment();
+                    }
+                    break;
+
+                case CANCEL:
+                    count(s, service.cancelAppointment(target));
+                    break;
+
+                case COMPLETE:
+                    count(s, service.markAppointmentCompleted(target));
+                    break;
+
+                case LIST:
+                    service.getAppointmentsForPatientPage(
+                            patientIds.get(rnd.nextInt(patientIds.size())), AppointmentFilter.NONE, null, 50);
+                    s.ok.increment();
+                    break;
+            }
+        } catch (Exception e) {
+            s.errors.increment();
+            if (s.errors.sum() <= 5) {
+                System.err.println(op + " error: " + e);
+            }
+        } finally {
+            s.latency.recordNanos(System.nanoTime() - start);
+        }
+    }
+
+    // cancel/complete report failure as false rather than throwing
+    private static void count(OpStats s, boolean ok) {
+        if (ok) {
+            s.ok.increment();
+        } else {
+            s.errors.increment();
+        }
+    }
+
+    private static void report(Map<Op, OpStats> stats, double seconds, int clients, BookingMode mode) {
+        System.out.printf("%nmode=%s clients=%d measured=%.1fs%n", mode, clients, seconds);
+        System.out.printf("%-9s %9s %9s %9s %7s %9s %9s %9s %9s%n",
+                "op", "ops/s", "ok", "conflict", "errors", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+
+        long totalOps = 0;
+        for (Map.Entry<Op, OpStats> e : stats.entrySet()) {
+            OpStats s = e.getValue();
+            LatencyHistogram h = s.latency;
+            totalOps += h.getCount();
+            System.out.printf("%-9s %9.0f %9d %9d %7d %9.2f %9.2f %9.2f %9.2f%n",
+                    e.getKey().name().toLowerCase(), h.getCount() / seconds,
+                    s.ok.sum(), s.conflicts.sum(), s.errors.sum(),
+                    h.getPercentileMicros(50) / 1000.0, h.getPercentileMicros(99) / 1000.0,
+                    h.getPercentileMicros(99.9) / 1000.0, h.getMaxMicros() / 1000.0);
+        }
+        System.out.printf("total     %9.0f ops/s%n", totalOps / seconds);
+    }
+
+    // ================================
+    // SEEDING
+    // ================================
+
+    private static List<Integer> seedDoctors(int count) {
+        UserDAO userDAO = new UserDAO();
+        String prefix = "load_d_" + Long.toString(System.nanoTime(), 36) + "_";
+
+        List<Integer> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Doctor d = new Doctor(0, prefix + i, "pass", "Load Doctor " + i, "General");
+            if (!userDAO.create(d)) {
+                throw new IllegalStateException("Could not seed doctor " + i);
+            }
+            // A Doctor from UserDAO carries its doctors.id
+            ids.add(userDAO.findByUsername(d.getUsername()).orElseThrow().getId());
+        }
+        return ids;
+    }
+
+    private static List<Integer> seedPatients(int count) throws SQLException {
+        UserDAO userDAO = new UserDAO();
+        String prefix = "load_p_" + Long.toString(System.nanoTime(), 36) + "_";
+
+        List<Integer> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Patient p = new Patient(0, prefix + i, "pass", "Load Patient " + i, "9876543210");
+            if (!userDAO.create(p)) {
+                throw new IllegalStateException("Could not seed patient " + i);
+            }
+            int userId = userDAO.findByUsername(p.getUsername()).orElseThrow().getId();
+            ids.add(userDAO.findPatientId(userId));
+        }
+        return ids;
+    }
+
+    // ================================
+    // CHECKS / ARGUMENTS
+    // ================================
+
+    /**
+     * Pairs of BOOKED appointments of the same doctor 20 minutes apart or closer.
+     */
+    private static int countDoubleBookings() throws SQLException {
+        String sql = """
+            SELECT doctor_id, appointment_datetime
+            FROM appointments
+            WHERE status = 'BOOKED'
+            ORDER BY doctor_id, appointment_datetime
+            """;
+
+        int clashes = 0;
+        try (Connection con = DBConnection.getConnection();
+             PreparedStatement ps = con.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+
+            int previousDoctor = -1;
+            LocalDateTime previous = null;
+            while (rs.next()) {
+                int doctor = rs.getInt(1);
+                LocalDateTime current = rs.getTimestamp(2).toLocalDateTime();
+                if (doctor == previousDoctor && !current.isAfter(previous.plusMinutes(20))) {
+                    clashes++;
+                }
+                previousDoctor = doctor;
+                previous = current;
+            }
+        }
+        return clashes;
+    }
+
+    private static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> opts = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Expected key=value, got: " + arg);
+            }
+            opts.put(arg.substring(0, eq).trim(), arg.substring(eq + 1).trim());
+        }
+        return opts;
+    }
+
+    /**
+     * "book:50,list:30" -> a 100-slot table to draw operations from.
+     */
+    private static Op[] parseMix(String spec) {
+        List<Op> table = new ArrayList<>();
+        for (String part : spec.split(",")) {
+            String[] kv = part.split(":");
+            Op op = Op.valueOf(kv[0].trim().toUpperCase());
+            int weight = kv.length > 1 ? Integer.parseInt(kv[1].trim()) : 1;
+            for (int i = 0; i < weight; i++) {
+                table.add(op);
+            }
+        }
+        if (table.isEmpty()) {
+            throw new IllegalArgumentException("Empty operation mix");
+        }
+        return table.toArray(new Op[0]);
+    }
+}
@@ -0,0 +1,171 @@
+package com.healthcare.dao;
+
+import com.healthcare.bench.EmbeddedDatabase;
+import com.healthcare.models.Appointment;
+import com.healthcare.models.AppointmentStatus;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * AppointmentDAO hot paths: row mapping (by position, against a by-name
+ * baseline), loading a doctor's list, the availability check
+ * (AvailabilityIndex hit vs. straight SQL), the free-slot search over a
+ * month and a single insert.
+ *
+ * Lives in com.healthcare.dao to reach the package-private mapRowToAppointment.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class AppointmentDaoBenchmark {
+
+    private final AppointmentDAO dao = new AppointmentDAO();
+
+    private Connection con;
+    private PreparedStatement rowsStatement;
+    private ResultSet rows;
+    private int rowCount;
+    private int nextRow;
+
+    private List<Integer> doctorIds;
+    private List<Integer> patientIds;
+    private int nextDoctor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        EmbeddedDatabase.Fixture fixture = EmbeddedDatabase.get();
+        doctorIds = fixture.doctorIds;
+        patientIds = fixture.patientIds;
+
+        con = DBConnection.getConnection();
+
+        // Scrollable, so every invocation maps one already fetched row
+        rowsStatement = con.prepareStatement(
+                "SELECT " + AppointmentDAO.COLUMNS + " FROM appointments WHERE doctor_id = ?",
+                ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
+        rowsStatement.setInt(1, doctorIds.get(0));
+        rows = rowsStatement.executeQuery();
+        rows.last();
+        rowCount = rows.getRow();
+
+        // Warm the index for every doctor so the indexed benchmark measures hits
+        for (int doctorId : doctorIds) {
+            dao.isDoctorAvailable(con, doctorId, EmbeddedDatabase.BASE_TIME);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        rows.close();
+        rowsStatement.close();
+        con.close();
+    }
+
+    @Benchmark
+    public Appointment mapRowToAppointment() throws SQLException {
+        rows.absolute(nextRow++ % rowCount + 1);
+        return dao.mapRowToAppointment(rows);
+    }
+
+    /**
+     * Column-name lookups per row, as mapping worked before COLUMNS.
+     */
+    @Benchmark
+    public Appointment mapRowByName() throws SQLException {
+        rows.absolute(nextRow++ % rowCount + 1);
+
+        Appointment a = new Appointment();
+        a.setId(rows.getInt("id"));
+        a.setPatientId(rows.getInt("patient_id"));
+        a.setDoctorId(rows.getInt("doctor_id"));
+        Timestamp ts = rows.getTimestamp("appointment_datetime");
+        if (ts != null) {
+            a.setAppointmentDateTime(ts.toLocalDateTime());
+        }
+        a.setStatus(AppointmentStatus.fromDb(rows.getString("status")));
+        a.setNotes(rows.getString("notes"));
+        Timestamp modified = rows.getTimestamp("last_modified");
+        if (modified != null) {
+            a.setLastModified(modified.toLocalDateTime());
+        }
+        return a;
+    }
+
+    /**
+     * Full list load of one doctor (APPOINTMENTS_PER_DOCTOR rows).
+     */
+    @Benchmark
+    public List<Appointment> getAppointmentsForDoctor() {
+        return dao.getAppointmentsForDoctor(nextDoctorId());
+    }
+
+    @Benchmark
+    public boolean isDoctorAvailableIndexed() throws SQLException {
+        return dao.isDoctorAvailable(con, nextDoctorId(), probeTime());
+    }
+
+    @Benchmark
+    public boolean isDoctorAvailableInDb() throws SQLException {
+        return dao.isDoctorAvailableInDb(con, nextDoctorId(), probeTime(), 0);
+    }
+
+    /**
+     * Booking picker: free 20-minute slots over 30 days, starting in the
+     * seeded (fully booked) period, up to AppointmentService.MAX_SLOTS.
+     */
+    @Benchmark
+    public List<LocalDateTime> findAvailableSlotsMonth() throws SQLException {
+        return dao.findAvailableSlots(con, nextDoctorId(), EmbeddedDatabase.BASE_TIME,
+                EmbeddedDatabase.BASE_TIME.plusDays(30), 20, 500);
+    }
+
+    /**
+     * One insert in its own transaction, rolled back so the table does not grow.
+     */
+    @Benchmark
+    public int insertAppointment() throws SQLException {
+        Appointment a = new Appointment(0,
+                patientIds.get(nextRow++ % patientIds.size()),
+                nextDoctorId(),
+                LocalDateTime.of(2040, 1, 1, 9, 0),
+                AppointmentStatus.BOOKED,
+                null);
+
+        con.setAutoCommit(false);
+        try {
+            dao.insertAppointment(con, a);
+            return a.getId();
+        } finally {
+            con.rollback();
+            con.setAutoCommit(true);
+        }
+    }
+
+    private int nextDoctorId() {
+        return doctorIds.get(nextDoctor++ % doctorIds.size());
+    }
+
+    // Alternates between a booked slot (clash) and a time after the last seeded slot (free)
+    private LocalDateTime probeTime() {
+        int slot = nextRow++ % EmbeddedDatabase.APPOINTMENTS_PER_DOCTOR;
+        if (slot % 2 == 1) {
+            slot += EmbeddedDatabase.APPOINTMENTS_PER_DOCTOR;
+        }
+        return EmbeddedDatabase.BASE_TIME.plusMinutes(30L * slot);
+    }
+}
@@ -0,0 +1,87 @@
+package com.healthcare.dao;
+
+import com.healthcare.models.Doctor;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * DoctorDirectory typeahead queries over a synthetic directory (no DB),
+ * returning the first 20 matches like the booking form's drop-down.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class DoctorDirectoryBenchmark {
+
+    private static final String[] FIRST_NAMES = {
+            "Anna", "Bob", "Carla", "David", "Elena", "Farid", "Grace", "Hiro", "Ines", "Jonas",
+            "Kavya", "Liam", "Maria", "Nikhil", "Olga", "Pedro", "Priya", "Rahul", "Sara", "Tom"
+    };
+
+    private static final String[] LAST_NAMES = {
+            "Smith", "Jones", "Raman", "Garcia", "Muller", "Rossi", "Tanaka", "Khan", "Silva", "Novak",
+            "Patel", "Brown", "Sharma", "Kowalski", "Dubois", "Smithson", "Iyer", "Lopez", "Berg", "Chen"
+    };
+
+    private static final String[] SPECIALIZATIONS = {
+            "Cardiology", "Dermatology", "General Medicine", "Neurology", "Orthopedics",
+            "Pediatrics", "Psychiatry", "Radiology", "Oncology", "ENT"
+    };
+
+    private static final int LIMIT = 20;
+
+    @Param({"10000"})
+    public int doctors;
+
+    private DoctorDirectory directory;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        List<Doctor> all = new ArrayList<>(doctors);
+        for (int i = 1; i <= doctors; i++) {
+            String name = "Dr. " + FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                    + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            all.add(new Doctor(i, "doctor_" + i, null, name,
+                    SPECIALIZATIONS[random.nextInt(SPECIALIZATIONS.length)]));
+        }
+
+        directory = new DoctorDirectory(0);
+        directory.load(all);
+    }
+
+    /** One letter typed: thousands of matches, first 20 by name. */
+    @Benchmark
+    public List<Doctor> searchOneLetter() throws SQLException {
+        return directory.search("s", null, LIMIT);
+    }
+
+    /** Surname prefix plus specialization word: two sets intersected. */
+    @Benchmark
+    public List<Doctor> searchTwoWords() throws SQLException {
+        return directory.search("smi card", null, LIMIT);
+    }
+
+    /** Name prefix within a specialization picked from a filter. */
+    @Benchmark
+    public List<Doctor> searchWithinSpecialization() throws SQLException {
+        return directory.search("pri", "Pediatrics", LIMIT);
+    }
+
+    @Benchmark
+    public List<Doctor> searchNoMatch() throws SQLException {
+        return directory.search("xyz", null, LIMIT);
+    }
+}
@@ -0,0 +1,80 @@
+package com.healthcare.dao;
+
+import com.healthcare.bench.EmbeddedDatabase;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Login lookup under concurrent logins, with the user cache out of the way:
+ *  - legacy: users query, then a patients/doctors query on a second
+ *    connection while the first ResultSet is still open
+ *  - joined: UserDAO.findByUsername (one LEFT JOIN query, one connection)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Threads(8)
+public class LoginLookupBenchmark {
+
+    private final UserDAO userDAO = new UserDAO();
+
+    private List<String> usernames;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        usernames = EmbeddedDatabase.get().patientUsernames;
+    }
+
+    @Benchmark
+    public boolean legacy() throws SQLException {
+        return legacyLookup(nextUsername());
+    }
+
+    @Benchmark
+    public boolean joined() {
+        UserDAO.clearCache();
+        return userDAO.findByUsername(nextUsername()).isPresent();
+    }
+
+    private String nextUsername() {
+        return usernames.get(next++ % usernames.size());
+    }
+
+    /**
+     * The lookup as it was before the join.
+     */
+    private static boolean legacyLookup(String username) throws SQLException {
+        try (Connection con = DBConnection.getConnection();
+             PreparedStatement ps = con.prepareStatement("SELECT * FROM users WHERE username = ?")) {
+
+            ps.setString(1, username);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) return false;
+
+                String table = "DOCTOR".equalsIgnoreCase(rs.getString("role")) ? "doctors" : "patients";
+                try (Connection con2 = DBConnection.getConnection();
+                     PreparedStatement ps2 = con2.prepareStatement(
+                             "SELECT * FROM " + table + " WHERE user_id = ?")) {
+                    ps2.setInt(1, rs.getInt("id"));
+                    try (ResultSet rs2 = ps2.executeQuery()) {
+                        return rs2.next();
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.healthcare.dao;
+
+import com.healthcare.bench.EmbeddedDatabase;
+import com.healthcare.models.Appointment;
+import com.healthcare.models.AppointmentStatus;
+import com.healthcare.utils.DBConfig;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Per-call cost of the DAO's constant statements with and without the
+ * pool's prepared statement cache. Every invocation borrows a pooled
+ * connection, prepares, executes and closes, like the application does.
+ *
+ * The availability check is measured on its SQL path (isDoctorAvailableInDb,
+ * what isDoctorAvailable runs when the AvailabilityIndex is off or cold).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class StatementCacheBenchmark {
+
+    @Param({"0", "64"})
+    public int statementCacheSize;
+
+    private final AppointmentDAO dao = new AppointmentDAO();
+
+    private ConnectionPool pool;
+    private List<Integer> doctorIds;
+    private List<Integer> patientIds;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        EmbeddedDatabase.Fixture fixture = EmbeddedDatabase.get();
+        doctorIds = fixture.doctorIds;
+        patientIds = fixture.patientIds;
+
+        pool = new ConnectionPool(DBConfig.URL, DBConfig.USER, DBConfig.PASSWORD,
+                1, 1, 300_000L, 5_000L, 0L, 2, statementCacheSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.println();
+        System.out.println(pool.getStatementCacheStats());
+        pool.close();
+    }
+
+    @Benchmark
+    public boolean isDoctorAvailableInDb() throws SQLException {
+        int slot = next++ % EmbeddedDatabase.APPOINTMENTS_PER_DOCTOR;
+        try (Connection con = pool.borrow()) {
+            return dao.isDoctorAvailableInDb(con, doctorIds.get(next % doctorIds.size()),
+                    EmbeddedDatabase.BASE_TIME.plusMinutes(30L * slot), 0);
+        }
+    }
+
+    /**
+     * One insert in its own transaction, rolled back so the table does not grow.
+     */
+    @Benchmark
+    public int insertAppointment() throws SQLException {
+        Appointment a = new Appointment(0,
+                patientIds.get(next++ % patientIds.size()),
+                doctorIds.get(next % doctorIds.size()),
+                LocalDateTime.of(2040, 1, 1, 9, 0),
+                AppointmentStatus.BOOKED,
+                null);
+
+        try (Connection con = pool.borrow()) {
+            con.setAutoCommit(false);
+            try {
+                dao.insertAppointment(con, a);
+                return a.getId();
+            } finally {
+                con.rollback();
+            }
+        }
+    }
+}
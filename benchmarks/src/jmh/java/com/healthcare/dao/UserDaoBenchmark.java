@@ -0,0 +1,50 @@
+package com.healthcare.dao;
+
+import com.healthcare.bench.EmbeddedDatabase;
+import com.healthcare.models.User;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * UserDAO.findByUsername (the login lookup), served from the user cache
+ * and with the cache cleared before every call (one joined query).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class UserDaoBenchmark {
+
+    private final UserDAO userDAO = new UserDAO();
+
+    private List<String> usernames;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        usernames = EmbeddedDatabase.get().patientUsernames;
+    }
+
+    @Benchmark
+    public Optional<User> findByUsernameCached() {
+        return userDAO.findByUsername(nextUsername());
+    }
+
+    @Benchmark
+    public Optional<User> findByUsernameUncached() {
+        UserDAO.clearCache();
+        return userDAO.findByUsername(nextUsername());
+    }
+
+    private String nextUsername() {
+        return usernames.get(next++ % usernames.size());
+    }
+}
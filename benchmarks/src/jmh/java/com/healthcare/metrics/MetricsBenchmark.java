@@ -0,0 +1,67 @@
+package com.healthcare.metrics;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Cost that OperationMetrics adds to every DAO / service call, alone and
+ * with all benchmark threads reporting into the same operation (the
+ * worst case for contention). Compare against untimed() for the
+ * baseline; -prof gc shows whether the Call objects are allocated.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class MetricsBenchmark {
+
+    private static final OperationMetrics OPERATION = Metrics.operation("MetricsBenchmark.call");
+    private static final OperationMetrics NESTED = Metrics.operation("MetricsBenchmark.nested");
+
+    @Benchmark
+    public void untimed(Blackhole bh) {
+        Blackhole.consumeCPU(50);
+        bh.consume(1);
+    }
+
+    @Benchmark
+    public void timed(Blackhole bh) {
+        OperationMetrics.Call call = OPERATION.start();
+        try {
+            Blackhole.consumeCPU(50);
+            OPERATION.rows(1);
+        } finally {
+            call.close();
+        }
+        bh.consume(1);
+    }
+
+    @Benchmark
+    public void timedNested(Blackhole bh) {
+        OperationMetrics.Call outer = OPERATION.start();
+        try {
+            OperationMetrics.Call inner = NESTED.start();
+            try {
+                Blackhole.consumeCPU(50);
+                NESTED.rows(1);
+            } finally {
+                inner.close();
+            }
+        } finally {
+            outer.close();
+        }
+        bh.consume(1);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void timedContended(Blackhole bh) {
+        timed(bh);
+    }
+}
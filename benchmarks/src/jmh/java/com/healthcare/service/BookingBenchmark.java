@@ -0,0 +1,77 @@
+package com.healthcare.service;
+
+import com.healthcare.bench.EmbeddedDatabase;
+import com.healthcare.models.Appointment;
+import com.healthcare.models.AppointmentStatus;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * AppointmentService.bookAppointment end to end (availability check,
+ * insert, commit, index update) in both booking modes.
+ *
+ * Every call books a fresh slot: calls rotate over the seeded doctors
+ * and move 30 minutes ahead after each round, so nothing clashes.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class BookingBenchmark {
+
+    @Param({"LOCKED", "CONDITIONAL_INSERT"})
+    public BookingMode mode;
+
+    private final AppointmentService service = new AppointmentService();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private List<Integer> doctorIds;
+    private List<Integer> patientIds;
+
+    // Well after the seeded appointments
+    private final LocalDateTime start = LocalDateTime.of(2035, 1, 1, 8, 0);
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        EmbeddedDatabase.Fixture fixture = EmbeddedDatabase.get();
+        doctorIds = fixture.doctorIds;
+        patientIds = fixture.patientIds;
+    }
+
+    @Benchmark
+    public int bookAppointment() throws Exception {
+        return book();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public int bookAppointmentContended() throws Exception {
+        return book();
+    }
+
+    private int book() throws Exception {
+        long n = sequence.getAndIncrement();
+        int doctors = doctorIds.size();
+
+        Appointment a = new Appointment(0,
+                patientIds.get((int) (n % patientIds.size())),
+                doctorIds.get((int) (n % doctors)),
+                start.plusMinutes(30L * (n / doctors)),
+                AppointmentStatus.BOOKED,
+                null);
+
+        service.bookAppointment(a, mode);
+        return a.getId();
+    }
+}
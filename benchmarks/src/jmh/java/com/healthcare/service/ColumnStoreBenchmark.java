@@ -0,0 +1,92 @@
+package com.healthcare.service;
+
+import com.healthcare.models.Appointment;
+import com.healthcare.models.AppointmentStatus;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Report-style aggregations over a year of appointments: AppointmentColumnStore
+ * against the same data held as a List of Appointment objects.
+ *
+ * Built in memory (no database), so only the scans are measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ColumnStoreBenchmark {
+
+    private static final LocalDateTime YEAR_START = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Param({"100000", "1000000"})
+    public int rows;
+
+    private List<Appointment> objects;
+    private int maxDoctorId;
+    private AppointmentColumnStore columns;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objects = new ArrayList<>(rows);
+        AppointmentColumnStore.Builder builder = new AppointmentColumnStore.Builder();
+
+        for (int i = 0; i < rows; i++) {
+            Appointment a = new Appointment(i + 1, 1 + i % 5000, 1 + i % 50,
+                    YEAR_START.plusMinutes(30L * (i / 50) % (365L * 24 * 60)),
+                    i % 7 == 0 ? AppointmentStatus.CANCELLED
+                            : i % 3 == 0 ? AppointmentStatus.COMPLETED : AppointmentStatus.BOOKED,
+                    i % 20 == 0 ? "Follow-up" : null);
+            objects.add(a);
+            maxDoctorId = Math.max(maxDoctorId, a.getDoctorId());
+            builder.add(a);
+        }
+        columns = builder.build();
+    }
+
+    /** Same counting as the column store (int[] per doctor id), so only the layout differs. */
+    @Benchmark
+    public Map<Integer, Integer> countByDoctorObjects() {
+        int[] perDoctor = new int[maxDoctorId + 1];
+        for (Appointment a : objects) {
+            if (a.getStatus() == AppointmentStatus.BOOKED) perDoctor[a.getDoctorId()]++;
+        }
+
+        Map<Integer, Integer> counts = new TreeMap<>();
+        for (int id = 0; id < perDoctor.length; id++) {
+            if (perDoctor[id] > 0) counts.put(id, perDoctor[id]);
+        }
+        return counts;
+    }
+
+    @Benchmark
+    public Map<Integer, Integer> countByDoctorColumns() {
+        return columns.query().status(AppointmentStatus.BOOKED).countByDoctor();
+    }
+
+    @Benchmark
+    public int[] hourlyHistogramObjects() {
+        int[] hours = new int[24];
+        for (Appointment a : objects) {
+            if (a.getDoctorId() == 7) hours[a.getAppointmentDateTime().getHour()]++;
+        }
+        return hours;
+    }
+
+    @Benchmark
+    public int[] hourlyHistogramColumns() {
+        return columns.query().doctor(7).hourlyHistogram();
+    }
+}
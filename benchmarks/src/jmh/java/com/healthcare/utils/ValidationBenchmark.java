@@ -0,0 +1,132 @@
+package com.healthcare.utils;
+
+import com.healthcare.models.Appointment;
+import com.healthcare.models.AppointmentStatus;
+import com.healthcare.models.Patient;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * ValidationUtil validators over a mix of valid and invalid inputs,
+ * like the ones typed into the registration and booking forms.
+ *
+ * The *Regex benchmarks are the previous String.matches / trim()
+ * implementations, kept as a baseline. Run with -prof gc to see the
+ * allocation difference.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class ValidationBenchmark {
+
+    private final String[] emails = {
+            "john.doe@example.com", "a+b@mail.co", "no-at-sign.example.com", "bad@char!.com", ""
+    };
+
+    private final String[] mobiles = {
+            "9876543210", "98765", "98765432101", "98765x3210", "  9876543210 "
+    };
+
+    private final String[] numbers = {
+            "42", "1234567890", "-1", "12a", "   "
+    };
+
+    private final String[] names = {
+            "John Doe", "   ", "A", "Dr. Priya Raman", ""
+    };
+
+    private final Patient patient = new Patient(0, "jdoe", "secret", "John Doe", "9876543210");
+
+    private final Appointment appointment = new Appointment(0, 1, 2,
+            LocalDateTime.of(2030, 1, 1, 10, 0), AppointmentStatus.BOOKED, "Follow-up");
+
+    @Benchmark
+    public void isValidEmail(Blackhole bh) {
+        for (String s : emails) {
+            bh.consume(ValidationUtil.isValidEmail(s));
+        }
+    }
+
+    @Benchmark
+    public void isValidMobile(Blackhole bh) {
+        for (String s : mobiles) {
+            bh.consume(ValidationUtil.isValidMobile(s));
+        }
+    }
+
+    @Benchmark
+    public void isInteger(Blackhole bh) {
+        for (String s : numbers) {
+            bh.consume(ValidationUtil.isInteger(s));
+        }
+    }
+
+    @Benchmark
+    public void isNonEmpty(Blackhole bh) {
+        for (String s : names) {
+            bh.consume(ValidationUtil.isNonEmpty(s));
+        }
+    }
+
+    @Benchmark
+    public void isLengthBetween(Blackhole bh) {
+        for (String s : names) {
+            bh.consume(ValidationUtil.isLengthBetween(s, 2, 50));
+        }
+    }
+
+    @Benchmark
+    public String validatePatient() {
+        return ValidationUtil.PATIENT.validate(patient);
+    }
+
+    @Benchmark
+    public String validateAppointment() {
+        return ValidationUtil.APPOINTMENT.validate(appointment);
+    }
+
+    // ---------------------- Baseline: previous implementations ----------------------
+
+    @Benchmark
+    public void isValidEmailRegex(Blackhole bh) {
+        for (String s : emails) {
+            bh.consume(s != null && s.matches("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+$"));
+        }
+    }
+
+    @Benchmark
+    public void isValidMobileRegex(Blackhole bh) {
+        for (String s : mobiles) {
+            bh.consume(s != null && s.matches("^[0-9]{10}$"));
+        }
+    }
+
+    @Benchmark
+    public void isIntegerRegex(Blackhole bh) {
+        for (String s : numbers) {
+            bh.consume(s != null && !s.trim().isEmpty() && s.matches("^[0-9]+$"));
+        }
+    }
+
+    @Benchmark
+    public void isNonEmptyTrim(Blackhole bh) {
+        for (String s : names) {
+            bh.consume(s != null && !s.trim().isEmpty());
+        }
+    }
+
+    @Benchmark
+    public void isLengthBetweenTrim(Blackhole bh) {
+        for (String s : names) {
+            int len = s.trim().length();
+            bh.consume(len >= 2 && len <= 50);
+        }
+    }
+}
@@ -40,6 +40,19 @@ CREATE TABLE appointments (
     appointment_datetime DATETIME NOT NULL,
     notes VARCHAR(255),
     status ENUM('BOOKED', 'COMPLETED', 'CANCELLED') DEFAULT 'BOOKED',
+    -- set by every insert/update, drives the incremental table refresh
+    last_modified TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
+    -- conflict checks scan one doctor's time window, and it keeps the
+    -- gap locks taken by the conditional booking insert narrow
+    INDEX idx_appointments_doctor_time (doctor_id, appointment_datetime),
+    -- keyset pagination of a patient's history and of status-filtered doctor lists
+    INDEX idx_appointments_patient_time (patient_id, appointment_datetime),
+    INDEX idx_appointments_doctor_status_time (doctor_id, status, appointment_datetime),
+    -- date-range reporting loads (AppointmentColumnStore.load(from, to))
+    INDEX idx_appointments_time (appointment_datetime),
+    -- "what changed since" lookups per doctor / patient
+    INDEX idx_appointments_doctor_modified (doctor_id, last_modified),
+    INDEX idx_appointments_patient_modified (patient_id, last_modified),
     FOREIGN KEY (patient_id) REFERENCES patients(id),
     FOREIGN KEY (doctor_id) REFERENCES doctors(id)
 );
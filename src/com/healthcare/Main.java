@@ -1,17 +1,42 @@
 package com.healthcare;
 
+import com.healthcare.dao.DBConnection;
 import com.healthcare.dao.UserDAO;
 import com.healthcare.models.Patient;
+import com.healthcare.server.ApiServer;
+import com.healthcare.service.AppointmentExportService;
+import com.healthcare.service.ImportReport;
+import com.healthcare.service.UserImportService;
+import com.healthcare.utils.DBConfig;
 import com.healthcare.utils.UITheme;
+import java.nio.file.Path;
 import javax.swing.SwingUtilities;
 
 /**
  * Entry point of the Healthcare System application.
  * Launches the Login UI and optionally inserts a test user (only if not already present).
+ *
+ * Command line modes (no UI):
+ *   --export csv|ndjson <file>   dump all appointments for reporting
+ *   --import <file.csv>          bulk-load patients and doctors
+ *   --server [port]              headless HTTP/JSON API (see ApiServer)
  */
 public class Main {
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws Exception {
+
+        if (args.length > 0 && "--export".equals(args[0])) {
+            runExport(args);
+            return;
+        }
+        if (args.length > 0 && "--import".equals(args[0])) {
+            runImport(args);
+            return;
+        }
+        if (args.length > 0 && "--server".equals(args[0])) {
+            runServer(args);
+            return;
+        }
 
         UITheme.apply();
 
@@ -46,4 +71,58 @@ public class Main {
             System.out.println("Sample user already exists.");
         }
     }
+
+    /**
+     * Nightly reporting export: streams the appointments table to a file.
+     */
+    private static void runExport(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("Usage: --export csv|ndjson <file>");
+            System.exit(2);
+        }
+
+        AppointmentExportService.Format format =
+                AppointmentExportService.Format.valueOf(args[1].toUpperCase());
+        Path target = Path.of(args[2]);
+
+        long start = System.nanoTime();
+        long rows = new AppointmentExportService().export(format, target);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.println("Exported " + rows + " appointments to " + target + " in " + millis + " ms");
+        DBConnection.shutdown();
+    }
+
+    /**
+     * Onboarding: bulk-loads users from a CSV file and reports rejected rows.
+     */
+    private static void runImport(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: --import <file.csv>");
+            System.err.println("  header: role,username,password,name,contact,specialization");
+            System.exit(2);
+        }
+
+        ImportReport report = new UserImportService().importCsv(Path.of(args[1]));
+
+        for (ImportReport.RowError error : report.getErrors()) {
+            System.err.println(error);
+        }
+        System.out.println(report);
+        DBConnection.shutdown();
+    }
+
+    /**
+     * Web / mobile backend: serves the JSON API until the process is stopped.
+     */
+    private static void runServer(String[] args) throws Exception {
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : DBConfig.SERVER_PORT;
+
+        ApiServer server = new ApiServer(port);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop(5);
+            DBConnection.shutdown();
+        }, "api-shutdown"));
+        server.start();
+    }
 }
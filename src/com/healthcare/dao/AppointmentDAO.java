@@ -1,131 +1,548 @@
 package com.healthcare.dao;
 
+import com.healthcare.metrics.Metrics;
+import com.healthcare.metrics.OperationMetrics;
 import com.healthcare.models.Appointment;
+import com.healthcare.models.AppointmentFilter;
+import com.healthcare.models.AppointmentPage;
+import com.healthcare.models.AppointmentStatus;
+import com.healthcare.models.PageCursor;
+import com.healthcare.utils.DBConfig;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class AppointmentDAO {
 
+    // Every appointment read selects these columns in this order, so rows
+    // are mapped by position (see mapRowToAppointment)
+    static final String COLUMNS =
+            "id, patient_id, doctor_id, appointment_datetime, status, notes, last_modified";
+
+    private static final int COL_ID = 1;
+    private static final int COL_PATIENT_ID = 2;
+    private static final int COL_DOCTOR_ID = 3;
+    private static final int COL_DATETIME = 4;
+    private static final int COL_STATUS = 5;
+    private static final int COL_NOTES = 6;
+    private static final int COL_LAST_MODIFIED = 7;
+
+    // Constant statements, kept prepared on each pooled connection (see StatementCache)
+    private static final String INSERT_SQL = sql("insert",
+            "INSERT INTO appointments " +
+            "(patient_id, doctor_id, appointment_datetime, status, notes, last_modified) " +
+            "VALUES (?, ?, ?, ?, ?, CURRENT_TIMESTAMP(3))");
+
+    private static final String INSERT_IF_AVAILABLE_SQL = sql("insertIfAvailable", """
+            INSERT INTO appointments
+            (patient_id, doctor_id, appointment_datetime, status, notes, last_modified)
+            SELECT ?, ?, ?, ?, ?, CURRENT_TIMESTAMP(3)
+            FROM DUAL
+            WHERE NOT EXISTS (
+                SELECT 1
+                FROM appointments
+                WHERE doctor_id = ?
+                AND status = 'BOOKED'
+                AND appointment_datetime BETWEEN ? AND ?
+            )
+            """);
+
+    private static final String LOCK_DOCTOR_SQL = sql("lockDoctor",
+            "SELECT id FROM doctors WHERE id = ? FOR UPDATE");
+
+    private static final String IS_AVAILABLE_SQL = sql("isDoctorAvailable", """
+            SELECT COUNT(*)
+            FROM appointments
+            WHERE doctor_id = ?
+            AND status = 'BOOKED'
+            AND appointment_datetime BETWEEN ? AND ?
+            AND id <> ?
+            """);
+
+    private static final String UPDATE_STATUS_SQL = sql("updateStatus",
+            "UPDATE appointments SET status = ?, last_modified = CURRENT_TIMESTAMP(3) " +
+            "WHERE id = ? AND status = 'BOOKED'");
+
+    private static final String CANCEL_SQL = sql("cancel",
+            "UPDATE appointments SET status = 'CANCELLED', last_modified = CURRENT_TIMESTAMP(3) " +
+            "WHERE id = ? AND status = 'BOOKED'");
+
+    private static final String RESCHEDULE_SQL = sql("reschedule",
+            "UPDATE appointments SET appointment_datetime = ?, last_modified = CURRENT_TIMESTAMP(3) " +
+            "WHERE id = ? AND status = 'BOOKED'");
+
+    private static final String FIND_BY_ID_SQL = sql("findById",
+            "SELECT " + COLUMNS + " FROM appointments WHERE id = ?");
+
+    private static final String FOR_PATIENT_SQL = sql("forPatient",
+            "SELECT " + COLUMNS + " FROM appointments " +
+            "WHERE patient_id = ? ORDER BY appointment_datetime DESC");
+
+    private static final String FOR_DOCTOR_SQL = sql("forDoctor",
+            "SELECT " + COLUMNS + " FROM appointments " +
+            "WHERE doctor_id = ? ORDER BY appointment_datetime ASC");
+
+    private static final String CURRENT_DB_TIME_SQL = sql("currentDbTime",
+            "SELECT CURRENT_TIMESTAMP(3)");
+
+    private static final String CHANGES_FOR_PATIENT_SQL = sql("changesForPatient",
+            "SELECT " + COLUMNS + " FROM appointments WHERE patient_id = ? " +
+            "AND last_modified >= ? ORDER BY last_modified, id");
+
+    private static final String CHANGES_FOR_DOCTOR_SQL = sql("changesForDoctor",
+            "SELECT " + COLUMNS + " FROM appointments WHERE doctor_id = ? " +
+            "AND last_modified >= ? ORDER BY last_modified, id");
+
+    private static String sql(String name, String sql) {
+        return StatementCache.register("AppointmentDAO." + name, sql);
+    }
+
+    // Per-method latency / rows / errors (see Metrics)
+    private static final OperationMetrics INSERT = op("insertAppointment");
+    private static final OperationMetrics INSERT_BATCH = op("insertAppointments");
+    private static final OperationMetrics FIND_BOOKED_TIMES = op("findBookedTimes");
+    private static final OperationMetrics INSERT_IF_AVAILABLE = op("insertAppointmentIfAvailable");
+    private static final OperationMetrics LOCK_DOCTOR = op("lockDoctor");
+    private static final OperationMetrics IS_AVAILABLE = op("isDoctorAvailable");
+    private static final OperationMetrics IS_AVAILABLE_IN_DB = op("isDoctorAvailableInDb");
+    private static final OperationMetrics AVAILABLE_SLOTS = op("findAvailableSlots");
+    private static final OperationMetrics UPDATE_STATUS = op("updateStatus");
+    private static final OperationMetrics CANCEL = op("cancelAppointment");
+    private static final OperationMetrics RESCHEDULE = op("rescheduleAppointment");
+    private static final OperationMetrics FIND_BY_ID = op("findById");
+    private static final OperationMetrics FOR_PATIENT = op("getAppointmentsForPatient");
+    private static final OperationMetrics FOR_DOCTOR = op("getAppointmentsForDoctor");
+    private static final OperationMetrics PAGE_FOR_PATIENT = op("getAppointmentsForPatientPage");
+    private static final OperationMetrics PAGE_FOR_DOCTOR = op("getAppointmentsForDoctorPage");
+    private static final OperationMetrics COUNT_FOR_PATIENT = op("countAppointmentsForPatient");
+    private static final OperationMetrics COUNT_FOR_DOCTOR = op("countAppointmentsForDoctor");
+    private static final OperationMetrics CURSOR_FOR_PATIENT = op("findPatientCursorAtRow");
+    private static final OperationMetrics CURSOR_FOR_DOCTOR = op("findDoctorCursorAtRow");
+    private static final OperationMetrics CURRENT_DB_TIME = op("currentDbTime");
+    private static final OperationMetrics CHANGES_FOR_PATIENT = op("getChangedAppointmentsForPatient");
+    private static final OperationMetrics CHANGES_FOR_DOCTOR = op("getChangedAppointmentsForDoctor");
+    private static final OperationMetrics STREAM_ALL = op("streamAllAppointments");
+    private static final OperationMetrics FOR_EACH = op("forEachAppointment");
+
+    private static OperationMetrics op(String method) {
+        return Metrics.operation("AppointmentDAO." + method);
+    }
+
     // ================================
     // INSERT appointment
     // ================================
     public void insertAppointment(Connection con, Appointment appointment) throws SQLException {
 
-        String sql = "INSERT INTO appointments " +
-                "(patient_id, doctor_id, appointment_datetime, status, notes) " +
-                "VALUES (?, ?, ?, ?, ?)";
-
+        OperationMetrics.Call call = INSERT.start();
         try (PreparedStatement ps =
-                     con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                     con.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
 
             ps.setInt(1, appointment.getPatientId());
             ps.setInt(2, appointment.getDoctorId());
             ps.setTimestamp(3, Timestamp.valueOf(appointment.getAppointmentDateTime()));
-            ps.setString(4, appointment.getStatus());
+            ps.setString(4, AppointmentStatus.toDb(appointment.getStatus()));
             ps.setString(5, appointment.getNotes());
 
-            ps.executeUpdate();
+            INSERT.rows(ps.executeUpdate());
 
             try (ResultSet rs = ps.getGeneratedKeys()) {
                 if (rs.next()) {
                     appointment.setId(rs.getInt(1));
                 }
             }
+        } catch (SQLException e) {
+            INSERT.error();
+            throw e;
+        } finally {
+            call.close();
         }
     }
 
     // ================================
-    // CHECK DOCTOR AVAILABILITY
+    // BATCH INSERT
     // ================================
-   // ================================
-// CHECK DOCTOR AVAILABILITY (20-MIN INTERVAL)
-// ================================
-public boolean isDoctorAvailable(Connection con, int doctorId,
-                                 LocalDateTime requestedTime) throws SQLException {
 
-    String sql = """
-        SELECT COUNT(*)
-        FROM appointments
-        WHERE doctor_id = ?
-        AND status = 'BOOKED'
-        AND appointment_datetime BETWEEN ? AND ?
-        """;
+    /**
+     * Inserts all appointments with addBatch/executeBatch and sets their
+     * generated ids. With rewriteBatchedStatements=true on the URL the
+     * driver sends them as a single multi-row INSERT.
+     */
+    public void insertAppointments(Connection con, List<Appointment> appointments)
+            throws SQLException {
 
-    // 20 minutes before & after requested time
-    LocalDateTime start = requestedTime.minusMinutes(20);
-    LocalDateTime end   = requestedTime.plusMinutes(20);
+        OperationMetrics.Call call = INSERT_BATCH.start();
+        try (PreparedStatement ps =
+                     con.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+
+            for (Appointment appointment : appointments) {
+                ps.setInt(1, appointment.getPatientId());
+                ps.setInt(2, appointment.getDoctorId());
+                ps.setTimestamp(3, Timestamp.valueOf(appointment.getAppointmentDateTime()));
+                ps.setString(4, AppointmentStatus.toDb(appointment.getStatus()));
+                ps.setString(5, appointment.getNotes());
+                ps.addBatch();
+            }
 
-    try (PreparedStatement ps = con.prepareStatement(sql)) {
-        ps.setInt(1, doctorId);
-        ps.setTimestamp(2, Timestamp.valueOf(start));
-        ps.setTimestamp(3, Timestamp.valueOf(end));
+            ps.executeBatch();
 
-        try (ResultSet rs = ps.executeQuery()) {
-            if (rs.next()) {
-                return rs.getInt(1) == 0; // available if no clash
+            try (ResultSet rs = ps.getGeneratedKeys()) {
+                for (Appointment appointment : appointments) {
+                    if (!rs.next()) break;
+                    appointment.setId(rs.getInt(1));
+                }
             }
+            INSERT_BATCH.rows(appointments.size());
+        } catch (SQLException e) {
+            INSERT_BATCH.error();
+            throw e;
+        } finally {
+            call.close();
         }
     }
-    return false;
-}
 
+    /**
+     * BOOKED appointment times of several doctors within [from, to],
+     * fetched with one query. Used for set-based conflict checks.
+     */
+    public Map<Integer, List<LocalDateTime>> findBookedTimes(Connection con,
+                                                             Collection<Integer> doctorIds,
+                                                             LocalDateTime from,
+                                                             LocalDateTime to) throws SQLException {
+
+        Map<Integer, List<LocalDateTime>> result = new HashMap<>();
+        if (doctorIds.isEmpty()) {
+            return result;
+        }
+
+        StringBuilder sql = new StringBuilder(
+                "SELECT doctor_id, appointment_datetime FROM appointments " +
+                "WHERE status = 'BOOKED' AND appointment_datetime BETWEEN ? AND ? " +
+                "AND doctor_id IN (");
+        for (int i = 0; i < doctorIds.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(')');
+
+        OperationMetrics.Call call = FIND_BOOKED_TIMES.start();
+        try (PreparedStatement ps = con.prepareStatement(sql.toString())) {
+            ps.setTimestamp(1, Timestamp.valueOf(from));
+            ps.setTimestamp(2, Timestamp.valueOf(to));
+            int idx = 3;
+            for (int doctorId : doctorIds) {
+                ps.setInt(idx++, doctorId);
+            }
+
+            int rows = 0;
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    rows++;
+                    Timestamp ts = rs.getTimestamp(2);
+                    if (ts != null) {
+                        result.computeIfAbsent(rs.getInt(1), k -> new ArrayList<>())
+                              .add(ts.toLocalDateTime());
+                    }
+                }
+            }
+            FIND_BOOKED_TIMES.rows(rows);
+        } catch (SQLException e) {
+            FIND_BOOKED_TIMES.error();
+            throw e;
+        } finally {
+            call.close();
+        }
+        return result;
+    }
 
     // ================================
-    // UPDATE STATUS (COMPLETED / CANCELLED)
+    // CONDITIONAL INSERT (CHECK + INSERT IN ONE STATEMENT)
     // ================================
-    public boolean updateStatus(Connection con, int appointmentId, String status)
+
+    /**
+     * Inserts the appointment only if the doctor has no BOOKED appointment
+     * within 20 minutes of it. The check and the insert are one statement,
+     * so there is no window between them and no explicit transaction.
+     * Under InnoDB's default REPEATABLE READ the NOT EXISTS scan takes
+     * next-key locks on the doctor's time window, so two concurrent inserts
+     * into the same window cannot both succeed (one may deadlock and retry).
+     *
+     * @return true if inserted (id is set), false if the slot is taken
+     */
+    public boolean insertAppointmentIfAvailable(Connection con, Appointment appointment)
             throws SQLException {
 
-        String sql = "UPDATE appointments SET status = ? WHERE id = ?";
+        LocalDateTime requestedTime = appointment.getAppointmentDateTime();
+
+        OperationMetrics.Call call = INSERT_IF_AVAILABLE.start();
+        try (PreparedStatement ps =
+                     con.prepareStatement(INSERT_IF_AVAILABLE_SQL, Statement.RETURN_GENERATED_KEYS)) {
+
+            ps.setInt(1, appointment.getPatientId());
+            ps.setInt(2, appointment.getDoctorId());
+            ps.setTimestamp(3, Timestamp.valueOf(requestedTime));
+            ps.setString(4, AppointmentStatus.toDb(appointment.getStatus()));
+            ps.setString(5, appointment.getNotes());
+            ps.setInt(6, appointment.getDoctorId());
+            ps.setTimestamp(7, Timestamp.valueOf(requestedTime.minusMinutes(20)));
+            ps.setTimestamp(8, Timestamp.valueOf(requestedTime.plusMinutes(20)));
+
+            if (ps.executeUpdate() == 0) {
+                return false; // overlapping BOOKED row exists
+            }
+            INSERT_IF_AVAILABLE.rows(1);
+
+            try (ResultSet rs = ps.getGeneratedKeys()) {
+                if (rs.next()) {
+                    appointment.setId(rs.getInt(1));
+                }
+            }
+            return true;
+        } catch (SQLException e) {
+            INSERT_IF_AVAILABLE.error();
+            throw e;
+        } finally {
+            call.close();
+        }
+    }
+
+    // ================================
+    // LOCK DOCTOR ROW (BOOKING GUARD)
+    // ================================
+
+    /**
+     * Takes a row lock on the doctor until the transaction ends, so
+     * concurrent bookings for the same doctor - from any JVM - run their
+     * availability check and insert one after another.
+     *
+     * @return false if the doctor does not exist
+     */
+    public boolean lockDoctor(Connection con, int doctorId) throws SQLException {
+
+        OperationMetrics.Call call = LOCK_DOCTOR.start();
+        try (PreparedStatement ps = con.prepareStatement(LOCK_DOCTOR_SQL)) {
+            ps.setInt(1, doctorId);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        } catch (SQLException e) {
+            LOCK_DOCTOR.error();
+            throw e;
+        } finally {
+            call.close();
+        }
+    }
+
+    // ================================
+    // CHECK DOCTOR AVAILABILITY (20-MIN INTERVAL)
+    // ================================
+    public boolean isDoctorAvailable(Connection con, int doctorId,
+                                     LocalDateTime requestedTime) throws SQLException {
+        return isDoctorAvailable(con, doctorId, requestedTime, 0);
+    }
+
+    /**
+     * Same check, ignoring one appointment (used when rescheduling it).
+     * Answered from the AvailabilityIndex when the doctor is cached;
+     * on a miss the doctor's BOOKED slots are loaded from the DB.
+     * A cached answer may miss other processes' recent bookings, so
+     * transactions that insert use isDoctorAvailableInDb instead.
+     */
+    public boolean isDoctorAvailable(Connection con, int doctorId, LocalDateTime requestedTime,
+                                     int excludeAppointmentId) throws SQLException {
+
+        OperationMetrics.Call call = IS_AVAILABLE.start();
+        try {
+            AvailabilityIndex index = AvailabilityIndex.getInstance();
+            if (!index.isEnabled()) {
+                return isDoctorAvailableInDb(con, doctorId, requestedTime, excludeAppointmentId);
+            }
+
+            Boolean cached = index.isAvailable(doctorId, requestedTime, excludeAppointmentId);
+            if (cached != null) {
+                return cached;
+            }
+            return index.loadAndCheck(con, doctorId, requestedTime, excludeAppointmentId);
+        } catch (SQLException e) {
+            IS_AVAILABLE.error();
+            throw e;
+        } finally {
+            call.close();
+        }
+    }
+
+    /**
+     * Authoritative availability check straight against the appointments table.
+     * Run it after lockDoctor so no other booking for the doctor can commit in between.
+     */
+    public boolean isDoctorAvailableInDb(Connection con, int doctorId, LocalDateTime requestedTime,
+                                         int excludeAppointmentId) throws SQLException {
+
+        // 20 minutes before & after requested time
+        LocalDateTime start = requestedTime.minusMinutes(20);
+        LocalDateTime end   = requestedTime.plusMinutes(20);
+
+        OperationMetrics.Call call = IS_AVAILABLE_IN_DB.start();
+        try (PreparedStatement ps = con.prepareStatement(IS_AVAILABLE_SQL)) {
+            ps.setInt(1, doctorId);
+            ps.setTimestamp(2, Timestamp.valueOf(start));
+            ps.setTimestamp(3, Timestamp.valueOf(end));
+            ps.setInt(4, excludeAppointmentId);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt(1) == 0; // available if no clash
+                }
+            }
+        } catch (SQLException e) {
+            IS_AVAILABLE_IN_DB.error();
+            throw e;
+        } finally {
+            call.close();
+        }
+        return false;
+    }
+
+    // ================================
+    // FREE SLOTS (BOOKING PICKER)
+    // ================================
+
+    /**
+     * Up to limit start times in [from, to], on a stepMinutes grid, that pass
+     * the 20-minute check. Answered from the doctor's AvailabilityIndex
+     * entry, which is loaded with one query on a miss.
+     */
+    public List<LocalDateTime> findAvailableSlots(Connection con, int doctorId,
+                                                  LocalDateTime from, LocalDateTime to,
+                                                  int stepMinutes, int limit) throws SQLException {
 
-        try (PreparedStatement ps = con.prepareStatement(sql)) {
-            ps.setString(1, status);
+        OperationMetrics.Call call = AVAILABLE_SLOTS.start();
+        try {
+            List<LocalDateTime> slots = AvailabilityIndex.getInstance()
+                    .findFreeSlots(con, doctorId, from, to, stepMinutes, limit);
+            AVAILABLE_SLOTS.rows(slots.size());
+            return slots;
+        } catch (SQLException e) {
+            AVAILABLE_SLOTS.error();
+            throw e;
+        } finally {
+            call.close();
+        }
+    }
+
+    // ================================
+    // UPDATE STATUS (COMPLETED / CANCELLED)
+    // ================================
+
+    /**
+     * Moves a BOOKED appointment to status.
+     * @return false if it does not exist or is no longer BOOKED
+     */
+    public boolean updateStatus(Connection con, int appointmentId, AppointmentStatus status)
+            throws SQLException {
+
+        OperationMetrics.Call call = UPDATE_STATUS.start();
+        try (PreparedStatement ps = con.prepareStatement(UPDATE_STATUS_SQL)) {
+            ps.setString(1, AppointmentStatus.toDb(status));
             ps.setInt(2, appointmentId);
-            return ps.executeUpdate() > 0;
+            int rows = ps.executeUpdate();
+            UPDATE_STATUS.rows(rows);
+            return rows > 0;
+        } catch (SQLException e) {
+            UPDATE_STATUS.error();
+            throw e;
+        } finally {
+            call.close();
         }
     }
 
     // ================================
     // CANCEL APPOINTMENT
     // ================================
+
+    /**
+     * @return false if the appointment does not exist or is no longer BOOKED
+     */
     public boolean cancelAppointment(Connection con, int appointmentId)
             throws SQLException {
 
-        String sql = "UPDATE appointments SET status = 'CANCELLED' WHERE id = ?";
-
-        try (PreparedStatement ps = con.prepareStatement(sql)) {
+        OperationMetrics.Call call = CANCEL.start();
+        try (PreparedStatement ps = con.prepareStatement(CANCEL_SQL)) {
             ps.setInt(1, appointmentId);
-            return ps.executeUpdate() > 0;
+            int rows = ps.executeUpdate();
+            CANCEL.rows(rows);
+            return rows > 0;
+        } catch (SQLException e) {
+            CANCEL.error();
+            throw e;
+        } finally {
+            call.close();
         }
     }
 
     // ================================
     // RESCHEDULE APPOINTMENT
     // ================================
-    public void rescheduleAppointment(Connection con, int appointmentId,
-                                      LocalDateTime newDateTime) throws SQLException {
 
-        String sql = "UPDATE appointments SET appointment_datetime = ?, status = ? WHERE id = ?";
+    /**
+     * @return false if the appointment does not exist or is no longer BOOKED
+     */
+    public boolean rescheduleAppointment(Connection con, int appointmentId,
+                                         LocalDateTime newDateTime) throws SQLException {
 
-        try (PreparedStatement ps = con.prepareStatement(sql)) {
+        OperationMetrics.Call call = RESCHEDULE.start();
+        try (PreparedStatement ps = con.prepareStatement(RESCHEDULE_SQL)) {
             ps.setTimestamp(1, Timestamp.valueOf(newDateTime));
-            ps.setString(2, "BOOKED");
-            ps.setInt(3, appointmentId);
-            ps.executeUpdate();
+            ps.setInt(2, appointmentId);
+            int rows = ps.executeUpdate();
+            RESCHEDULE.rows(rows);
+            return rows > 0;
+        } catch (SQLException e) {
+            RESCHEDULE.error();
+            throw e;
+        } finally {
+            call.close();
         }
     }
 
     // ================================
     // READ OPERATIONS
     // ================================
+    public Appointment findById(Connection con, int appointmentId) throws SQLException {
+        OperationMetrics.Call call = FIND_BY_ID.start();
+        try (PreparedStatement ps = con.prepareStatement(FIND_BY_ID_SQL)) {
+            ps.setInt(1, appointmentId);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                FIND_BY_ID.rows(1);
+                return mapRowToAppointment(rs);
+            }
+        } catch (SQLException e) {
+            FIND_BY_ID.error();
+            throw e;
+        } finally {
+            call.close();
+        }
+    }
+
     public List<Appointment> getAppointmentsForPatient(int patientId) {
         List<Appointment> list = new ArrayList<>();
-        String sql = "SELECT * FROM appointments WHERE patient_id = ? ORDER BY appointment_datetime DESC";
 
-        try (Connection con = DBConnection.getConnection();
-             PreparedStatement ps = con.prepareStatement(sql)) {
+        OperationMetrics.Call call = FOR_PATIENT.start();
+        try (Connection con = DBConnection.getReadConnectionForPatient(patientId);
+             PreparedStatement ps = con.prepareStatement(FOR_PATIENT_SQL)) {
 
             ps.setInt(1, patientId);
 
@@ -134,18 +551,22 @@ public boolean isDoctorAvailable(Connection con, int doctorId,
                     list.add(mapRowToAppointment(rs));
                 }
             }
+            FOR_PATIENT.rows(list.size());
         } catch (SQLException e) {
+            FOR_PATIENT.error();
             System.err.println("Error fetching patient appointments: " + e.getMessage());
+        } finally {
+            call.close();
         }
         return list;
     }
 
     public List<Appointment> getAppointmentsForDoctor(int doctorId) {
         List<Appointment> list = new ArrayList<>();
-        String sql = "SELECT * FROM appointments WHERE doctor_id = ? ORDER BY appointment_datetime ASC";
 
-        try (Connection con = DBConnection.getConnection();
-             PreparedStatement ps = con.prepareStatement(sql)) {
+        OperationMetrics.Call call = FOR_DOCTOR.start();
+        try (Connection con = DBConnection.getReadConnectionForDoctor(doctorId);
+             PreparedStatement ps = con.prepareStatement(FOR_DOCTOR_SQL)) {
 
             ps.setInt(1, doctorId);
 
@@ -154,25 +575,464 @@ public boolean isDoctorAvailable(Connection con, int doctorId,
                     list.add(mapRowToAppointment(rs));
                 }
             }
+            FOR_DOCTOR.rows(list.size());
         } catch (SQLException e) {
+            FOR_DOCTOR.error();
             System.err.println("Error fetching doctor appointments: " + e.getMessage());
+        } finally {
+            call.close();
         }
         return list;
     }
 
-    private Appointment mapRowToAppointment(ResultSet rs) throws SQLException {
+    // ================================
+    // PAGINATED READS (KEYSET ON appointment_datetime, id)
+    // ================================
+
+    /**
+     * One page of a doctor's appointments, oldest first (same order as
+     * getAppointmentsForDoctor). Pass the previous page's nextCursor to
+     * continue, or null for the first page.
+     */
+    public AppointmentPage getAppointmentsForDoctorPage(int doctorId, AppointmentFilter filter,
+                                                        PageCursor after, int pageSize)
+            throws SQLException {
+        return fetchPage(PAGE_FOR_DOCTOR, "doctor_id", doctorId, false, filter, after, pageSize);
+    }
+
+    /**
+     * One page of a patient's appointments, newest first (same order as
+     * getAppointmentsForPatient).
+     */
+    public AppointmentPage getAppointmentsForPatientPage(int patientId, AppointmentFilter filter,
+                                                         PageCursor after, int pageSize)
+            throws SQLException {
+        return fetchPage(PAGE_FOR_PATIENT, "patient_id", patientId, true, filter, after, pageSize);
+    }
+
+    /**
+     * Seeks past the cursor instead of using OFFSET, so every page costs
+     * the same no matter how deep it is. Served by the
+     * (owner_id, appointment_datetime) indexes; InnoDB appends id to them.
+     */
+    private AppointmentPage fetchPage(OperationMetrics metrics, String ownerColumn, int ownerId,
+                                      boolean newestFirst, AppointmentFilter filter,
+                                      PageCursor after, int pageSize) throws SQLException {
+
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("pageSize must be positive");
+        }
+        if (filter == null) {
+            filter = AppointmentFilter.NONE;
+        }
+
+        StringBuilder sql = new StringBuilder("SELECT " + COLUMNS + " FROM appointments");
+        List<Object> params = new ArrayList<>();
+        appendOwnerAndFilter(sql, params, ownerColumn, ownerId, filter);
+
+        if (after != null) {
+            // (dt, id) > (?, ?) spelled out so MySQL can range-scan the index
+            String cmp = newestFirst ? "<" : ">";
+            sql.append(" AND appointment_datetime ").append(cmp).append("= ?")
+               .append(" AND (appointment_datetime ").append(cmp).append(" ? OR id ")
+               .append(cmp).append(" ?)");
+            Timestamp ts = Timestamp.valueOf(after.getDateTime());
+            params.add(ts);
+            params.add(ts);
+            params.add(after.getId());
+        }
+
+        String dir = newestFirst ? "DESC" : "ASC";
+        sql.append(" ORDER BY appointment_datetime ").append(dir)
+           .append(", id ").append(dir)
+           .append(" LIMIT ?");
+        params.add(pageSize + 1); // one extra row tells whether another page exists
+
+        List<Appointment> items = new ArrayList<>(Math.min(pageSize, 1024));
+        boolean hasMore = false;
+
+        OperationMetrics.Call call = metrics.start();
+        try (Connection con = readConnection(ownerColumn, ownerId);
+             PreparedStatement ps = con.prepareStatement(sql.toString())) {
+
+            for (int i = 0; i < params.size(); i++) {
+                ps.setObject(i + 1, params.get(i));
+            }
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    if (items.size() == pageSize) {
+                        hasMore = true;
+                        break;
+                    }
+                    items.add(mapRowToAppointment(rs));
+                }
+            }
+            metrics.rows(items.size());
+        } catch (SQLException e) {
+            metrics.error();
+            throw e;
+        } finally {
+            call.close();
+        }
+
+        PageCursor next = hasMore ? PageCursor.after(items.get(items.size() - 1)) : null;
+        return new AppointmentPage(items, next);
+    }
+
+    /**
+     * Owner-scoped list reads may be served by a read replica; the owner's
+     * own recent writes keep them on the primary (see DBConnection).
+     */
+    private static Connection readConnection(String ownerColumn, int ownerId) throws SQLException {
+        return "doctor_id".equals(ownerColumn)
+                ? DBConnection.getReadConnectionForDoctor(ownerId)
+                : DBConnection.getReadConnectionForPatient(ownerId);
+    }
+
+    private static void appendOwnerAndFilter(StringBuilder sql, List<Object> params,
+                                             String ownerColumn, int ownerId,
+                                             AppointmentFilter filter) {
+        if (filter == null) {
+            filter = AppointmentFilter.NONE;
+        }
+
+        sql.append(" WHERE ").append(ownerColumn).append(" = ?");
+        params.add(ownerId);
+
+        if (filter.getStatus() != null) {
+            sql.append(" AND status = ?");
+            params.add(AppointmentStatus.toDb(filter.getStatus()));
+        }
+        if (filter.getFrom() != null) {
+            sql.append(" AND appointment_datetime >= ?");
+            params.add(Timestamp.valueOf(filter.getFrom()));
+        }
+        if (filter.getTo() != null) {
+            sql.append(" AND appointment_datetime < ?");
+            params.add(Timestamp.valueOf(filter.getTo()));
+        }
+    }
+
+    // ================================
+    // COUNTS / ROW POSITIONS (FOR LAZY TABLES)
+    // ================================
+    public int countAppointmentsForDoctor(int doctorId, AppointmentFilter filter)
+            throws SQLException {
+        return count(COUNT_FOR_DOCTOR, "doctor_id", doctorId, filter);
+    }
+
+    public int countAppointmentsForPatient(int patientId, AppointmentFilter filter)
+            throws SQLException {
+        return count(COUNT_FOR_PATIENT, "patient_id", patientId, filter);
+    }
+
+    private int count(OperationMetrics metrics, String ownerColumn, int ownerId,
+                      AppointmentFilter filter) throws SQLException {
+        StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM appointments");
+        List<Object> params = new ArrayList<>();
+        appendOwnerAndFilter(sql, params, ownerColumn, ownerId, filter);
+
+        OperationMetrics.Call call = metrics.start();
+        try (Connection con = readConnection(ownerColumn, ownerId);
+             PreparedStatement ps = con.prepareStatement(sql.toString())) {
+
+            for (int i = 0; i < params.size(); i++) {
+                ps.setObject(i + 1, params.get(i));
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        } catch (SQLException e) {
+            metrics.error();
+            throw e;
+        } finally {
+            call.close();
+        }
+    }
+
+    /**
+     * Cursor of the row at the given 0-based position in the doctor's
+     * page order, so a page can start right after it without walking all
+     * earlier pages. Only (appointment_datetime, id) are read, which the
+     * index covers. Returns null if there is no such row.
+     */
+    public PageCursor findDoctorCursorAtRow(int doctorId, AppointmentFilter filter, int rowIndex)
+            throws SQLException {
+        return cursorAtRow(CURSOR_FOR_DOCTOR, "doctor_id", doctorId, false, filter, rowIndex);
+    }
+
+    public PageCursor findPatientCursorAtRow(int patientId, AppointmentFilter filter, int rowIndex)
+            throws SQLException {
+        return cursorAtRow(CURSOR_FOR_PATIENT, "patient_id", patientId, true, filter, rowIndex);
+    }
+
+    private PageCursor cursorAtRow(OperationMetrics metrics, String ownerColumn, int ownerId,
+                                   boolean newestFirst, AppointmentFilter filter, int rowIndex)
+            throws SQLException {
+
+        StringBuilder sql = new StringBuilder("SELECT appointment_datetime, id FROM appointments");
+        List<Object> params = new ArrayList<>();
+        appendOwnerAndFilter(sql, params, ownerColumn, ownerId, filter);
+
+        String dir = newestFirst ? "DESC" : "ASC";
+        sql.append(" ORDER BY appointment_datetime ").append(dir)
+           .append(", id ").append(dir)
+           .append(" LIMIT 1 OFFSET ?");
+        params.add(rowIndex);
+
+        OperationMetrics.Call call = metrics.start();
+        try (Connection con = readConnection(ownerColumn, ownerId);
+             PreparedStatement ps = con.prepareStatement(sql.toString())) {
+
+            for (int i = 0; i < params.size(); i++) {
+                ps.setObject(i + 1, params.get(i));
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    metrics.rows(1);
+                    return new PageCursor(rs.getTimestamp(1).toLocalDateTime(), rs.getInt(2));
+                }
+            }
+        } catch (SQLException e) {
+            metrics.error();
+            throw e;
+        } finally {
+            call.close();
+        }
+        return null;
+    }
+
+    // ================================
+    // CHANGE TRACKING (INCREMENTAL REFRESH)
+    // ================================
+
+    /**
+     * Current database time, used as the first watermark for
+     * getChangedAppointmentsFor*. Taken from the DB so it is on the same
+     * clock as last_modified.
+     *
+     * Change tracking always reads the primary: a watermark taken on one
+     * replica and rows read from a more lagging one would skip changes.
+     */
+    public LocalDateTime currentDbTime() throws SQLException {
+        OperationMetrics.Call call = CURRENT_DB_TIME.start();
+        try (Connection con = DBConnection.getConnection();
+             PreparedStatement ps = con.prepareStatement(CURRENT_DB_TIME_SQL);
+             ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            return rs.getTimestamp(1).toLocalDateTime();
+        } catch (SQLException e) {
+            CURRENT_DB_TIME.error();
+            throw e;
+        } finally {
+            call.close();
+        }
+    }
+
+    public List<Appointment> getChangedAppointmentsForDoctor(int doctorId, LocalDateTime since)
+            throws SQLException {
+        return changedSince(CHANGES_FOR_DOCTOR, CHANGES_FOR_DOCTOR_SQL, doctorId, since);
+    }
+
+    public List<Appointment> getChangedAppointmentsForPatient(int patientId, LocalDateTime since)
+            throws SQLException {
+        return changedSince(CHANGES_FOR_PATIENT, CHANGES_FOR_PATIENT_SQL, patientId, since);
+    }
+
+    /**
+     * Rows of one owner with last_modified >= since, oldest change first.
+     */
+    private List<Appointment> changedSince(OperationMetrics metrics, String sql,
+                                           int ownerId, LocalDateTime since) throws SQLException {
+
+        List<Appointment> list = new ArrayList<>();
+        OperationMetrics.Call call = metrics.start();
+        try (Connection con = DBConnection.getConnection();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+
+            ps.setInt(1, ownerId);
+            ps.setTimestamp(2, Timestamp.valueOf(since));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(mapRowToAppointment(rs));
+                }
+            }
+            metrics.rows(list.size());
+        } catch (SQLException e) {
+            metrics.error();
+            throw e;
+        } finally {
+            call.close();
+        }
+        return list;
+    }
+
+    // ================================
+    // STREAMING READS (EXPORTS / REPORTING)
+    // ================================
+
+    /**
+     * Streams every appointment in id order without materializing a list.
+     *
+     * Backed by a forward-only, read-only ResultSet with a streaming fetch
+     * size (Integer.MIN_VALUE makes Connector/J hand out rows one by one),
+     * so memory use does not grow with the table. The stream holds a pooled
+     * connection until it is closed - always use try-with-resources.
+     * SQL errors while iterating surface as IllegalStateException.
+     * Read from a replica when one is configured.
+     */
+    public Stream<Appointment> streamAllAppointments() throws SQLException {
+        return streamAppointments(null, null);
+    }
+
+    /**
+     * Like streamAllAppointments(), limited to from <= appointment_datetime < to
+     * (either bound may be null). The range is part of the query, so only
+     * matching rows are read and sent.
+     */
+    public Stream<Appointment> streamAppointments(LocalDateTime from, LocalDateTime to)
+            throws SQLException {
+
+        StringBuilder sql = new StringBuilder("SELECT " + COLUMNS + " FROM appointments");
+        if (from != null || to != null) {
+            sql.append(" WHERE ");
+            if (from != null) {
+                sql.append("appointment_datetime >= ?");
+            }
+            if (to != null) {
+                sql.append(from != null ? " AND " : "").append("appointment_datetime < ?");
+            }
+        }
+        sql.append(" ORDER BY id");
+
+        Connection con = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        // Only opening the cursor is timed; the caller decides how long reading takes
+        OperationMetrics.Call call = STREAM_ALL.start();
+        try {
+            con = DBConnection.getReadConnection();
+            ps = con.prepareStatement(sql.toString(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(DBConfig.STREAM_FETCH_SIZE);
+            int idx = 1;
+            if (from != null) {
+                ps.setTimestamp(idx++, Timestamp.valueOf(from));
+            }
+            if (to != null) {
+                ps.setTimestamp(idx, Timestamp.valueOf(to));
+            }
+            rs = ps.executeQuery();
+        } catch (SQLException | RuntimeException e) {
+            STREAM_ALL.error();
+            closeQuietly(rs, ps, con);
+            throw e;
+        } finally {
+            call.close();
+        }
+
+        final ResultSet cursor = rs;
+        final PreparedStatement statement = ps;
+        final Connection connection = con;
+
+        Spliterator<Appointment> rows = new Spliterators.AbstractSpliterator<>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+
+            @Override
+            public boolean tryAdvance(Consumer<? super Appointment> action) {
+                try {
+                    if (!cursor.next()) {
+                        return false;
+                    }
+                    action.accept(mapRowToAppointment(cursor));
+                    return true;
+                } catch (SQLException e) {
+                    throw new IllegalStateException("Error streaming appointments: " + e.getMessage(), e);
+                }
+            }
+        };
+
+        return StreamSupport.stream(rows, false)
+                .onClose(() -> closeQuietly(cursor, statement, connection));
+    }
+
+    /**
+     * Callback variant of streamAllAppointments(): invokes the consumer
+     * for every appointment and releases the connection afterwards.
+     *
+     * @return number of appointments visited
+     */
+    public long forEachAppointment(Consumer<Appointment> consumer) throws SQLException {
+        return forEachAppointment(null, null, consumer);
+    }
+
+    /**
+     * Callback variant of streamAppointments(from, to).
+     *
+     * @return number of appointments visited
+     */
+    public long forEachAppointment(LocalDateTime from, LocalDateTime to,
+                                   Consumer<Appointment> consumer) throws SQLException {
+        long count = 0;
+        OperationMetrics.Call call = FOR_EACH.start();
+        try (Stream<Appointment> stream = streamAppointments(from, to)) {
+            Iterator<Appointment> it = stream.iterator();
+            while (it.hasNext()) {
+                consumer.accept(it.next());
+                count++;
+            }
+            FOR_EACH.rows(count);
+        } catch (IllegalStateException e) {
+            FOR_EACH.error();
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            throw e;
+        } catch (SQLException e) {
+            FOR_EACH.error();
+            throw e;
+        } finally {
+            call.close();
+        }
+        return count;
+    }
+
+    private static void closeQuietly(AutoCloseable... resources) {
+        for (AutoCloseable r : resources) {
+            if (r == null) continue;
+            try {
+                r.close();
+            } catch (Exception e) {
+                System.err.println("Error closing streaming resource: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Maps the current row of a query that selects COLUMNS, by position:
+     * no column-name lookups per row, and the status string becomes a
+     * shared enum constant instead of a retained String.
+     *
+     * Package-private so the JMH suite can measure row mapping on its own.
+     */
+    Appointment mapRowToAppointment(ResultSet rs) throws SQLException {
         Appointment a = new Appointment();
-        a.setId(rs.getInt("id"));
-        a.setPatientId(rs.getInt("patient_id"));
-        a.setDoctorId(rs.getInt("doctor_id"));
+        a.setId(rs.getInt(COL_ID));
+        a.setPatientId(rs.getInt(COL_PATIENT_ID));
+        a.setDoctorId(rs.getInt(COL_DOCTOR_ID));
 
-        Timestamp ts = rs.getTimestamp("appointment_datetime");
+        Timestamp ts = rs.getTimestamp(COL_DATETIME);
         if (ts != null) {
             a.setAppointmentDateTime(ts.toLocalDateTime());
         }
 
-        a.setStatus(rs.getString("status"));
-        a.setNotes(rs.getString("notes"));
+        a.setStatus(AppointmentStatus.fromDb(rs.getString(COL_STATUS)));
+        a.setNotes(rs.getString(COL_NOTES));
+
+        Timestamp modified = rs.getTimestamp(COL_LAST_MODIFIED);
+        if (modified != null) {
+            a.setLastModified(modified.toLocalDateTime());
+        }
         return a;
     }
 }
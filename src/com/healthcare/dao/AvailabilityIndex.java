@@ -0,0 +1,320 @@
+package com.healthcare.dao;
+
+import com.healthcare.utils.DBConfig;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process index of BOOKED appointment times, one sorted map per doctor.
+ *
+ * - A doctor's slots are loaded lazily on the first availability check
+ * - AppointmentService reports committed bookings, cancellations,
+ *   completions and reschedules so the index stays current
+ * - Conflict checks are a TreeMap range lookup: O(log n), no DB hit
+ * - Free-slot searches sweep a sorted copy of the doctor's slots once
+ * - Entries older than DBConfig.AVAILABILITY_INDEX_TTL_MS are treated as a
+ *   miss, so bookings made by other processes show up after at most one TTL
+ *
+ * The database stays authoritative: on a miss or an expired entry the
+ * caller reloads the doctor from the DB, and invalidate() forces that.
+ * The index is advisory (free-slot picker, quick checks); bookings and
+ * reschedules re-check against the DB under the doctor row lock.
+ */
+public class AvailabilityIndex {
+
+    private static final AvailabilityIndex INSTANCE =
+            new AvailabilityIndex(DBConfig.AVAILABILITY_INDEX_TTL_MS);
+
+    private static final String LOAD_SQL = StatementCache.register("AvailabilityIndex.load", """
+        SELECT id, appointment_datetime
+        FROM appointments
+        WHERE doctor_id = ?
+        AND status = 'BOOKED'
+        """);
+
+    private static final long SECONDS_PER_DAY = 24 * 60 * 60L;
+
+    private final long ttlMillis;
+    private final ConcurrentHashMap<Integer, DoctorSlots> doctors = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, Integer> doctorByAppointment = new ConcurrentHashMap<>();
+
+    // Bumped on every change for a doctor, so a load racing with a booking is not cached
+    private final ConcurrentHashMap<Integer, Long> versions = new ConcurrentHashMap<>();
+
+    AvailabilityIndex(long ttlMillis) {
+        this.ttlMillis = ttlMillis;
+    }
+
+    public static AvailabilityIndex getInstance() {
+        return INSTANCE;
+    }
+
+    public boolean isEnabled() {
+        return ttlMillis > 0;
+    }
+
+    // ================================
+    // LOOKUP
+    // ================================
+
+    /**
+     * Checks the cached slots of a doctor.
+     *
+     * @return TRUE/FALSE when the doctor is cached and fresh,
+     *         null on a miss (caller should use load())
+     */
+    Boolean isAvailable(int doctorId, LocalDateTime requestedTime, int excludeAppointmentId) {
+        DoctorSlots slots = doctors.get(doctorId);
+        if (slots == null || isExpired(slots)) {
+            return null;
+        }
+        return slots.isFree(requestedTime, excludeAppointmentId);
+    }
+
+    /**
+     * Loads a doctor's BOOKED slots from the DB and answers the check from them.
+     */
+    boolean loadAndCheck(Connection con, int doctorId, LocalDateTime requestedTime,
+                         int excludeAppointmentId) throws SQLException {
+        return load(con, doctorId).isFree(requestedTime, excludeAppointmentId);
+    }
+
+    /**
+     * Start times in [from, to] on a stepMinutes grid at which the doctor
+     * has no BOOKED appointment within 20 minutes, earliest first, at most
+     * limit of them. Each day's grid starts at its midnight, so a step that
+     * does not divide a day still offers the same times every day.
+     *
+     * The doctor's slots come from the index (or one DB load) and are
+     * copied once as sorted epoch seconds; the candidates are then checked
+     * in a single merge pass over that array: O(booked + candidates).
+     */
+    List<LocalDateTime> findFreeSlots(Connection con, int doctorId, LocalDateTime from,
+                                      LocalDateTime to, int stepMinutes, int limit)
+            throws SQLException {
+
+        if (stepMinutes <= 0) {
+            throw new IllegalArgumentException("stepMinutes must be positive, got " + stepMinutes);
+        }
+
+        if (limit <= 0 || from.isAfter(to)) {
+            return new ArrayList<>();
+        }
+        List<LocalDateTime> free = new ArrayList<>(Math.min(limit, 256));
+
+        DoctorSlots slots = doctors.get(doctorId);
+        if (slots == null || isExpired(slots)) {
+            slots = load(con, doctorId);
+        }
+        long[] booked = slots.bookedBetween(from.minusMinutes(20), to.plusMinutes(20));
+
+        long step = stepMinutes * 60L;
+        long gap = 20 * 60L;
+        long first = toSeconds(from);
+        long last = toSeconds(to);
+
+        long midnight = toSeconds(from.toLocalDate().atStartOfDay());
+        long t = midnight + Math.floorDiv(first - midnight + step - 1, step) * step;
+
+        int next = 0; // first booked time not yet more than 20 minutes behind the candidate
+        while (free.size() < limit) {
+            if (t >= midnight + SECONDS_PER_DAY) {
+                // Next day: its grid restarts at midnight
+                midnight += SECONDS_PER_DAY;
+                t = midnight;
+            }
+            if (t > last) {
+                break;
+            }
+            while (next < booked.length && booked[next] < t - gap) {
+                next++;
+            }
+            if (next == booked.length || booked[next] > t + gap) {
+                free.add(LocalDateTime.ofEpochSecond(t, 0, ZoneOffset.UTC));
+            }
+            t += step;
+        }
+        return free;
+    }
+
+    private static long toSeconds(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /**
+     * Reads a doctor's BOOKED slots from the DB and caches them (if the
+     * index is enabled and no booking raced with the load).
+     */
+    private DoctorSlots load(Connection con, int doctorId) throws SQLException {
+        long versionBefore = versions.getOrDefault(doctorId, 0L);
+        DoctorSlots slots = new DoctorSlots(System.currentTimeMillis());
+
+        try (PreparedStatement ps = con.prepareStatement(LOAD_SQL)) {
+            ps.setInt(1, doctorId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Timestamp ts = rs.getTimestamp(2);
+                    if (ts != null) {
+                        slots.add(rs.getInt(1), ts.toLocalDateTime());
+                    }
+                }
+            }
+        }
+
+        // Only cache the snapshot if nothing changed for this doctor meanwhile
+        if (isEnabled() && versions.getOrDefault(doctorId, 0L) == versionBefore) {
+            for (Integer id : slots.timeById.keySet()) {
+                doctorByAppointment.put(id, doctorId);
+            }
+            doctors.put(doctorId, slots);
+        }
+        return slots;
+    }
+
+    private boolean isExpired(DoctorSlots slots) {
+        return System.currentTimeMillis() - slots.loadedAt > ttlMillis;
+    }
+
+    // ================================
+    // UPDATES (call after COMMIT)
+    // ================================
+
+    public void onBooked(int appointmentId, int doctorId, LocalDateTime dateTime) {
+        bumpVersion(doctorId);
+        DoctorSlots slots = doctors.get(doctorId);
+        if (slots != null && dateTime != null) {
+            slots.add(appointmentId, dateTime);
+            doctorByAppointment.put(appointmentId, doctorId);
+        }
+    }
+
+    /**
+     * Appointment is no longer BOOKED (cancelled or completed). The version
+     * is bumped even if the doctor is not cached, so a load running right
+     * now does not cache the slot as still taken.
+     */
+    public void onReleased(int appointmentId, int doctorId) {
+        bumpVersion(doctorId);
+        doctorByAppointment.remove(appointmentId);
+        DoctorSlots slots = doctors.get(doctorId);
+        if (slots != null) {
+            slots.remove(appointmentId);
+        }
+    }
+
+    public void onRescheduled(int appointmentId, int doctorId, LocalDateTime newDateTime) {
+        onReleased(appointmentId, doctorId);
+        onBooked(appointmentId, doctorId, newDateTime);
+    }
+
+    /**
+     * Drops a doctor's cached slots; the next check reloads them from the DB.
+     */
+    public void invalidate(int doctorId) {
+        bumpVersion(doctorId);
+        DoctorSlots slots = doctors.remove(doctorId);
+        if (slots != null) {
+            for (Integer id : slots.ids()) {
+                doctorByAppointment.remove(id);
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        for (Integer doctorId : doctors.keySet()) {
+            invalidate(doctorId);
+        }
+    }
+
+    private void bumpVersion(int doctorId) {
+        versions.merge(doctorId, 1L, Long::sum);
+    }
+
+    /**
+     * BOOKED slots of one doctor: time -> number of appointments at that time.
+     */
+    private static final class DoctorSlots {
+
+        final long loadedAt;
+        final TreeMap<LocalDateTime, Integer> countByTime = new TreeMap<>();
+        final Map<Integer, LocalDateTime> timeById = new HashMap<>();
+
+        DoctorSlots(long loadedAt) {
+            this.loadedAt = loadedAt;
+        }
+
+        synchronized void add(int appointmentId, LocalDateTime dateTime) {
+            LocalDateTime previous = timeById.put(appointmentId, dateTime);
+            if (previous != null) {
+                decrement(previous);
+            }
+            countByTime.merge(dateTime, 1, Integer::sum);
+        }
+
+        synchronized void remove(int appointmentId) {
+            LocalDateTime time = timeById.remove(appointmentId);
+            if (time != null) {
+                decrement(time);
+            }
+        }
+
+        synchronized List<Integer> ids() {
+            return new ArrayList<>(timeById.keySet());
+        }
+
+        private void decrement(LocalDateTime time) {
+            countByTime.computeIfPresent(time, (t, c) -> c > 1 ? c - 1 : null);
+        }
+
+        /**
+         * Distinct BOOKED times in [from, to] as sorted epoch seconds (UTC).
+         */
+        synchronized long[] bookedBetween(LocalDateTime from, LocalDateTime to) {
+            NavigableMap<LocalDateTime, Integer> window = countByTime.subMap(from, true, to, true);
+            long[] seconds = new long[window.size()];
+            int i = 0;
+            for (LocalDateTime time : window.keySet()) {
+                seconds[i++] = toSeconds(time);
+            }
+            return seconds;
+        }
+
+        /**
+         * Same rule as the SQL check: no BOOKED appointment within
+         * 20 minutes before or after (inclusive).
+         */
+        synchronized boolean isFree(LocalDateTime requestedTime, int excludeAppointmentId) {
+            LocalDateTime start = requestedTime.minusMinutes(20);
+            LocalDateTime end = requestedTime.plusMinutes(20);
+
+            NavigableMap<LocalDateTime, Integer> window = countByTime.subMap(start, true, end, true);
+            if (window.isEmpty()) {
+                return true;
+            }
+
+            LocalDateTime own = excludeAppointmentId > 0 ? timeById.get(excludeAppointmentId) : null;
+            if (own == null) {
+                return false;
+            }
+
+            int clashes = 0;
+            for (Map.Entry<LocalDateTime, Integer> e : window.entrySet()) {
+                clashes += e.getValue();
+            }
+            // The appointment being moved does not clash with itself
+            return clashes == 1 && window.containsKey(own);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.healthcare.dao;
+
+/**
+ * Immutable snapshot of the user lookup cache.
+ * Obtained through UserDAO.getCacheStats().
+ */
+public final class CacheStats {
+
+    private final int size;
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final long expiredCount;
+
+    CacheStats(int size, long hitCount, long missCount,
+               long evictionCount, long expiredCount) {
+        this.size = size;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.expiredCount = expiredCount;
+    }
+
+    /** Users currently cached (counted by username). */
+    public int getSize() {
+        return size;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /** Lookups that went to the database, including expired entries. */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /** Entries dropped because their segment was full. */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /** Entries dropped because they outlived the TTL. */
+    public long getExpiredCount() {
+        return expiredCount;
+    }
+
+    public double getHitRate() {
+        long total = hitCount + missCount;
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "CacheStats{size=%d, hits=%d, misses=%d, hitRate=%.1f%%, evictions=%d, expired=%d}",
+                size, hitCount, missCount, getHitRate() * 100,
+                evictionCount, expiredCount);
+    }
+}
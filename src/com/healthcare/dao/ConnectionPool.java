@@ -0,0 +1,547 @@
+package com.healthcare.dao;
+
+import com.healthcare.metrics.Metrics;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded JDBC connection pool used behind DBConnection.getConnection().
+ *
+ * - At most maxSize physical connections are open at any time
+ * - A background housekeeper keeps minSize connections warm, closes
+ *   connections idle longer than idleTimeout and reports leaks
+ * - Idle connections are validated on borrow
+ * - Borrowers wait at most borrowTimeout for a free connection
+ *
+ * Callers receive a proxy whose close() returns the physical
+ * connection to the pool instead of closing it, so existing
+ * try-with-resources code keeps working unchanged. Likewise,
+ * prepareStatement() of SQL registered with StatementCache hands out
+ * a statement kept open on the physical connection, and its close()
+ * puts it back into that connection's cache.
+ */
+class ConnectionPool {
+
+    // Connections returned more recently than this are not re-validated
+    private static final long ALIVE_BYPASS_WINDOW_MS = 500;
+
+    private final String url;
+    private final String user;
+    private final String password;
+
+    private final int minSize;
+    private final int maxSize;
+    private final long idleTimeoutMs;
+    private final long borrowTimeoutMs;
+    private final long leakDetectionMs;
+    private final int validationTimeoutSeconds;
+    private final int statementCacheSize;
+
+    // LIFO: hot connections are reused first, cold ones age out at the tail
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> inUse = ConcurrentHashMap.newKeySet();
+    private final Semaphore permits;
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final AtomicInteger waitingThreads = new AtomicInteger();
+
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final LongAdder timeoutCount = new LongAdder();
+    private final LongAdder leakCount = new LongAdder();
+    private final LongAdder createdCount = new LongAdder();
+    private final LongAdder destroyedCount = new LongAdder();
+
+    // Statement cache counters, per registered statement name
+    private final ConcurrentHashMap<String, LongAdder> statementHits = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LongAdder> statementMisses = new ConcurrentHashMap<>();
+    private final LongAdder statementEvictions = new LongAdder();
+    private final LongAdder uncachedPrepares = new LongAdder();
+
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    ConnectionPool(String url, String user, String password,
+                   int minSize, int maxSize, long idleTimeoutMs,
+                   long borrowTimeoutMs, long leakDetectionMs,
+                   int validationTimeoutSeconds, int statementCacheSize) {
+
+        if (maxSize <= 0 || minSize < 0 || minSize > maxSize) {
+            throw new IllegalArgumentException(
+                    "Invalid pool size: min=" + minSize + ", max=" + maxSize);
+        }
+
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.borrowTimeoutMs = borrowTimeoutMs;
+        this.leakDetectionMs = leakDetectionMs;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.statementCacheSize = Math.max(0, statementCacheSize);
+        this.permits = new Semaphore(maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+
+        long interval = Math.max(1_000, Math.min(30_000, idleTimeoutMs / 2));
+        housekeeper.scheduleWithFixedDelay(this::housekeep, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    // ================================
+    // BORROW
+    // ================================
+    Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+
+        long start = System.nanoTime();
+        boolean acquired;
+
+        waitingThreads.incrementAndGet();
+        try {
+            acquired = permits.tryAcquire(borrowTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        } finally {
+            waitingThreads.decrementAndGet();
+        }
+
+        if (!acquired) {
+            timeoutCount.increment();
+            Metrics.connectionTimedOut();
+            throw new BorrowTimeoutException("Timed out after " + borrowTimeoutMs
+                    + " ms waiting for a database connection (active=" + inUse.size()
+                    + ", max=" + maxSize + ")");
+        }
+
+        try {
+            PooledConnection pc = takeIdleOrCreate(start);
+            pc.borrowedAt = System.currentTimeMillis();
+            pc.leakReported = false;
+            pc.borrowSite = leakDetectionMs > 0
+                    ? new Throwable("Connection borrowed here")
+                    : null;
+            inUse.add(pc);
+
+            long waited = System.nanoTime() - start;
+            borrowCount.increment();
+            totalWaitNanos.add(waited);
+            maxWaitNanos.accumulateAndGet(waited, Math::max);
+            Metrics.connectionAcquired(waited);
+
+            return pc.newProxy();
+
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private PooledConnection takeIdleOrCreate(long start) throws SQLException {
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(borrowTimeoutMs);
+
+        while (true) {
+            PooledConnection pc;
+            while ((pc = idle.pollFirst()) != null) {
+                if (isUsable(pc)) {
+                    return pc;
+                }
+                destroy(pc);
+            }
+
+            if (reserveSlot()) {
+                try {
+                    return create();
+                } catch (SQLException | RuntimeException e) {
+                    totalConnections.decrementAndGet();
+                    throw e;
+                }
+            }
+
+            // Pool is full but a connection is on its way back to the idle deque
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                timeoutCount.increment();
+                Metrics.connectionTimedOut();
+                throw new BorrowTimeoutException("Timed out waiting for an idle database connection");
+            }
+            try {
+                pc = idle.pollFirst(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(10)),
+                        TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a database connection", e);
+            }
+            if (pc != null) {
+                if (isUsable(pc)) {
+                    return pc;
+                }
+                destroy(pc);
+            }
+        }
+    }
+
+    private boolean isUsable(PooledConnection pc) {
+        if (System.currentTimeMillis() - pc.lastReturnedAt < ALIVE_BYPASS_WINDOW_MS) {
+            return true;
+        }
+        try {
+            return pc.raw.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    // ================================
+    // RETURN
+    // ================================
+    private void release(PooledConnection pc) {
+        if (!inUse.remove(pc)) {
+            return; // already returned
+        }
+
+        try {
+            Connection raw = pc.raw;
+            if (!raw.getAutoCommit()) {
+                // Never leak an unfinished transaction to the next borrower
+                // (setAutoCommit(true) would commit it); a no-op after commit()
+                raw.rollback();
+                raw.setAutoCommit(true);
+            }
+            if (raw.isReadOnly()) {
+                raw.setReadOnly(false);
+            }
+            raw.clearWarnings();
+
+            if (closed || raw.isClosed()) {
+                destroy(pc);
+            } else {
+                pc.lastReturnedAt = System.currentTimeMillis();
+                idle.offerFirst(pc);
+            }
+
+        } catch (SQLException e) {
+            destroy(pc);
+        } finally {
+            permits.release();
+        }
+    }
+
+    // ================================
+    // HOUSEKEEPING
+    // ================================
+    private void housekeep() {
+        try {
+            evictIdle();
+            fillToMinimum();
+            detectLeaks();
+        } catch (Exception e) {
+            System.err.println("Connection pool housekeeping failed: " + e.getMessage());
+        }
+    }
+
+    private void evictIdle() {
+        long now = System.currentTimeMillis();
+        for (PooledConnection pc : idle) {
+            if (totalConnections.get() <= minSize) {
+                return;
+            }
+            if (now - pc.lastReturnedAt > idleTimeoutMs && idle.remove(pc)) {
+                destroy(pc);
+            }
+        }
+    }
+
+    private void fillToMinimum() {
+        while (!closed && totalConnections.get() < minSize && reserveSlot()) {
+            try {
+                PooledConnection pc = create();
+                pc.lastReturnedAt = System.currentTimeMillis();
+                idle.offerLast(pc);
+            } catch (SQLException e) {
+                totalConnections.decrementAndGet();
+                System.err.println("Connection pool could not open connection: " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+    private void detectLeaks() {
+        if (leakDetectionMs <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (PooledConnection pc : inUse) {
+            if (!pc.leakReported && now - pc.borrowedAt > leakDetectionMs) {
+                pc.leakReported = true;
+                leakCount.increment();
+                System.err.println("Possible connection leak: connection held for "
+                        + (now - pc.borrowedAt) + " ms");
+                if (pc.borrowSite != null) {
+                    pc.borrowSite.printStackTrace();
+                }
+            }
+        }
+    }
+
+    // ================================
+    // PHYSICAL CONNECTIONS
+    // ================================
+    private boolean reserveSlot() {
+        while (true) {
+            int current = totalConnections.get();
+            if (current >= maxSize) {
+                return false;
+            }
+            if (totalConnections.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private PooledConnection create() throws SQLException {
+        Connection raw = DriverManager.getConnection(url, user, password);
+        createdCount.increment();
+        return new PooledConnection(raw);
+    }
+
+    private void destroy(PooledConnection pc) {
+        totalConnections.decrementAndGet();
+        destroyedCount.increment();
+        if (pc.statements != null) {
+            pc.statements.closeAll();
+        }
+        try {
+            pc.raw.close();
+        } catch (SQLException ignored) {
+            // connection is already unusable
+        }
+    }
+
+    // ================================
+    // STATS / SHUTDOWN
+    // ================================
+
+    /**
+     * Borrowed connections plus threads waiting for one; cheap enough to
+     * call on every borrow (ReplicaRouter picks the least loaded pool).
+     */
+    int load() {
+        return maxSize - permits.availablePermits() + waitingThreads.get();
+    }
+
+    PoolStats getStats() {
+        long borrows = borrowCount.sum();
+        double avgWait = borrows == 0 ? 0.0 : totalWaitNanos.sum() / (double) borrows / 1_000_000.0;
+
+        return new PoolStats(
+                inUse.size(),
+                idle.size(),
+                totalConnections.get(),
+                maxSize,
+                waitingThreads.get(),
+                borrows,
+                timeoutCount.sum(),
+                leakCount.sum(),
+                createdCount.sum(),
+                destroyedCount.sum(),
+                avgWait,
+                maxWaitNanos.get() / 1_000_000.0
+        );
+    }
+
+    StatementCacheStats getStatementCacheStats() {
+        int cached = 0;
+        for (PooledConnection pc : idle) {
+            cached += pc.statements == null ? 0 : pc.statements.size();
+        }
+        for (PooledConnection pc : inUse) {
+            cached += pc.statements == null ? 0 : pc.statements.size();
+        }
+
+        Set<String> names = new TreeSet<>(statementHits.keySet());
+        names.addAll(statementMisses.keySet());
+        List<StatementCacheStats.Statement> statements = new ArrayList<>(names.size());
+        long hits = 0;
+        long misses = 0;
+        for (String name : names) {
+            long h = sum(statementHits, name);
+            long m = sum(statementMisses, name);
+            hits += h;
+            misses += m;
+            statements.add(new StatementCacheStats.Statement(name, h, m));
+        }
+
+        return new StatementCacheStats(statementCacheSize, cached, hits, misses,
+                statementEvictions.sum(), uncachedPrepares.sum(), statements);
+    }
+
+    private static long sum(Map<String, LongAdder> counters, String name) {
+        LongAdder counter = counters.get(name);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    private static void increment(Map<String, LongAdder> counters, String name) {
+        LongAdder counter = counters.get(name);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(name, k -> new LongAdder());
+        }
+        counter.increment();
+    }
+
+    void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+
+        PooledConnection pc;
+        while ((pc = idle.pollFirst()) != null) {
+            destroy(pc);
+        }
+        // Borrowed connections are destroyed as they are returned
+    }
+
+    /**
+     * Every connection stayed in use for the whole borrow timeout: the pool
+     * is busy, not broken (failures to connect surface as other SQLExceptions).
+     */
+    static final class BorrowTimeoutException extends SQLTimeoutException {
+
+        private static final long serialVersionUID = 1L;
+
+        BorrowTimeoutException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Physical connection plus the bookkeeping the pool needs for it.
+     */
+    private final class PooledConnection {
+
+        final Connection raw;
+        final StatementCache statements; // null when statement caching is off
+        volatile long borrowedAt;
+        volatile long lastReturnedAt;
+        volatile boolean leakReported;
+        volatile Throwable borrowSite;
+
+        PooledConnection(Connection raw) {
+            this.raw = raw;
+            this.statements = statementCacheSize > 0
+                    ? new StatementCache(statementCacheSize, statementEvictions)
+                    : null;
+        }
+
+        Connection newProxy() {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new Handler(this));
+        }
+    }
+
+    /**
+     * Delegates to the physical connection until close() is called,
+     * after which the proxy behaves like a closed connection.
+     */
+    private final class Handler implements InvocationHandler {
+
+        private final PooledConnection pc;
+        private boolean returned;
+
+        Handler(PooledConnection pc) {
+            this.pc = pc;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+
+            switch (name) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        release(pc);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || pc.raw.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pc.raw + "]";
+                default:
+                    break;
+            }
+
+            if (returned) {
+                throw new SQLException("Connection is closed");
+            }
+
+            if ("prepareStatement".equals(name) && pc.statements != null) {
+                return prepareCached(proxy, method, args);
+            }
+            return invokeOn(pc.raw, method, args);
+        }
+
+        /**
+         * Registered SQL gets the connection's cached statement if it has
+         * one, otherwise a new one that is cached once the caller closes it.
+         */
+        private Object prepareCached(Object proxy, Method method, Object[] args) throws Throwable {
+            StatementCache.Key key = StatementCache.keyOf(args);
+            if (key == null) {
+                uncachedPrepares.increment();
+                return invokeOn(pc.raw, method, args);
+            }
+
+            StatementCache.CachedStatement statement = pc.statements.take(key);
+            if (statement != null) {
+                increment(statementHits, key.name);
+            } else {
+                increment(statementMisses, key.name);
+                statement = pc.statements.wrap(key, (PreparedStatement) invokeOn(pc.raw, method, args));
+            }
+            return statement.checkOut(proxy);
+        }
+    }
+
+    private static Object invokeOn(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -2,13 +2,23 @@ package com.healthcare.dao;
 
 import com.healthcare.utils.DBConfig;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Centralized database connection helper.
  * Uses DBConfig for configuration values.
  *
+ * Connections are served from a bounded pool (see ConnectionPool).
+ * Closing a connection returns it to the pool, so DAOs and services
+ * keep using try-with-resources / finally { con.close(); } as before.
+ *
+ * getConnection() always returns a connection to the primary (DBConfig.URL):
+ * writes, transactions and anything that must see the latest data. The
+ * appointment list reads use getReadConnectionFor*() instead, which go to
+ * a read replica when DBConfig.REPLICA_URLS lists any (see ReplicaRouter).
+ *
  * Make sure MySQL Connector/J is added to your project:
  * mysql-connector-j-8.x.x.jar
  */
@@ -25,17 +35,144 @@ public class DBConnection {
         }
     }
 
+    // Pool is created on first use, not when the class is loaded
+    private static final class PoolHolder {
+        static final ConnectionPool POOL = createPool(DBConfig.URL, DBConfig.USER, DBConfig.PASSWORD,
+                DBConfig.POOL_BORROW_TIMEOUT_MS);
+    }
+
+    // Replica pools likewise, on the first read
+    private static final class RouterHolder {
+        static final ReplicaRouter ROUTER = createRouter();
+    }
+
+    // Set once RouterHolder is initialized, so shutdown() does not create replica pools
+    private static volatile ReplicaRouter createdRouter;
+
+    private static ConnectionPool createPool(String url, String user, String password,
+                                             long borrowTimeoutMs) {
+        ConnectionPool pool = new ConnectionPool(
+                url,
+                user,
+                password,
+                DBConfig.POOL_MIN_SIZE,
+                DBConfig.POOL_MAX_SIZE,
+                DBConfig.POOL_IDLE_TIMEOUT_MS,
+                borrowTimeoutMs,
+                DBConfig.POOL_LEAK_DETECTION_MS,
+                DBConfig.POOL_VALIDATION_TIMEOUT_SECONDS,
+                DBConfig.POOL_STATEMENT_CACHE_SIZE
+        );
+        Runtime.getRuntime().addShutdownHook(new Thread(pool::close, "db-pool-shutdown"));
+        return pool;
+    }
+
+    private static ReplicaRouter createRouter() {
+        List<ConnectionPool> replicas = new ArrayList<>();
+        for (String url : DBConfig.REPLICA_URLS.split(",")) {
+            if (!url.isBlank()) {
+                replicas.add(createPool(url.trim(), DBConfig.REPLICA_USER, DBConfig.REPLICA_PASSWORD,
+                        DBConfig.REPLICA_BORROW_TIMEOUT_MS));
+            }
+        }
+        ReplicaRouter router = new ReplicaRouter(PoolHolder.POOL, replicas, DBConfig.READ_YOUR_WRITES_MS);
+        createdRouter = router;
+        return router;
+    }
+
     /**
-     * Returns a Connection object to the database.
+     * Returns a pooled Connection object to the database.
+     * Callers must close it to hand it back to the pool.
+     * With -Dhealthcare.sqlTrace.enabled=true it is wrapped for SqlTrace.
      *
      * @return active SQL connection
-     * @throws SQLException if credentials or DB are incorrect
+     * @throws SQLException if credentials or DB are incorrect,
+     *                      or no connection frees up within the borrow timeout
      */
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(
-                DBConfig.URL,
-                DBConfig.USER,
-                DBConfig.PASSWORD
-        );
+        return traced(PoolHolder.POOL.borrow());
+    }
+
+    /**
+     * Connection for a read-only query that may lag behind the primary by
+     * the replication delay, e.g. exports. Goes to the primary when no
+     * replicas are configured.
+     */
+    public static Connection getReadConnection() throws SQLException {
+        return traced(RouterHolder.ROUTER.borrow());
+    }
+
+    /**
+     * Read-only connection for a patient's own data: a replica, unless the
+     * patient wrote within the last healthcare.db.readYourWritesMs.
+     */
+    public static Connection getReadConnectionForPatient(int patientId) throws SQLException {
+        return traced(RouterHolder.ROUTER.borrowForPatient(patientId));
+    }
+
+    /**
+     * Read-only connection for a doctor's own data (see getReadConnectionForPatient).
+     */
+    public static Connection getReadConnectionForDoctor(int doctorId) throws SQLException {
+        return traced(RouterHolder.ROUTER.borrowForDoctor(doctorId));
+    }
+
+    /**
+     * Keeps the patient's reads on the primary for the read-your-writes
+     * window. Call after committing a change to their appointments.
+     */
+    public static void recordPatientWrite(int patientId) {
+        RouterHolder.ROUTER.recordPatientWrite(patientId);
+    }
+
+    public static void recordDoctorWrite(int doctorId) {
+        RouterHolder.ROUTER.recordDoctorWrite(doctorId);
+    }
+
+    /**
+     * True if reads can go to a replica, i.e. healthcare.db.replicaUrls is set.
+     */
+    public static boolean hasReplicas() {
+        return RouterHolder.ROUTER.hasReplicas();
+    }
+
+    private static Connection traced(Connection con) {
+        return SqlTrace.ENABLED ? TracingConnection.wrap(con) : con;
+    }
+
+    /**
+     * Returns a snapshot of the pool: active / idle connections,
+     * waiting threads, wait times, timeouts and detected leaks.
+     */
+    public static PoolStats getPoolStats() {
+        return PoolHolder.POOL.getStats();
+    }
+
+    /**
+     * Returns hit / miss counters of the per-connection prepared statement
+     * caches, in total and per registered statement.
+     */
+    public static StatementCacheStats getStatementCacheStats() {
+        return PoolHolder.POOL.getStatementCacheStats();
+    }
+
+    /**
+     * Returns where reads went (replica, primary by read-your-writes,
+     * primary as fallback) and each replica pool's state.
+     */
+    public static ReadRoutingStats getReadRoutingStats() {
+        return RouterHolder.ROUTER.getStats();
+    }
+
+    /**
+     * Closes all idle connections and stops the pools.
+     * Called automatically on JVM shutdown.
+     */
+    public static void shutdown() {
+        PoolHolder.POOL.close();
+        ReplicaRouter router = createdRouter;
+        if (router != null) {
+            router.close();
+        }
     }
 }
@@ -0,0 +1,485 @@
+package com.healthcare.dao;
+
+import com.healthcare.metrics.Metrics;
+import com.healthcare.metrics.OperationMetrics;
+import com.healthcare.models.Doctor;
+import com.healthcare.utils.DBConfig;
+import com.healthcare.utils.VirtualThreads;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory search index over the doctors table, for typeahead.
+ *
+ * - All doctors are loaded once (UserDAO.findAllDoctors) on the first query
+ * - Inverted index: lower-case specialization -> its doctors
+ * - Prefix trie over the words of every name and specialization; each
+ *   node keeps the doctors below it sorted by name, so a query walks the
+ *   trie once per word and reads the smallest match set in order until
+ *   `limit` doctors also match the other words
+ * - UserDAO.create adds new doctors as they are inserted; bulk imports
+ *   call invalidate()
+ * - Older than DBConfig.DOCTOR_DIRECTORY_TTL_MS the index keeps answering
+ *   while one background reload picks up doctors added by other processes
+ *
+ * Results are copies without passwords, ordered by name.
+ */
+public class DoctorDirectory {
+
+    private static final DoctorDirectory INSTANCE =
+            new DoctorDirectory(DBConfig.DOCTOR_DIRECTORY_TTL_MS);
+
+    private static final ExecutorService REFRESHER =
+            VirtualThreads.newThreadPerTaskExecutor("doctor-directory");
+
+    private static final OperationMetrics SEARCH = Metrics.operation("DoctorDirectory.search");
+
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Comparator<Entry> BY_NAME = Comparator
+            .comparing((Entry e) -> e.sortKey)
+            .thenComparingInt(e -> e.doctor.getId());
+
+    private final long ttlMillis;
+    private final UserDAO userDAO = new UserDAO();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    // Guarded by lock
+    private Index index;
+    private long loadedAt;
+    private int generation;        // bumped by invalidate()
+    private int loadedGeneration;  // generation the index was loaded in
+    private int loadsInFlight;
+    private final List<Doctor> addedDuringLoad = new ArrayList<>();
+
+    DoctorDirectory(long ttlMillis) {
+        this.ttlMillis = ttlMillis;
+    }
+
+    public static DoctorDirectory getInstance() {
+        return INSTANCE;
+    }
+
+    // ================================
+    // QUERIES
+    // ================================
+
+    /**
+     * Doctors matching every word of query, by name.
+     * Each word matches the start of a word of the doctor's name or
+     * specialization ("sm card" finds "Dr. Anna Smith, Cardiology").
+     *
+     * @param query          typed text; blank = everyone
+     * @param specialization exact specialization (any case), or null/blank for all
+     */
+    public List<Doctor> search(String query, String specialization, int limit) throws SQLException {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+
+        OperationMetrics.Call call = SEARCH.start();
+        try {
+            Index current = current();
+            List<Doctor> found;
+
+            lock.readLock().lock();
+            try {
+                found = current.search(words(query), key(specialization), limit);
+            } finally {
+                lock.readLock().unlock();
+            }
+
+            SEARCH.rows(found.size());
+            return found;
+        } catch (SQLException e) {
+            SEARCH.error();
+            throw e;
+        } finally {
+            call.close();
+        }
+    }
+
+    /**
+     * The doctor with the given doctors.id.
+     */
+    public Optional<Doctor> findById(int doctorId) throws SQLException {
+        Index current = current();
+        lock.readLock().lock();
+        try {
+            Entry e = current.byId.get(doctorId);
+            return Optional.ofNullable(e == null ? null : copyOf(e.doctor));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Every specialization, sorted, spelled as by the first doctor (by name) who has it.
+     */
+    public List<String> getSpecializations() throws SQLException {
+        Index current = current();
+        lock.readLock().lock();
+        try {
+            List<String> names = new ArrayList<>(current.bySpecialization.size());
+            for (NavigableSet<Entry> doctors : current.bySpecialization.values()) {
+                names.add(doctors.first().doctor.getSpecialization());
+            }
+            return names;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() throws SQLException {
+        Index current = current();
+        lock.readLock().lock();
+        try {
+            return current.byId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ================================
+    // UPDATES
+    // ================================
+
+    /**
+     * Adds (or replaces) a doctor that was just inserted. Its id must be the doctors.id.
+     */
+    void add(Doctor doctor) {
+        Doctor d = copyOf(doctor);
+        lock.writeLock().lock();
+        try {
+            if (index != null) {
+                index.add(d);
+            }
+            if (loadsInFlight > 0) {
+                addedDuringLoad.add(d); // the load's snapshot may predate it
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Marks the index stale, e.g. after a bulk import; the next query
+     * starts a background reload and is answered from the old index.
+     */
+    public void invalidate() {
+        lock.writeLock().lock();
+        try {
+            generation++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ================================
+    // LOADING
+    // ================================
+
+    /**
+     * The loaded index; loads it on the first call, and starts a
+     * background reload once it has expired.
+     */
+    private Index current() throws SQLException {
+        Index current;
+        boolean expired;
+        lock.readLock().lock();
+        try {
+            current = index;
+            expired = loadedGeneration != generation
+                    || (ttlMillis > 0 && System.currentTimeMillis() - loadedAt > ttlMillis);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        if (current == null) {
+            synchronized (this) {
+                // Another caller may have finished the first load meanwhile
+                lock.readLock().lock();
+                try {
+                    current = index;
+                } finally {
+                    lock.readLock().unlock();
+                }
+                return current != null ? current : load();
+            }
+        }
+
+        if (expired && refreshing.compareAndSet(false, true)) {
+            REFRESHER.execute(() -> {
+                try {
+                    load();
+                } catch (SQLException e) {
+                    System.err.println("Doctor directory reload failed: " + e.getMessage());
+                } finally {
+                    refreshing.set(false);
+                }
+            });
+        }
+        return current;
+    }
+
+    /**
+     * Builds a new index from the DB (outside the lock) and swaps it in,
+     * re-applying doctors that were added while the query ran.
+     */
+    private Index load() throws SQLException {
+        long startedAt = System.currentTimeMillis();
+        int startGeneration;
+        lock.writeLock().lock();
+        try {
+            loadsInFlight++;
+            startGeneration = generation;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Index fresh = null;
+        try {
+            fresh = build(userDAO.findAllDoctors());
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (fresh != null) {
+                    for (Doctor d : addedDuringLoad) {
+                        fresh.add(d);
+                    }
+                    index = fresh;
+                    loadedAt = startedAt;
+                    loadedGeneration = startGeneration; // an invalidate() during the load stays pending
+                }
+                if (--loadsInFlight == 0) {
+                    addedDuringLoad.clear();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        return fresh;
+    }
+
+    /**
+     * Replaces the contents with the given doctors (benchmarks).
+     */
+    void load(List<Doctor> doctors) {
+        Index fresh = build(doctors);
+        lock.writeLock().lock();
+        try {
+            index = fresh;
+            loadedAt = System.currentTimeMillis();
+            loadedGeneration = generation;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static Index build(List<Doctor> doctors) {
+        Index fresh = new Index();
+        for (Doctor d : doctors) {
+            fresh.add(copyOf(d));
+        }
+        return fresh;
+    }
+
+    // ================================
+    // INDEX
+    // ================================
+
+    /**
+     * Not thread-safe; DoctorDirectory's lock guards it.
+     */
+    private static final class Index {
+
+        final Map<Integer, Entry> byId = new HashMap<>();
+        final TreeMap<String, NavigableSet<Entry>> bySpecialization = new TreeMap<>();
+        final NavigableSet<Entry> all = new TreeSet<>(BY_NAME);
+        final TrieNode words = new TrieNode();
+
+        void add(Doctor d) {
+            Entry e = new Entry(d);
+            Entry old = byId.put(d.getId(), e);
+            if (old != null) {
+                remove(old);
+            }
+
+            all.add(e);
+            if (e.specialization != null) {
+                bySpecialization.computeIfAbsent(e.specialization, k -> new TreeSet<>(BY_NAME)).add(e);
+            }
+            for (String word : e.words) {
+                TrieNode node = words;
+                for (int i = 0; i < word.length(); i++) {
+                    node = node.children.computeIfAbsent(word.charAt(i), c -> new TrieNode());
+                    node.entries.add(e);
+                }
+            }
+        }
+
+        private void remove(Entry e) {
+            all.remove(e);
+            NavigableSet<Entry> peers = e.specialization == null ? null : bySpecialization.get(e.specialization);
+            if (peers != null) {
+                peers.remove(e);
+                if (peers.isEmpty()) {
+                    bySpecialization.remove(e.specialization);
+                }
+            }
+            for (String word : e.words) {
+                TrieNode node = words;
+                for (int i = 0; i < word.length() && node != null; i++) {
+                    node = node.children.get(word.charAt(i));
+                    if (node != null) {
+                        node.entries.remove(e);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Walks the smallest candidate set (specialization, one prefix or
+         * everyone) in name order and checks the other conditions on each
+         * entry's own words, so no second set is probed.
+         */
+        List<Doctor> search(List<String> prefixes, String specialization, int limit) {
+            NavigableSet<Entry> smallest = all;
+            if (specialization != null) {
+                smallest = bySpecialization.get(specialization);
+                if (smallest == null) {
+                    return new ArrayList<>();
+                }
+            }
+            for (String prefix : prefixes) {
+                NavigableSet<Entry> matches = words.find(prefix);
+                if (matches == null) {
+                    return new ArrayList<>();
+                }
+                if (matches.size() < smallest.size()) {
+                    smallest = matches;
+                }
+            }
+
+            List<Doctor> found = new ArrayList<>(Math.min(limit, 64));
+            for (Entry e : smallest) {
+                if (e.matches(prefixes, specialization)) {
+                    found.add(copyOf(e.doctor));
+                    if (found.size() == limit) {
+                        break;
+                    }
+                }
+            }
+            return found;
+        }
+    }
+
+    /**
+     * A doctor with its lower-case sort key, words and specialization.
+     */
+    private static final class Entry {
+
+        final Doctor doctor;
+        final String sortKey;
+        final String specialization;
+        final String[] words;
+
+        Entry(Doctor doctor) {
+            this.doctor = doctor;
+            this.sortKey = doctor.getName().toLowerCase(Locale.ROOT);
+            this.specialization = key(doctor.getSpecialization());
+
+            List<String> all = words(doctor.getName());
+            for (String word : words(doctor.getSpecialization())) {
+                if (!all.contains(word)) {
+                    all.add(word);
+                }
+            }
+            this.words = all.toArray(new String[0]);
+        }
+
+        boolean matches(List<String> prefixes, String specialization) {
+            if (specialization != null && !specialization.equals(this.specialization)) {
+                return false;
+            }
+            for (String prefix : prefixes) {
+                if (!hasWordStartingWith(prefix)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean hasWordStartingWith(String prefix) {
+            for (String word : words) {
+                if (word.startsWith(prefix)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Trie over lower-case words; entries = everyone with a word starting here.
+     */
+    private static final class TrieNode {
+
+        final Map<Character, TrieNode> children = new HashMap<>(4);
+        final NavigableSet<Entry> entries = new TreeSet<>(BY_NAME);
+
+        NavigableSet<Entry> find(String prefix) {
+            TrieNode node = this;
+            for (int i = 0; i < prefix.length() && node != null; i++) {
+                node = node.children.get(prefix.charAt(i));
+            }
+            return node == null ? null : node.entries;
+        }
+    }
+
+    // ================================
+    // HELPERS
+    // ================================
+
+    /**
+     * Lower-case words of text; punctuation and spaces separate them.
+     */
+    private static List<String> words(String text) {
+        List<String> words = new ArrayList<>(4);
+        if (text == null || text.isBlank()) {
+            return words;
+        }
+        for (String word : WORD_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    private static String key(String specialization) {
+        return specialization == null || specialization.isBlank()
+                ? null
+                : specialization.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Doctor copyOf(Doctor d) {
+        String name = d.getName() != null ? d.getName() : "";
+        return new Doctor(d.getId(), d.getUsername(), null, name, d.getSpecialization());
+    }
+}
@@ -0,0 +1,104 @@
+package com.healthcare.dao;
+
+/**
+ * Immutable snapshot of the connection pool state.
+ * Obtained through DBConnection.getPoolStats().
+ */
+public final class PoolStats {
+
+    private final int active;
+    private final int idle;
+    private final int total;
+    private final int maxSize;
+    private final int waiting;
+    private final long borrowCount;
+    private final long timeoutCount;
+    private final long leakCount;
+    private final long createdCount;
+    private final long destroyedCount;
+    private final double avgWaitMillis;
+    private final double maxWaitMillis;
+
+    PoolStats(int active, int idle, int total, int maxSize, int waiting,
+              long borrowCount, long timeoutCount, long leakCount,
+              long createdCount, long destroyedCount,
+              double avgWaitMillis, double maxWaitMillis) {
+        this.active = active;
+        this.idle = idle;
+        this.total = total;
+        this.maxSize = maxSize;
+        this.waiting = waiting;
+        this.borrowCount = borrowCount;
+        this.timeoutCount = timeoutCount;
+        this.leakCount = leakCount;
+        this.createdCount = createdCount;
+        this.destroyedCount = destroyedCount;
+        this.avgWaitMillis = avgWaitMillis;
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    /** Connections currently borrowed by application code. */
+    public int getActive() {
+        return active;
+    }
+
+    /** Open connections sitting in the pool, ready to be borrowed. */
+    public int getIdle() {
+        return idle;
+    }
+
+    /** Physical connections currently open (active + idle). */
+    public int getTotal() {
+        return total;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /** Threads currently blocked waiting for a connection. */
+    public int getWaiting() {
+        return waiting;
+    }
+
+    public long getBorrowCount() {
+        return borrowCount;
+    }
+
+    /** Borrow attempts that gave up after the borrow timeout. */
+    public long getTimeoutCount() {
+        return timeoutCount;
+    }
+
+    /** Connections reported as held longer than the leak detection threshold. */
+    public long getLeakCount() {
+        return leakCount;
+    }
+
+    public long getCreatedCount() {
+        return createdCount;
+    }
+
+    public long getDestroyedCount() {
+        return destroyedCount;
+    }
+
+    /** Average time spent waiting in getConnection(), in milliseconds. */
+    public double getAvgWaitMillis() {
+        return avgWaitMillis;
+    }
+
+    public double getMaxWaitMillis() {
+        return maxWaitMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "PoolStats{active=%d, idle=%d, total=%d/%d, waiting=%d, borrows=%d, " +
+                "timeouts=%d, leaks=%d, created=%d, destroyed=%d, avgWait=%.3fms, maxWait=%.3fms}",
+                active, idle, total, maxSize, waiting, borrowCount,
+                timeoutCount, leakCount, createdCount, destroyedCount,
+                avgWaitMillis, maxWaitMillis);
+    }
+}
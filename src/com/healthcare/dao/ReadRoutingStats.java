@@ -0,0 +1,58 @@
+package com.healthcare.dao;
+
+import java.util.List;
+
+/**
+ * Immutable snapshot of read/write splitting.
+ * Obtained through DBConnection.getReadRoutingStats().
+ */
+public final class ReadRoutingStats {
+
+    private final long replicaReads;
+    private final long pinnedReads;
+    private final long fallbackReads;
+    private final int trackedWriters;
+    private final List<PoolStats> replicaPools;
+
+    ReadRoutingStats(long replicaReads, long pinnedReads, long fallbackReads,
+                     int trackedWriters, List<PoolStats> replicaPools) {
+        this.replicaReads = replicaReads;
+        this.pinnedReads = pinnedReads;
+        this.fallbackReads = fallbackReads;
+        this.trackedWriters = trackedWriters;
+        this.replicaPools = List.copyOf(replicaPools);
+    }
+
+    /** Read connections served by a replica. */
+    public long getReplicaReads() {
+        return replicaReads;
+    }
+
+    /** Reads kept on the primary because the owner wrote within the read-your-writes window. */
+    public long getPinnedReads() {
+        return pinnedReads;
+    }
+
+    /** Reads sent to the primary because every replica was down or busy. */
+    public long getFallbackReads() {
+        return fallbackReads;
+    }
+
+    /** Patients / doctors currently (or recently) in their read-your-writes window. */
+    public int getTrackedWriters() {
+        return trackedWriters;
+    }
+
+    /** One pool per healthcare.db.replicaUrls entry, in configuration order. */
+    public List<PoolStats> getReplicaPools() {
+        return replicaPools;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "ReadRoutingStats{replicas=%d, replicaReads=%d, pinnedReads=%d, fallbackReads=%d, " +
+                "trackedWriters=%d}",
+                replicaPools.size(), replicaReads, pinnedReads, fallbackReads, trackedWriters);
+    }
+}
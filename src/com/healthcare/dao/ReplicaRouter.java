@@ -0,0 +1,193 @@
+package com.healthcare.dao;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Routes read-only queries to read replicas (see DBConnection.getReadConnection*).
+ *
+ * - The replica with the fewest borrowed connections wins; ties go round-robin
+ * - A replica whose pool stays busy for its (short) borrow timeout is
+ *   passed over for this read only: the next least loaded one is tried,
+ *   then the primary
+ * - A replica that fails to connect is skipped for REPLICA_RETRY_MS;
+ *   meanwhile reads use the other replicas, or the primary
+ * - Read-your-writes: after recordPatientWrite / recordDoctorWrite, that
+ *   owner's reads go to the primary for readYourWritesMs, so a patient
+ *   sees their booking although the replicas lag behind. The window is
+ *   tracked per JVM only.
+ *
+ * Without replicas every read goes to the primary and nothing is tracked.
+ */
+final class ReplicaRouter {
+
+    // How long a replica that failed to connect is left alone
+    private static final long REPLICA_RETRY_MS = 5_000;
+
+    // Expired read-your-writes entries are swept once a map grows past this
+    private static final int MAX_TRACKED_OWNERS = 10_000;
+
+    private final ConnectionPool primary;
+    private final List<ConnectionPool> replicas;
+    private final long readYourWritesNanos;
+
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicLongArray downUntil; // System.nanoTime() per replica, 0 = never failed
+
+    // owner id -> System.nanoTime() until which their reads stay on the primary
+    private final ConcurrentHashMap<Integer, Long> patientWrites = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, Long> doctorWrites = new ConcurrentHashMap<>();
+
+    private final LongAdder replicaReads = new LongAdder();
+    private final LongAdder pinnedReads = new LongAdder();
+    private final LongAdder fallbackReads = new LongAdder();
+
+    ReplicaRouter(ConnectionPool primary, List<ConnectionPool> replicas, long readYourWritesMs) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.readYourWritesNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, readYourWritesMs));
+        this.downUntil = new AtomicLongArray(replicas.size());
+    }
+
+    boolean hasReplicas() {
+        return !replicas.isEmpty();
+    }
+
+    // ================================
+    // READ-YOUR-WRITES
+    // ================================
+
+    void recordPatientWrite(int patientId) {
+        record(patientWrites, patientId);
+    }
+
+    void recordDoctorWrite(int doctorId) {
+        record(doctorWrites, doctorId);
+    }
+
+    private void record(ConcurrentHashMap<Integer, Long> writes, int ownerId) {
+        if (replicas.isEmpty() || readYourWritesNanos == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        writes.put(ownerId, now + readYourWritesNanos);
+        if (writes.size() > MAX_TRACKED_OWNERS) {
+            writes.values().removeIf(until -> until - now < 0);
+        }
+    }
+
+    private static boolean wroteRecently(ConcurrentHashMap<Integer, Long> writes, int ownerId) {
+        Long until = writes.get(ownerId);
+        if (until == null) {
+            return false;
+        }
+        if (until - System.nanoTime() < 0) {
+            writes.remove(ownerId, until);
+            return false;
+        }
+        return true;
+    }
+
+    // ================================
+    // BORROW
+    // ================================
+
+    Connection borrowForPatient(int patientId) throws SQLException {
+        return borrow(wroteRecently(patientWrites, patientId));
+    }
+
+    Connection borrowForDoctor(int doctorId) throws SQLException {
+        return borrow(wroteRecently(doctorWrites, doctorId));
+    }
+
+    Connection borrow() throws SQLException {
+        return borrow(false);
+    }
+
+    private Connection borrow(boolean pinToPrimary) throws SQLException {
+        if (replicas.isEmpty()) {
+            return primary.borrow();
+        }
+        if (pinToPrimary) {
+            pinnedReads.increment();
+            return primary.borrow();
+        }
+
+        for (int r : candidates()) {
+            try {
+                Connection con = replicas.get(r).borrow();
+                replicaReads.increment();
+                return con;
+            } catch (ConnectionPool.BorrowTimeoutException e) {
+                // Busy, not broken: leave it in rotation and try the next one
+            } catch (SQLException e) {
+                downUntil.set(r, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(REPLICA_RETRY_MS));
+                System.err.println("Read replica " + r + " unavailable for "
+                        + REPLICA_RETRY_MS + " ms: " + e.getMessage());
+            }
+        }
+
+        fallbackReads.increment();
+        return primary.borrow();
+    }
+
+    /**
+     * Replicas that are up, least loaded first; equal loads keep the
+     * round-robin order starting at next.
+     */
+    private int[] candidates() {
+        int n = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), n);
+        long now = System.nanoTime();
+
+        int[] order = new int[n];
+        int[] loads = new int[n];
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            int r = (start + i) % n;
+            long down = downUntil.get(r);
+            if (down != 0 && down - now > 0) {
+                continue;
+            }
+            int load = replicas.get(r).load();
+
+            // Insertion sort: a handful of replicas at most
+            int pos = count++;
+            while (pos > 0 && loads[pos - 1] > load) {
+                order[pos] = order[pos - 1];
+                loads[pos] = loads[pos - 1];
+                pos--;
+            }
+            order[pos] = r;
+            loads[pos] = load;
+        }
+        return count == n ? order : Arrays.copyOf(order, count);
+    }
+
+    // ================================
+    // STATS / SHUTDOWN
+    // ================================
+
+    ReadRoutingStats getStats() {
+        List<PoolStats> pools = new ArrayList<>(replicas.size());
+        for (ConnectionPool replica : replicas) {
+            pools.add(replica.getStats());
+        }
+        return new ReadRoutingStats(replicaReads.sum(), pinnedReads.sum(), fallbackReads.sum(),
+                patientWrites.size() + doctorWrites.size(), pools);
+    }
+
+    void close() {
+        for (ConnectionPool replica : replicas) {
+            replica.close();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.healthcare.dao;
+
+/**
+ * Immutable snapshot of one traced SQL statement, aggregated over all its
+ * executions in the current report window.
+ * Obtained through SqlTrace.getTopStatements().
+ *
+ * Times are split the way the driver spends them:
+ * - exec:  executeQuery / executeUpdate until the driver returned
+ * - fetch: inside ResultSet.next(), i.e. reading rows off the network
+ * - map:   between next() calls, i.e. the DAO turning rows into objects
+ */
+public final class SqlStatementStats {
+
+    private final String sql;
+    private final long executions;
+    private final long errors;
+    private final long rows;
+    private final double execMillis;
+    private final double fetchMillis;
+    private final double mapMillis;
+    private final double maxMillis;
+
+    SqlStatementStats(String sql, long executions, long errors, long rows,
+                      double execMillis, double fetchMillis, double mapMillis,
+                      double maxMillis) {
+        this.sql = sql;
+        this.executions = executions;
+        this.errors = errors;
+        this.rows = rows;
+        this.execMillis = execMillis;
+        this.fetchMillis = fetchMillis;
+        this.mapMillis = mapMillis;
+        this.maxMillis = maxMillis;
+    }
+
+    /** Statement text with whitespace collapsed and IN lists shortened. */
+    public String getSql() {
+        return sql;
+    }
+
+    public long getExecutions() {
+        return executions;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    /** Rows read, or rows affected for updates. */
+    public long getRows() {
+        return rows;
+    }
+
+    public double getExecMillis() {
+        return execMillis;
+    }
+
+    public double getFetchMillis() {
+        return fetchMillis;
+    }
+
+    public double getMapMillis() {
+        return mapMillis;
+    }
+
+    /** exec + fetch over all executions: the database and network share. */
+    public double getTotalMillis() {
+        return execMillis + fetchMillis;
+    }
+
+    public double getMeanMillis() {
+        return executions == 0 ? 0.0 : getTotalMillis() / executions;
+    }
+
+    /** Slowest single execution (exec + fetch). */
+    public double getMaxMillis() {
+        return maxMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "%9.1f ms total  %7d x  mean=%.3fms max=%.1fms exec=%.1fms fetch=%.1fms map=%.1fms " +
+                "rows=%d errors=%d  %s",
+                getTotalMillis(), executions, getMeanMillis(), maxMillis,
+                execMillis, fetchMillis, mapMillis, rows, errors, sql);
+    }
+}
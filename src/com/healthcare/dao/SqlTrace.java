@@ -0,0 +1,226 @@
+package com.healthcare.dao;
+
+import com.healthcare.utils.DBConfig;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Opt-in SQL tracing (-Dhealthcare.sqlTrace.enabled=true).
+ *
+ * DBConnection then hands out connections wrapped by TracingConnection,
+ * which reports every statement execution here with its exec time,
+ * fetch time, row-mapping time and row count. This class
+ * - aggregates them per statement text for a top-N report
+ * - prints executions slower than healthcare.sqlTrace.slowQueryMs to
+ *   stderr with their bind parameters (strings masked: they hold
+ *   names, contacts, passwords and notes)
+ * - with healthcare.sqlTrace.reportIntervalSeconds, prints the top-N of
+ *   each window and starts a new one, so the report follows the
+ *   current load instead of everything since startup
+ */
+public final class SqlTrace {
+
+    static final boolean ENABLED = DBConfig.SQL_TRACE_ENABLED;
+
+    private static final long SLOW_NANOS = TimeUnit.MILLISECONDS.toNanos(DBConfig.SQL_TRACE_SLOW_QUERY_MS);
+
+    // Dynamic SQL could create unbounded keys; the rest is lumped together
+    private static final int MAX_STATEMENTS = 2_000;
+    private static final String OTHER_STATEMENTS = "(other statements)";
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern IN_LIST =
+            Pattern.compile("(?i)\\bIN \\(\\?(, ?\\?)+\\)");
+
+    private static volatile Map<String, Entry> window = new ConcurrentHashMap<>();
+
+    static {
+        if (ENABLED && DBConfig.SQL_TRACE_REPORT_INTERVAL_SECONDS > 0) {
+            startReporter(DBConfig.SQL_TRACE_REPORT_INTERVAL_SECONDS);
+        }
+    }
+
+    // Prevent instantiation
+    private SqlTrace() { }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Running totals of one statement text.
+     */
+    private static final class Entry {
+        final LongAdder executions = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder rows = new LongAdder();
+        final LongAdder execNanos = new LongAdder();
+        final LongAdder fetchNanos = new LongAdder();
+        final LongAdder mapNanos = new LongAdder();
+        final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    }
+
+    // ================================
+    // RECORDING (called by TracingConnection)
+    // ================================
+
+    /**
+     * @param sql    statement text, already passed through normalize()
+     * @param params bind parameters by index (element 0 unused), or null
+     */
+    static void record(String sql, Object[] params, long execNanos, long fetchNanos,
+                       long mapNanos, long rows, boolean failed) {
+
+        String key = sql;
+        Map<String, Entry> current = window;
+        Entry entry = current.get(key);
+        if (entry == null) {
+            if (current.size() >= MAX_STATEMENTS) {
+                key = OTHER_STATEMENTS;
+            }
+            entry = current.computeIfAbsent(key, k -> new Entry());
+        }
+
+        long total = execNanos + fetchNanos;
+        entry.executions.increment();
+        entry.rows.add(rows);
+        entry.execNanos.add(execNanos);
+        entry.fetchNanos.add(fetchNanos);
+        entry.mapNanos.add(mapNanos);
+        entry.maxNanos.accumulate(total);
+        if (failed) {
+            entry.errors.increment();
+        }
+
+        if (total >= SLOW_NANOS) {
+            System.err.printf("Slow SQL %.1f ms (exec %.1f, fetch %.1f, map %.1f ms, %d rows%s): %s%s%n",
+                    total / 1e6, execNanos / 1e6, fetchNanos / 1e6, mapNanos / 1e6, rows,
+                    failed ? ", FAILED" : "", key, describeParameters(params));
+        }
+    }
+
+    // ================================
+    // REPORTS
+    // ================================
+
+    /**
+     * The n statements with the highest exec + fetch time in the current window.
+     */
+    public static List<SqlStatementStats> getTopStatements(int n) {
+        return top(window, n);
+    }
+
+    /**
+     * Text table of the healthcare.sqlTrace.topN most expensive statements.
+     */
+    public static String report() {
+        return format(getTopStatements(DBConfig.SQL_TRACE_TOP_N));
+    }
+
+    /**
+     * Starts a new, empty window.
+     */
+    public static void reset() {
+        window = new ConcurrentHashMap<>();
+    }
+
+    private static List<SqlStatementStats> top(Map<String, Entry> entries, int n) {
+        List<SqlStatementStats> all = new ArrayList<>(entries.size());
+        for (Map.Entry<String, Entry> e : entries.entrySet()) {
+            Entry s = e.getValue();
+            all.add(new SqlStatementStats(
+                    e.getKey(),
+                    s.executions.sum(),
+                    s.errors.sum(),
+                    s.rows.sum(),
+                    s.execNanos.sum() / 1e6,
+                    s.fetchNanos.sum() / 1e6,
+                    s.mapNanos.sum() / 1e6,
+                    s.maxNanos.get() / 1e6));
+        }
+        all.sort(Comparator.comparingDouble(SqlStatementStats::getTotalMillis).reversed());
+        return all.size() > n ? new ArrayList<>(all.subList(0, n)) : all;
+    }
+
+    private static String format(List<SqlStatementStats> statements) {
+        StringBuilder sb = new StringBuilder("Most expensive SQL statements:");
+        sb.append(System.lineSeparator());
+        for (SqlStatementStats s : statements) {
+            sb.append("  ").append(s).append(System.lineSeparator());
+        }
+        return sb.toString();
+    }
+
+    private static void startReporter(long intervalSeconds) {
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "sql-trace-reporter");
+            t.setDaemon(true);
+            return t;
+        });
+        reporter.scheduleAtFixedRate(() -> {
+            Map<String, Entry> finished = window;
+            window = new ConcurrentHashMap<>();
+            if (!finished.isEmpty()) {
+                System.out.print(format(top(finished, DBConfig.SQL_TRACE_TOP_N)));
+            }
+        }, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    // ================================
+    // FORMATTING
+    // ================================
+
+    /**
+     * One line per statement: whitespace collapsed, "IN (?, ?, ?)" -> "IN (?, ...)".
+     */
+    static String normalize(String sql) {
+        if (sql == null) {
+            return "(null)";
+        }
+        String s = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        return IN_LIST.matcher(s).replaceAll("IN (?, ...)");
+    }
+
+    static String describeParameters(Object[] params) {
+        if (params == null || params.length <= 1) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(" [");
+        for (int i = 1; i < params.length; i++) {
+            if (i > 1) {
+                sb.append(", ");
+            }
+            sb.append(describe(params[i]));
+        }
+        return sb.append(']').toString();
+    }
+
+    private static String describe(Object value) {
+        if (value == null) {
+            return "NULL";
+        }
+        if (value instanceof Number || value instanceof Boolean
+                || value instanceof Date || value instanceof TemporalAccessor) {
+            return value.toString();
+        }
+        if (value instanceof String) {
+            String s = (String) value;
+            return DBConfig.SQL_TRACE_SHOW_STRINGS ? "'" + s + "'" : "'***'(" + s.length() + ")";
+        }
+        if (value instanceof byte[]) {
+            return "<" + ((byte[]) value).length + " bytes>";
+        }
+        return "<" + value.getClass().getSimpleName() + ">";
+    }
+}
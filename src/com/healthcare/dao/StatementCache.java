@@ -0,0 +1,288 @@
+package com.healthcare.dao;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Open PreparedStatements of one pooled connection, least recently used
+ * first out.
+ *
+ * Only SQL the DAOs registered by name (register()) is cached: those
+ * constant statements run thousands of times, so preparing them once per
+ * physical connection saves the driver's parse and, with server-side
+ * prepared statements, a round trip per call. Dynamic SQL (filters,
+ * IN lists) is prepared and closed as before.
+ *
+ * A statement is either checked out by the connection's borrower or
+ * sitting here: ConnectionPool takes it out on prepareStatement(), and
+ * the borrower's close() clears its parameters and puts it back.
+ */
+final class StatementCache {
+
+    // sql -> name of every registered statement
+    private static final Map<String, String> NAMES = new ConcurrentHashMap<>();
+
+    private final int maxSize;
+    private final LongAdder evictions;
+    private final LinkedHashMap<Key, CachedStatement> statements;
+
+    StatementCache(int maxSize, LongAdder evictions) {
+        this.maxSize = maxSize;
+        this.evictions = evictions;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    // ================================
+    // REGISTRATION (DAO constants)
+    // ================================
+
+    /**
+     * Marks sql as a hot statement worth caching and returns it, so DAOs can write
+     * {@code static final String X_SQL = StatementCache.register("Dao.method", "...")}.
+     */
+    static String register(String name, String sql) {
+        NAMES.putIfAbsent(sql, name);
+        return sql;
+    }
+
+    /**
+     * Cache key for prepareStatement(sql), (sql, autoGeneratedKeys) or
+     * (sql, resultSetType, resultSetConcurrency); null when the SQL is
+     * not registered or another overload is used.
+     */
+    static Key keyOf(Object[] args) {
+        if (args == null || args.length == 0 || !(args[0] instanceof String)) {
+            return null;
+        }
+        String sql = (String) args[0];
+        String name = NAMES.get(sql);
+        if (name == null) {
+            return null;
+        }
+        switch (args.length) {
+            case 1:
+                return new Key(name, sql, -1, -1);
+            case 2:
+                return args[1] instanceof Integer ? new Key(name, sql, (Integer) args[1], -1) : null;
+            case 3:
+                return new Key(name, sql, (Integer) args[1], (Integer) args[2]);
+            default:
+                return null;
+        }
+    }
+
+    // ================================
+    // CHECK OUT / RETURN
+    // ================================
+
+    /**
+     * Removes and returns the cached statement for key, or null on a miss.
+     */
+    synchronized CachedStatement take(Key key) throws SQLException {
+        CachedStatement statement = statements.remove(key);
+        if (statement != null && statement.raw.isClosed()) {
+            return null; // closed underneath us, e.g. by a driver error
+        }
+        return statement;
+    }
+
+    /**
+     * Wraps a freshly prepared statement so that it comes back here when closed.
+     */
+    CachedStatement wrap(Key key, PreparedStatement raw) {
+        return new CachedStatement(this, key, raw);
+    }
+
+    /**
+     * Caches a statement the borrower closed. Returns false if an equal one
+     * is already cached (the same SQL was open twice at once).
+     */
+    private synchronized boolean offer(CachedStatement statement) {
+        if (statements.putIfAbsent(statement.key, statement) != null) {
+            return false;
+        }
+        if (statements.size() > maxSize) {
+            Iterator<CachedStatement> eldest = statements.values().iterator();
+            closeQuietly(eldest.next().raw);
+            eldest.remove();
+            evictions.increment();
+        }
+        return true;
+    }
+
+    synchronized int size() {
+        return statements.size();
+    }
+
+    /**
+     * Closes every cached statement; used when the connection is destroyed.
+     */
+    synchronized void closeAll() {
+        for (CachedStatement statement : statements.values()) {
+            closeQuietly(statement.raw);
+        }
+        statements.clear();
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException ignored) {
+            // the statement or its connection is already unusable
+        }
+    }
+
+    /**
+     * One physical statement and the proxy borrowers get for it. The proxy
+     * is created once and handed out again on every hit. Its close()
+     * returns the statement to the cache; the statement is really closed
+     * instead if the caller changed per-use settings (fetch size,
+     * timeouts, ...), which the next user would not expect.
+     */
+    static final class CachedStatement implements InvocationHandler {
+
+        private final StatementCache cache;
+        private final Key key;
+        private final PreparedStatement raw;
+        private final PreparedStatement proxy;
+
+        private Object connection;
+        private boolean closed;
+        private boolean batched;
+        private boolean reusable = true;
+
+        private CachedStatement(StatementCache cache, Key key, PreparedStatement raw) {
+            this.cache = cache;
+            this.key = key;
+            this.raw = raw;
+            this.proxy = (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    this);
+        }
+
+        /**
+         * Hands the statement to a borrower of the given connection proxy.
+         */
+        PreparedStatement checkOut(Object connection) {
+            this.connection = connection;
+            this.closed = false;
+            this.batched = false;
+            return proxy;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+
+            switch (name) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        recycle();
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || raw.isClosed();
+                case "getConnection":
+                    return connection;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + key.name + ", " + raw + "]";
+                default:
+                    break;
+            }
+
+            if (closed) {
+                throw new SQLException("Statement is closed");
+            }
+
+            switch (name) {
+                case "addBatch":
+                    batched = true;
+                    break;
+                case "setFetchSize":
+                case "setFetchDirection":
+                case "setMaxRows":
+                case "setLargeMaxRows":
+                case "setMaxFieldSize":
+                case "setQueryTimeout":
+                case "setEscapeProcessing":
+                case "setCursorName":
+                case "setPoolable":
+                case "closeOnCompletion":
+                    reusable = false;
+                    break;
+                default:
+                    break;
+            }
+
+            try {
+                return method.invoke(raw, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private void recycle() {
+            connection = null;
+            try {
+                if (reusable && !raw.isClosed()) {
+                    if (batched) {
+                        raw.clearBatch();
+                    }
+                    raw.clearParameters();
+                    if (cache.offer(this)) {
+                        return;
+                    }
+                }
+            } catch (SQLException e) {
+                // not reusable; closed below
+            }
+            closeQuietly(raw);
+        }
+    }
+
+    /**
+     * SQL plus the prepareStatement arguments that change the statement.
+     */
+    static final class Key {
+
+        final String name;
+        final String sql;
+        private final int option1;
+        private final int option2;
+
+        Key(String name, String sql, int option1, int option2) {
+            this.name = name;
+            this.sql = sql;
+            this.option1 = option1;
+            this.option2 = option2;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return option1 == other.option1 && option2 == other.option2 && sql.equals(other.sql);
+        }
+
+        @Override
+        public int hashCode() {
+            return (sql.hashCode() * 31 + option1) * 31 + option2;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.healthcare.dao;
+
+import java.util.List;
+
+/**
+ * Immutable snapshot of the pooled connections' prepared statement caches.
+ * Obtained through DBConnection.getStatementCacheStats().
+ */
+public final class StatementCacheStats {
+
+    private final int maxSizePerConnection;
+    private final int cached;
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final long uncachedCount;
+    private final List<Statement> statements;
+
+    StatementCacheStats(int maxSizePerConnection, int cached, long hitCount, long missCount,
+                        long evictionCount, long uncachedCount, List<Statement> statements) {
+        this.maxSizePerConnection = maxSizePerConnection;
+        this.cached = cached;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.uncachedCount = uncachedCount;
+        this.statements = List.copyOf(statements);
+    }
+
+    /** healthcare.pool.statementCacheSize (0 = caching disabled). */
+    public int getMaxSizePerConnection() {
+        return maxSizePerConnection;
+    }
+
+    /** Statements currently cached, over all open connections. */
+    public int getCached() {
+        return cached;
+    }
+
+    /** prepareStatement() calls of registered SQL served from a cache. */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /** prepareStatement() calls of registered SQL that had to prepare. */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public double getHitRate() {
+        long lookups = hitCount + missCount;
+        return lookups == 0 ? 0.0 : hitCount / (double) lookups;
+    }
+
+    /** Statements closed because their connection's cache was full. */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /** prepareStatement() calls of dynamic (unregistered) SQL, never cached. */
+    public long getUncachedCount() {
+        return uncachedCount;
+    }
+
+    /** Per registered statement, ordered by name. */
+    public List<Statement> getStatements() {
+        return statements;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "StatementCacheStats{cached=%d (max %d/connection), hits=%d, misses=%d, " +
+                "hitRate=%.1f%%, evictions=%d, uncached=%d}",
+                cached, maxSizePerConnection, hitCount, missCount,
+                getHitRate() * 100, evictionCount, uncachedCount);
+    }
+
+    /**
+     * Hits and misses of one named statement.
+     */
+    public static final class Statement {
+
+        private final String name;
+        private final long hitCount;
+        private final long missCount;
+
+        Statement(String name, long hitCount, long missCount) {
+            this.name = name;
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+        }
+
+        /** Name it was registered under, e.g. "AppointmentDAO.insert". */
+        public String getName() {
+            return name;
+        }
+
+        public long getHitCount() {
+            return hitCount;
+        }
+
+        public long getMissCount() {
+            return missCount;
+        }
+
+        public double getHitRate() {
+            long lookups = hitCount + missCount;
+            return lookups == 0 ? 0.0 : hitCount / (double) lookups;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-45s hits=%d misses=%d hitRate=%.1f%%",
+                    name, hitCount, missCount, getHitRate() * 100);
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.healthcare.dao;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+
+/**
+ * Proxies around a pooled Connection and the PreparedStatements /
+ * Statements / ResultSets it creates, reporting each execution to
+ * SqlTrace. Only used when tracing is enabled (see DBConnection).
+ *
+ * For a query, one execution spans executeQuery() to ResultSet.close():
+ * - exec:  time inside executeQuery()
+ * - fetch: time inside ResultSet.next()
+ * - map:   the rest of the ResultSet's life, i.e. the caller's getters
+ * Updates and batches are recorded as soon as they return.
+ *
+ * Like the pool's own proxy, this relies on callers closing their
+ * statements and result sets (try-with-resources).
+ */
+final class TracingConnection {
+
+    private static final ClassLoader LOADER = Connection.class.getClassLoader();
+
+    // Prevent instantiation
+    private TracingConnection() { }
+
+    static Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(LOADER,
+                new Class<?>[]{Connection.class},
+                new ConnectionHandler(connection));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    // ================================
+    // CONNECTION
+    // ================================
+    private static final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Traced" + target;
+                case "prepareStatement": {
+                    Object statement = TracingConnection.invoke(target, method, args);
+                    return Proxy.newProxyInstance(LOADER,
+                            new Class<?>[]{PreparedStatement.class},
+                            new StatementHandler((Statement) statement, proxy, (String) args[0]));
+                }
+                case "createStatement": {
+                    Object statement = TracingConnection.invoke(target, method, args);
+                    return Proxy.newProxyInstance(LOADER,
+                            new Class<?>[]{Statement.class},
+                            new StatementHandler((Statement) statement, proxy, null));
+                }
+                default:
+                    return TracingConnection.invoke(target, method, args);
+            }
+        }
+    }
+
+    // ================================
+    // STATEMENT / PREPARED STATEMENT
+    // ================================
+    private static final class StatementHandler implements InvocationHandler {
+
+        private static final Object[] NO_PARAMS = new Object[0];
+
+        private final Statement target;
+        private final Object connection;
+        private final String preparedSql; // normalized; null for plain Statements
+
+        private Object[] params = NO_PARAMS;
+        private Execution open; // query whose ResultSet is not closed yet
+
+        StatementHandler(Statement target, Object connection, String sql) {
+            this.target = target;
+            this.connection = connection;
+            this.preparedSql = sql == null ? null : SqlTrace.normalize(sql);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+
+            switch (name) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Traced" + target;
+                case "getConnection":
+                    return connection;
+                case "clearParameters":
+                    params = NO_PARAMS;
+                    return TracingConnection.invoke(target, method, args);
+                case "close":
+                    finishOpen();
+                    return TracingConnection.invoke(target, method, args);
+                case "executeQuery":
+                    return executeQuery(proxy, method, args);
+                case "executeUpdate":
+                case "executeLargeUpdate":
+                case "execute":
+                case "executeBatch":
+                case "executeLargeBatch":
+                    return executeUpdate(method, args);
+                default:
+                    break;
+            }
+
+            // setInt(1, x), setString(2, s), setNull(3, type), setObject(4, o, type) ...
+            if (name.startsWith("set") && args != null && args.length >= 2
+                    && args[0] instanceof Integer && preparedSql != null) {
+                bind((Integer) args[0], "setNull".equals(name) ? null : args[1]);
+            }
+            return TracingConnection.invoke(target, method, args);
+        }
+
+        private Object executeQuery(Object proxy, Method method, Object[] args) throws Throwable {
+            finishOpen();
+            String sql = sqlOf(args);
+
+            long start = System.nanoTime();
+            ResultSet rs;
+            try {
+                rs = (ResultSet) TracingConnection.invoke(target, method, args);
+            } catch (Throwable e) {
+                SqlTrace.record(sql, params, System.nanoTime() - start, 0, 0, 0, true);
+                throw e;
+            }
+            long now = System.nanoTime();
+
+            open = new Execution(sql, params, now - start, now);
+            return Proxy.newProxyInstance(LOADER,
+                    new Class<?>[]{ResultSet.class},
+                    new ResultSetHandler(rs, proxy, open));
+        }
+
+        private Object executeUpdate(Method method, Object[] args) throws Throwable {
+            finishOpen();
+            String sql = sqlOf(args);
+
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = TracingConnection.invoke(target, method, args);
+            } catch (Throwable e) {
+                SqlTrace.record(sql, params, System.nanoTime() - start, 0, 0, 0, true);
+                throw e;
+            }
+            SqlTrace.record(sql, params, System.nanoTime() - start, 0, 0, affectedRows(result), false);
+            return result;
+        }
+
+        private String sqlOf(Object[] args) {
+            if (args != null && args.length > 0 && args[0] instanceof String) {
+                return SqlTrace.normalize((String) args[0]); // Statement.execute*(sql)
+            }
+            return preparedSql;
+        }
+
+        private void bind(int index, Object value) {
+            if (index >= params.length) {
+                params = Arrays.copyOf(params, Math.max(index + 1, params.length * 2));
+            } else if (open != null && params == open.params) {
+                params = params.clone(); // the open execution keeps the values it ran with
+            }
+            params[index] = value;
+        }
+
+        private void finishOpen() {
+            if (open != null) {
+                open.finish();
+                open = null;
+            }
+        }
+
+        private static long affectedRows(Object result) {
+            if (result instanceof Number) {
+                return Math.max(0, ((Number) result).longValue());
+            }
+            long sum = 0;
+            if (result instanceof int[]) {
+                for (int n : (int[]) result) sum += Math.max(0, n);
+            } else if (result instanceof long[]) {
+                for (long n : (long[]) result) sum += Math.max(0, n);
+            }
+            return sum; // execute() returns a boolean: rows unknown
+        }
+    }
+
+    // ================================
+    // RESULT SET
+    // ================================
+    private static final class ResultSetHandler implements InvocationHandler {
+
+        private final ResultSet target;
+        private final Object statement;
+        private final Execution execution;
+
+        ResultSetHandler(ResultSet target, Object statement, Execution execution) {
+            this.target = target;
+            this.statement = statement;
+            this.execution = execution;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "next": {
+                    long start = System.nanoTime();
+                    Object more = TracingConnection.invoke(target, method, args);
+                    execution.fetchNanos += System.nanoTime() - start;
+                    if (Boolean.TRUE.equals(more)) {
+                        execution.rows++;
+                    }
+                    return more;
+                }
+                case "close":
+                    execution.finish();
+                    return TracingConnection.invoke(target, method, args);
+                case "getStatement":
+                    return statement;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Traced" + target;
+                default:
+                    return TracingConnection.invoke(target, method, args);
+            }
+        }
+    }
+
+    /**
+     * One query, from executeQuery() until its ResultSet is closed.
+     */
+    private static final class Execution {
+
+        final String sql;
+        final Object[] params;
+        final long execNanos;
+        final long openedAt;
+        long fetchNanos;
+        long rows;
+        private boolean finished;
+
+        Execution(String sql, Object[] params, long execNanos, long openedAt) {
+            this.sql = sql;
+            this.params = params;
+            this.execNanos = execNanos;
+            this.openedAt = openedAt;
+        }
+
+        void finish() {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            long mapNanos = Math.max(0, System.nanoTime() - openedAt - fetchNanos);
+            SqlTrace.record(sql, params, execNanos, fetchNanos, mapNanos, rows, false);
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.healthcare.dao;
+
+import com.healthcare.models.Doctor;
+import com.healthcare.models.Patient;
+import com.healthcare.models.User;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Read-through cache for UserDAO lookups, keyed by username and by users.id.
+ *
+ * - Each key space is split into SEGMENTS independently locked LRU maps,
+ *   so concurrent logins only contend when their keys hash to the same segment
+ * - A segment evicts its least recently used entry once it is full
+ * - Entries older than the TTL count as a miss and are dropped
+ * - Only users that were found are cached; create() invalidates explicitly
+ * - Users are copied on the way in and out, so callers may modify what
+ *   they get without affecting other callers
+ *
+ * Loads run outside any lock. A load that overlaps an invalidation is not
+ * cached (see stamp()), so invalidate() cannot be undone by a slow reader.
+ */
+final class UserCache {
+
+    private static final int SEGMENTS = 16;
+
+    private final long ttlMillis;
+    private final List<Segment<String>> byUsername = new ArrayList<>(SEGMENTS);
+    private final List<Segment<Integer>> byId = new ArrayList<>(SEGMENTS);
+
+    // Bumped by every invalidation
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    UserCache(int maxSize, long ttlMillis) {
+        this.ttlMillis = ttlMillis;
+        int perSegment = Math.max(1, (maxSize + SEGMENTS - 1) / SEGMENTS);
+
+        for (int i = 0; i < SEGMENTS; i++) {
+            byUsername.add(new Segment<>(perSegment, evictions));
+            byId.add(new Segment<>(perSegment, evictions));
+        }
+    }
+
+    boolean isEnabled() {
+        return ttlMillis > 0;
+    }
+
+    // ================================
+    // LOOKUP
+    // ================================
+
+    User getByUsername(String username) {
+        return get(segmentFor(byUsername, username), username);
+    }
+
+    User getById(int userId) {
+        return get(segmentFor(byId, userId), userId);
+    }
+
+    private <K> User get(Segment<K> segment, K key) {
+        if (!isEnabled()) {
+            return null;
+        }
+
+        Entry entry;
+        synchronized (segment) {
+            entry = segment.map.get(key);
+            if (entry != null && isExpired(entry)) {
+                segment.map.remove(key);
+                expirations.increment();
+                entry = null;
+            }
+        }
+
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return copyOf(entry.user);
+    }
+
+    /**
+     * Take this before loading from the DB and hand it to put().
+     */
+    long stamp() {
+        return invalidations.get();
+    }
+
+    /**
+     * Caches a loaded user under both keys, unless an invalidation
+     * happened since the stamp was taken.
+     */
+    void put(int userId, User user, long stamp) {
+        if (!isEnabled() || user == null || user.getUsername() == null) {
+            return;
+        }
+
+        Entry entry = new Entry(copyOf(user), System.currentTimeMillis());
+        Segment<String> nameSegment = segmentFor(byUsername, user.getUsername());
+        Segment<Integer> idSegment = segmentFor(byId, userId);
+
+        synchronized (nameSegment) {
+            if (invalidations.get() != stamp) return;
+            nameSegment.map.put(user.getUsername(), entry);
+        }
+        synchronized (idSegment) {
+            if (invalidations.get() != stamp) return;
+            idSegment.map.put(userId, entry);
+        }
+    }
+
+    // ================================
+    // INVALIDATION
+    // ================================
+
+    void invalidate(String username, int userId) {
+        invalidations.incrementAndGet();
+
+        if (username != null) {
+            Segment<String> nameSegment = segmentFor(byUsername, username);
+            synchronized (nameSegment) {
+                nameSegment.map.remove(username);
+            }
+        }
+        if (userId > 0) {
+            Segment<Integer> idSegment = segmentFor(byId, userId);
+            synchronized (idSegment) {
+                idSegment.map.remove(userId);
+            }
+        }
+    }
+
+    void invalidateAll() {
+        invalidations.incrementAndGet();
+        for (int i = 0; i < SEGMENTS; i++) {
+            Segment<String> nameSegment = byUsername.get(i);
+            synchronized (nameSegment) {
+                nameSegment.map.clear();
+            }
+            Segment<Integer> idSegment = byId.get(i);
+            synchronized (idSegment) {
+                idSegment.map.clear();
+            }
+        }
+    }
+
+    CacheStats getStats() {
+        int size = 0;
+        for (Segment<String> segment : byUsername) {
+            synchronized (segment) {
+                size += segment.map.size();
+            }
+        }
+        return new CacheStats(size, hits.sum(), misses.sum(),
+                evictions.sum(), expirations.sum());
+    }
+
+    private boolean isExpired(Entry entry) {
+        return System.currentTimeMillis() - entry.loadedAt > ttlMillis;
+    }
+
+    private static <K> Segment<K> segmentFor(List<Segment<K>> segments, Object key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return segments.get(h & (SEGMENTS - 1));
+    }
+
+    /**
+     * A detached copy, password included (login compares it).
+     */
+    private static User copyOf(User u) {
+        if (u instanceof Patient) {
+            Patient p = (Patient) u;
+            return new Patient(p.getId(), p.getUsername(), p.getPassword(), p.getName(), p.getContact());
+        }
+        if (u instanceof Doctor) {
+            Doctor d = (Doctor) u;
+            return new Doctor(d.getId(), d.getUsername(), d.getPassword(), d.getName(), d.getSpecialization());
+        }
+        return new User(u.getId(), u.getUsername(), u.getPassword(), u.getRole());
+    }
+
+    private static final class Entry {
+
+        final User user;
+        final long loadedAt;
+
+        Entry(User user, long loadedAt) {
+            this.user = user;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    /**
+     * One access-ordered LinkedHashMap; guarded by synchronizing on the segment.
+     */
+    private static final class Segment<K> {
+
+        final Map<K, Entry> map;
+
+        Segment(int capacity, LongAdder evictions) {
+            this.map = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, Entry> eldest) {
+                    if (size() > capacity) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+    }
+}
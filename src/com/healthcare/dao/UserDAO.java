@@ -1,15 +1,24 @@
 package com.healthcare.dao;
 
+import com.healthcare.metrics.Metrics;
+import com.healthcare.metrics.OperationMetrics;
 import com.healthcare.models.Doctor;
 import com.healthcare.models.Patient;
 import com.healthcare.models.User;
+import com.healthcare.utils.DBConfig;
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * UserDAO handles:
- * - Finding user by username
- * - Creating new users (patients/doctors)
+ * - Finding user by username or id (cached, see UserCache)
+ * - Creating new users (patients/doctors), one at a time or in batches
+ * - Listing all doctors (loads the DoctorDirectory search index)
  * - Mapping DB rows to correct Java objects
  *
  * Works with DB tables:
@@ -19,33 +28,150 @@ import java.util.Optional;
  */
 public class UserDAO {
 
+    // Resolves user, role and patient/doctor profile in one round trip
+    private static final String FIND_USER_SQL = """
+        SELECT u.id, u.username, u.password, u.role,
+               p.name AS patient_name, p.contact,
+               d.id AS doctor_id, d.name AS doctor_name, d.specialization
+        FROM users u
+        LEFT JOIN patients p ON p.user_id = u.id
+        LEFT JOIN doctors d ON d.user_id = u.id
+        """;
+
+    // Constant statements, kept prepared on each pooled connection (see StatementCache)
+    private static final String FIND_BY_USERNAME_SQL =
+            sql("findByUsername", FIND_USER_SQL + "WHERE u.username = ?");
+
+    private static final String FIND_BY_ID_SQL = sql("findById", FIND_USER_SQL + "WHERE u.id = ?");
+
+    private static final String INSERT_USER_SQL =
+            sql("insertUser", "INSERT INTO users (username, password, role) VALUES (?, ?, ?)");
+
+    private static final String INSERT_PATIENT_SQL =
+            sql("insertPatient", "INSERT INTO patients (user_id, name, contact) VALUES (?, ?, ?)");
+
+    private static final String INSERT_DOCTOR_SQL =
+            sql("insertDoctor", "INSERT INTO doctors (user_id, name, specialization) VALUES (?, ?, ?)");
+
+    private static final String FIND_PATIENT_ID_SQL =
+            sql("findPatientId", "SELECT id FROM patients WHERE user_id = ?");
+
+    private static final String FIND_ALL_DOCTORS_SQL = sql("findAllDoctors", """
+        SELECT d.id, u.username, d.name, d.specialization
+        FROM doctors d
+        JOIN users u ON u.id = d.user_id
+        """);
+
+    // Shared by all UserDAO instances
+    private static final UserCache CACHE =
+            new UserCache(DBConfig.USER_CACHE_MAX_SIZE, DBConfig.USER_CACHE_TTL_MS);
+
+    // Per-method latency / rows / errors (see Metrics); lookups include cache hits
+    private static final OperationMetrics FIND_BY_USERNAME = op("findByUsername");
+    private static final OperationMetrics FIND_BY_ID = op("findById");
+    private static final OperationMetrics CREATE = op("create");
+    private static final OperationMetrics FIND_PATIENT_ID = op("findPatientId");
+    private static final OperationMetrics FIND_ALL_DOCTORS = op("findAllDoctors");
+    private static final OperationMetrics FIND_EXISTING_USERNAMES = op("findExistingUsernames");
+    private static final OperationMetrics INSERT_USERS = op("insertUsers");
+    private static final OperationMetrics INSERT_PATIENTS = op("insertPatients");
+    private static final OperationMetrics INSERT_DOCTORS = op("insertDoctors");
+
+    private static OperationMetrics op(String method) {
+        return Metrics.operation("UserDAO." + method);
+    }
+
+    private static String sql(String name, String sql) {
+        return StatementCache.register("UserDAO." + name, sql);
+    }
+
     /**
      * Find a user by username.
      * Returns Optional<User> containing Patient OR Doctor object.
+     * Served from the cache when possible, otherwise one query on one connection.
      */
     public Optional<User> findByUsername(String username) {
         if (username == null || username.isBlank()) {
             return Optional.empty();
         }
 
-        String sql = "SELECT * FROM users WHERE username = ?";
+        OperationMetrics.Call call = FIND_BY_USERNAME.start();
+        try {
+            User user = CACHE.getByUsername(username);
+            if (user == null) {
+                user = load(FIND_BY_USERNAME_SQL, username);
+            }
+            FIND_BY_USERNAME.rows(user == null ? 0 : 1);
+            return Optional.ofNullable(user);
+        } catch (SQLException e) {
+            FIND_BY_USERNAME.error();
+            System.err.println("Error in findByUsername: " + e.getMessage());
+            return Optional.empty();
+        } finally {
+            call.close();
+        }
+    }
+
+    /**
+     * Find a user by users.id.
+     * Note that a returned Doctor carries its doctors.id, like findByUsername.
+     */
+    public Optional<User> findById(int userId) {
+        if (userId <= 0) {
+            return Optional.empty();
+        }
+
+        OperationMetrics.Call call = FIND_BY_ID.start();
+        try {
+            User user = CACHE.getById(userId);
+            if (user == null) {
+                user = load(FIND_BY_ID_SQL, userId);
+            }
+            FIND_BY_ID.rows(user == null ? 0 : 1);
+            return Optional.ofNullable(user);
+        } catch (SQLException e) {
+            FIND_BY_ID.error();
+            System.err.println("Error in findById: " + e.getMessage());
+            return Optional.empty();
+        } finally {
+            call.close();
+        }
+    }
+
+    /**
+     * Runs one of the FIND_BY_* queries and caches the result under both keys.
+     */
+    private User load(String sql, Object key) throws SQLException {
+        long stamp = CACHE.stamp();
 
         try (Connection con = DBConnection.getConnection();
              PreparedStatement ps = con.prepareStatement(sql)) {
 
-            ps.setString(1, username);
+            ps.setObject(1, key);
 
             try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    return Optional.of(mapToUserObject(rs));
+                if (!rs.next()) {
+                    return null;
                 }
+                User user = mapToUserObject(rs);
+                CACHE.put(rs.getInt("id"), user, stamp);
+                return user;
             }
-
-        } catch (SQLException e) {
-            System.err.println("Error in findByUsername: " + e.getMessage());
         }
+    }
+
+    /**
+     * Hit / miss / eviction counters of the user lookup cache.
+     */
+    public static CacheStats getCacheStats() {
+        return CACHE.getStats();
+    }
 
-        return Optional.empty();
+    /**
+     * Drops every cached user, e.g. after editing users directly in the DB.
+     */
+    public static void clearCache() {
+        CACHE.invalidateAll();
     }
 
     /**
@@ -57,11 +183,12 @@ public class UserDAO {
             return false;
         }
 
-        String insertUserSQL =
-                "INSERT INTO users (username, password, role) VALUES (?, ?, ?)";
+        // Whatever happens below, nothing cached for this username is trusted any more
+        CACHE.invalidate(user.getUsername(), user.getId());
 
+        OperationMetrics.Call call = CREATE.start();
         try (Connection con = DBConnection.getConnection();
-             PreparedStatement psUser = con.prepareStatement(insertUserSQL, Statement.RETURN_GENERATED_KEYS)) {
+             PreparedStatement psUser = con.prepareStatement(INSERT_USER_SQL, Statement.RETURN_GENERATED_KEYS)) {
 
             // Insert into users table
             psUser.setString(1, user.getUsername());
@@ -79,6 +206,7 @@ public class UserDAO {
             }
 
             user.setId(userId);
+            CACHE.invalidate(user.getUsername(), userId);
 
             // Insert into patients/doctors table based on role
             if (user instanceof Patient) {
@@ -90,18 +218,19 @@ public class UserDAO {
             return true;
 
         } catch (SQLException e) {
+            CREATE.error();
             System.err.println("Error creating user: " + e.getMessage());
             return false;
+        } finally {
+            call.close();
         }
     }
 
     // ---------------------- Helper inserts ----------------------
 
     private boolean insertPatient(Patient p) throws SQLException {
-        String sql = "INSERT INTO patients (user_id, name, contact) VALUES (?, ?, ?)";
-
         try (Connection con = DBConnection.getConnection();
-             PreparedStatement ps = con.prepareStatement(sql)) {
+             PreparedStatement ps = con.prepareStatement(INSERT_PATIENT_SQL)) {
 
             ps.setInt(1, p.getId());
             ps.setString(2, p.getName());
@@ -111,89 +240,239 @@ public class UserDAO {
         }
     }
 
+    /**
+     * Also adds the doctor to the DoctorDirectory, under its new doctors.id.
+     * d itself keeps its users.id.
+     */
     private boolean insertDoctor(Doctor d) throws SQLException {
-        String sql = "INSERT INTO doctors (user_id, name, specialization) VALUES (?, ?, ?)";
-
         try (Connection con = DBConnection.getConnection();
-             PreparedStatement ps = con.prepareStatement(sql)) {
+             PreparedStatement ps = con.prepareStatement(INSERT_DOCTOR_SQL, Statement.RETURN_GENERATED_KEYS)) {
 
             ps.setInt(1, d.getId());
             ps.setString(2, d.getName());
             ps.setString(3, d.getSpecialization());
 
-            return ps.executeUpdate() > 0;
+            if (ps.executeUpdate() == 0) {
+                return false;
+            }
+
+            try (ResultSet rs = ps.getGeneratedKeys()) {
+                if (rs.next()) {
+                    DoctorDirectory.getInstance().add(new Doctor(rs.getInt(1), d.getUsername(), null,
+                            d.getName(), d.getSpecialization()));
+                }
+            }
+            return true;
         }
     }
 
-    // ---------------------- User Mapper ----------------------
+    /**
+     * patients.id of the patient with the given users.id - the id that
+     * appointments.patient_id references - or 0 if there is none.
+     */
+    public int findPatientId(int userId) throws SQLException {
+        OperationMetrics.Call call = FIND_PATIENT_ID.start();
+        try (Connection con = DBConnection.getConnection();
+             PreparedStatement ps = con.prepareStatement(FIND_PATIENT_ID_SQL)) {
+            ps.setInt(1, userId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        } catch (SQLException e) {
+            FIND_PATIENT_ID.error();
+            throw e;
+        } finally {
+            call.close();
+        }
+    }
 
-    private User mapToUserObject(ResultSet rs) throws SQLException {
-        int userId = rs.getInt("id");
-        String role = rs.getString("role");
+    /**
+     * Every doctor, with its doctors.id and without password.
+     * Used to load the DoctorDirectory; search that instead of calling this per request.
+     */
+    public List<Doctor> findAllDoctors() throws SQLException {
+        OperationMetrics.Call call = FIND_ALL_DOCTORS.start();
+        try (Connection con = DBConnection.getConnection();
+             PreparedStatement ps = con.prepareStatement(FIND_ALL_DOCTORS_SQL);
+             ResultSet rs = ps.executeQuery()) {
 
-        if ("PATIENT".equalsIgnoreCase(role)) {
-            return getPatientDetails(userId, rs);
-        } else if ("DOCTOR".equalsIgnoreCase(role)) {
-            return getDoctorDetails(userId, rs);
+            List<Doctor> doctors = new ArrayList<>();
+            while (rs.next()) {
+                doctors.add(new Doctor(rs.getInt("id"), rs.getString("username"), null,
+                        rs.getString("name"), rs.getString("specialization")));
+            }
+            FIND_ALL_DOCTORS.rows(doctors.size());
+            return doctors;
+        } catch (SQLException e) {
+            FIND_ALL_DOCTORS.error();
+            throw e;
+        } finally {
+            call.close();
         }
-
-        // Fallback / admin
-        User u = new User();
-        u.setId(userId);
-        u.setUsername(rs.getString("username"));
-        u.setPassword(rs.getString("password"));
-        u.setRole(role);
-        return u;
     }
 
-    private Patient getPatientDetails(int userId, ResultSet userRow) throws SQLException {
-        String sql = "SELECT * FROM patients WHERE user_id = ?";
+    // ---------------------- Bulk inserts (caller's transaction) ----------------------
 
-        try (Connection con = DBConnection.getConnection();
-             PreparedStatement ps = con.prepareStatement(sql)) {
+    /**
+     * Usernames from the given collection that are already taken.
+     */
+    public Set<String> findExistingUsernames(Connection con, Collection<String> usernames)
+            throws SQLException {
 
-            ps.setInt(1, userId);
+        Set<String> existing = new HashSet<>();
+        if (usernames.isEmpty()) {
+            return existing;
+        }
+
+        StringBuilder sql = new StringBuilder("SELECT username FROM users WHERE username IN (");
+        for (int i = 0; i < usernames.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(')');
+
+        OperationMetrics.Call call = FIND_EXISTING_USERNAMES.start();
+        try (PreparedStatement ps = con.prepareStatement(sql.toString())) {
+            int i = 1;
+            for (String username : usernames) {
+                ps.setString(i++, username);
+            }
             try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    Patient p = new Patient();
-                    p.setId(userId);
-                    p.setUsername(userRow.getString("username"));
-                    p.setPassword(userRow.getString("password"));
-                    p.setRole("PATIENT");
-                    p.setName(rs.getString("name"));
-                    p.setContact(rs.getString("contact"));
-                    return p;
+                while (rs.next()) {
+                    existing.add(rs.getString(1));
                 }
             }
+            FIND_EXISTING_USERNAMES.rows(existing.size());
+        } catch (SQLException e) {
+            FIND_EXISTING_USERNAMES.error();
+            throw e;
+        } finally {
+            call.close();
         }
-        return null;
+        return existing;
     }
 
-   private Doctor getDoctorDetails(int userId, ResultSet userRow) throws SQLException {
-    String sql = "SELECT * FROM doctors WHERE user_id = ?";
+    /**
+     * Inserts the users rows of all given users with one batch and sets
+     * their generated ids (in insert order). Profiles are inserted
+     * separately with insertPatients / insertDoctors.
+     */
+    public void insertUsers(Connection con, List<? extends User> users) throws SQLException {
+        OperationMetrics.Call call = INSERT_USERS.start();
+        try (PreparedStatement ps = con.prepareStatement(INSERT_USER_SQL, Statement.RETURN_GENERATED_KEYS)) {
+            for (User user : users) {
+                ps.setString(1, user.getUsername());
+                ps.setString(2, user.getPassword());
+                ps.setString(3, user.getRole());
+                ps.addBatch();
+            }
+
+            ps.executeBatch();
+
+            try (ResultSet rs = ps.getGeneratedKeys()) {
+                for (User user : users) {
+                    if (!rs.next()) {
+                        throw new SQLException("Fewer generated keys than inserted users");
+                    }
+                    user.setId(rs.getInt(1));
+                }
+            }
+            INSERT_USERS.rows(users.size());
+        } catch (SQLException e) {
+            INSERT_USERS.error();
+            throw e;
+        } finally {
+            call.close();
+        }
+    }
 
-    try (Connection con = DBConnection.getConnection();
-         PreparedStatement ps = con.prepareStatement(sql)) {
+    public void insertPatients(Connection con, List<Patient> patients) throws SQLException {
+        if (patients.isEmpty()) return;
 
-        ps.setInt(1, userId);
-        try (ResultSet rs = ps.executeQuery()) {
-            if (rs.next()) {
-                Doctor d = new Doctor();
+        OperationMetrics.Call call = INSERT_PATIENTS.start();
+        try (PreparedStatement ps = con.prepareStatement(INSERT_PATIENT_SQL)) {
+            for (Patient p : patients) {
+                ps.setInt(1, p.getId());
+                ps.setString(2, p.getName());
+                ps.setString(3, p.getContact());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            INSERT_PATIENTS.rows(patients.size());
+        } catch (SQLException e) {
+            INSERT_PATIENTS.error();
+            throw e;
+        } finally {
+            call.close();
+        }
+    }
 
-                // ✅ Use DOCTOR TABLE ID here, because appointments.doctor_id references this
-                int doctorTableId = rs.getInt("id");
-                d.setId(doctorTableId);
+    public void insertDoctors(Connection con, List<Doctor> doctors) throws SQLException {
+        if (doctors.isEmpty()) return;
 
-                d.setUsername(userRow.getString("username"));
-                d.setPassword(userRow.getString("password"));
-                d.setRole("DOCTOR");
-                d.setName(rs.getString("name"));
-                d.setSpecialization(rs.getString("specialization"));
-                return d;
+        OperationMetrics.Call call = INSERT_DOCTORS.start();
+        try (PreparedStatement ps = con.prepareStatement(INSERT_DOCTOR_SQL)) {
+            for (Doctor d : doctors) {
+                ps.setInt(1, d.getId());
+                ps.setString(2, d.getName());
+                ps.setString(3, d.getSpecialization());
+                ps.addBatch();
             }
+            ps.executeBatch();
+            INSERT_DOCTORS.rows(doctors.size());
+        } catch (SQLException e) {
+            INSERT_DOCTORS.error();
+            throw e;
+        } finally {
+            call.close();
         }
     }
-    return null;
-}
 
+    // ---------------------- User Mapper ----------------------
+
+    /**
+     * Maps one row of FIND_BY_USERNAME_SQL.
+     * Returns null when a PATIENT/DOCTOR user has no profile row.
+     */
+    private User mapToUserObject(ResultSet rs) throws SQLException {
+        int userId = rs.getInt("id");
+        String role = rs.getString("role");
+
+        if ("PATIENT".equalsIgnoreCase(role)) {
+            String name = rs.getString("patient_name");
+            if (name == null) return null;
+
+            Patient p = new Patient();
+            p.setId(userId);
+            p.setUsername(rs.getString("username"));
+            p.setPassword(rs.getString("password"));
+            p.setRole("PATIENT");
+            p.setName(name);
+            p.setContact(rs.getString("contact"));
+            return p;
+
+        } else if ("DOCTOR".equalsIgnoreCase(role)) {
+            int doctorTableId = rs.getInt("doctor_id");
+            if (rs.wasNull()) return null;
+
+            Doctor d = new Doctor();
+
+            // ✅ Use DOCTOR TABLE ID here, because appointments.doctor_id references this
+            d.setId(doctorTableId);
+
+            d.setUsername(rs.getString("username"));
+            d.setPassword(rs.getString("password"));
+            d.setRole("DOCTOR");
+            d.setName(rs.getString("doctor_name"));
+            d.setSpecialization(rs.getString("specialization"));
+            return d;
+        }
+
+        // Fallback / admin
+        User u = new User();
+        u.setId(userId);
+        u.setUsername(rs.getString("username"));
+        u.setPassword(rs.getString("password"));
+        u.setRole(role);
+        return u;
+    }
 }
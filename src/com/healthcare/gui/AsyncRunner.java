@@ -0,0 +1,120 @@
+package com.healthcare.gui;
+
+import com.healthcare.utils.VirtualThreads;
+import java.awt.Cursor;
+import java.awt.Window;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import javax.swing.JComponent;
+import javax.swing.JProgressBar;
+import javax.swing.SwingUtilities;
+
+/**
+ * Runs blocking service/DAO calls off the Event Dispatch Thread and
+ * delivers the result (or error) back on the EDT.
+ *
+ * One runner tracks one kind of request, e.g. "refresh the table":
+ * starting a new request cancels the one still in flight and drops its
+ * result, so rapid Refresh clicks never pile up queries or paint stale data.
+ * While a request runs the progress bar is shown, the wait cursor is set
+ * and the given controls are disabled.
+ *
+ * All methods must be called on the EDT.
+ */
+final class AsyncRunner {
+
+    private static final ExecutorService EXECUTOR =
+            VirtualThreads.newThreadPerTaskExecutor("gui-worker");
+
+    private final Window window;
+    private final JProgressBar progress;
+    private final JComponent[] disableWhileBusy;
+
+    private long generation;
+    private Future<?> current;
+
+    AsyncRunner(Window window, JProgressBar progress, JComponent... disableWhileBusy) {
+        this.window = window;
+        this.progress = progress;
+        this.disableWhileBusy = disableWhileBusy;
+    }
+
+    /**
+     * Indeterminate progress bar, hidden until a request starts.
+     */
+    static JProgressBar newProgressBar() {
+        JProgressBar bar = new JProgressBar();
+        bar.setIndeterminate(true);
+        bar.setVisible(false);
+        return bar;
+    }
+
+    boolean isBusy() {
+        return current != null;
+    }
+
+    /**
+     * Starts work on a background thread, superseding any request still running.
+     */
+    <T> void run(Callable<T> work, Consumer<T> onSuccess, Consumer<Exception> onError) {
+        if (current != null) {
+            current.cancel(true);
+        }
+
+        long myGeneration = ++generation;
+        setBusy(true);
+
+        current = EXECUTOR.submit(() -> {
+            T result = null;
+            Exception failure = null;
+            try {
+                result = work.call();
+            } catch (Exception e) {
+                failure = e;
+            }
+
+            T finalResult = result;
+            Exception finalFailure = failure;
+            SwingUtilities.invokeLater(() -> {
+                if (myGeneration != generation) {
+                    return; // superseded by a newer request
+                }
+                current = null;
+                setBusy(false);
+                if (finalFailure != null) {
+                    onError.accept(finalFailure);
+                } else {
+                    onSuccess.accept(finalResult);
+                }
+            });
+        });
+    }
+
+    /**
+     * Cancels the running request (if any); its result is discarded.
+     */
+    void cancel() {
+        if (current != null) {
+            current.cancel(true);
+            current = null;
+            generation++;
+            setBusy(false);
+        }
+    }
+
+    private void setBusy(boolean busy) {
+        if (progress != null) {
+            progress.setVisible(busy);
+        }
+        for (JComponent c : disableWhileBusy) {
+            c.setEnabled(!busy);
+        }
+        if (window != null) {
+            window.setCursor(busy
+                    ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR)
+                    : Cursor.getDefaultCursor());
+        }
+    }
+}
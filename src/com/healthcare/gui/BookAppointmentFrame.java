@@ -1,36 +1,64 @@
 package com.healthcare.gui;
 
+import com.healthcare.dao.DoctorDirectory;
 import com.healthcare.models.Appointment;
+import com.healthcare.models.AppointmentStatus;
+import com.healthcare.models.Doctor;
 import com.healthcare.models.Patient;
 import com.healthcare.service.AppointmentService;
 import java.awt.*;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 
 /**
  * UI Frame that allows a Patient to book an appointment with a doctor.
  * Acts as Controller: validates input and calls Service layer.
+ *
+ * The doctor is picked by typing part of a name or specialization; matches
+ * come from the in-memory DoctorDirectory as you type.
+ *
+ * "Find free slots" lists the doctor's open times for the next month
+ * (AppointmentService.findAvailableSlots); picking one fills the date field.
  */
 public class BookAppointmentFrame extends JFrame {
 
     private final Patient patient;
 
-    private JTextField doctorIdField;
+    private JTextField doctorSearchField;
+    private JComboBox<Doctor> doctorBox;
     private JTextField dateTimeField;
+    private JComboBox<String> slotBox;
+    private int slotsDoctorId; // doctor whose free slots slotBox lists
+
+    // Booking transaction, slot search and doctor search run off the EDT
+    private AsyncRunner bookingRunner;
+    private AsyncRunner slotRunner;
+    private AsyncRunner doctorRunner;
 
     private static final DateTimeFormatter FORMATTER =
             DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm");
 
+    // Free-slot search: this many days from the entered date (or now), first N slots
+    private static final int SLOT_SEARCH_DAYS = 30;
+    private static final int SLOT_SEARCH_LIMIT = 50;
+
+    // Matches shown in the doctor drop-down
+    private static final int DOCTOR_SEARCH_LIMIT = 50;
+
     public BookAppointmentFrame(Patient patient) {
         this.patient = patient;
 
         setTitle("Book Appointment");
-        setSize(450, 220);
+        setSize(560, 300);
         setLocationRelativeTo(null);
         setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
 
         initUI();
+        searchDoctors();
     }
 
     private void initUI() {
@@ -41,78 +69,219 @@ public class BookAppointmentFrame extends JFrame {
         title.setFont(new Font("Segoe UI", Font.BOLD, 18));
         main.add(title, BorderLayout.NORTH);
 
-        JPanel form = new JPanel(new GridLayout(2, 2, 10, 15));
+        JPanel form = new JPanel(new GridLayout(4, 2, 10, 15));
+
+        form.add(new JLabel("Search doctor (name / specialization):"));
+        doctorSearchField = new JTextField();
+        doctorSearchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                searchDoctors();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                searchDoctors();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                searchDoctors();
+            }
+        });
+        form.add(doctorSearchField);
 
-        form.add(new JLabel("Doctor ID:"));
-        doctorIdField = new JTextField();
-        form.add(doctorIdField);
+        form.add(new JLabel("Doctor:"));
+        doctorBox = new JComboBox<>();
+        doctorBox.setRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+                                                          boolean isSelected, boolean cellHasFocus) {
+                super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
+                if (value instanceof Doctor) {
+                    Doctor d = (Doctor) value;
+                    setText(d.getName() + " - " + d.getSpecialization());
+                }
+                return this;
+            }
+        });
+        doctorBox.addActionListener(e -> {
+            Doctor selected = selectedDoctor();
+            if (selected == null || selected.getId() != slotsDoctorId) {
+                slotBox.removeAllItems();
+                slotBox.setEnabled(false);
+            }
+        });
+        form.add(doctorBox);
 
         form.add(new JLabel("Date & Time (YYYY-MM-DDTHH:MM):"));
         dateTimeField = new JTextField("2025-11-25T15:30");
         form.add(dateTimeField);
 
+        form.add(new JLabel("Free slots:"));
+        JPanel slotPanel = new JPanel(new BorderLayout(5, 0));
+        slotBox = new JComboBox<>();
+        slotBox.setEnabled(false);
+        slotBox.addActionListener(e -> {
+            Object selected = slotBox.getSelectedItem();
+            if (selected != null) {
+                dateTimeField.setText(selected.toString());
+            }
+        });
+        JButton findSlotsBtn = new JButton("Find");
+        findSlotsBtn.addActionListener(e -> handleFindSlots());
+        slotPanel.add(slotBox, BorderLayout.CENTER);
+        slotPanel.add(findSlotsBtn, BorderLayout.EAST);
+        form.add(slotPanel);
+
         main.add(form, BorderLayout.CENTER);
 
         JButton bookBtn = new JButton("Book Appointment");
         bookBtn.addActionListener(e -> handleBooking());
-        main.add(bookBtn, BorderLayout.SOUTH);
+
+        JProgressBar progressBar = AsyncRunner.newProgressBar();
+
+        JPanel bottom = new JPanel(new BorderLayout(5, 5));
+        bottom.add(bookBtn, BorderLayout.CENTER);
+        bottom.add(progressBar, BorderLayout.SOUTH);
+        main.add(bottom, BorderLayout.SOUTH);
 
         add(main);
+
+        bookingRunner = new AsyncRunner(this, progressBar, bookBtn);
+        slotRunner = new AsyncRunner(this, progressBar, findSlotsBtn);
+        // No progress bar or wait cursor: after the first load a search takes microseconds
+        doctorRunner = new AsyncRunner(null, null);
     }
 
-    private void handleBooking() {
-        try {
-            String doctorIdText = doctorIdField.getText().trim();
-            if (doctorIdText.isEmpty()) {
-                showError("Doctor ID cannot be empty.");
-                return;
-            }
+    /**
+     * Refreshes the doctor drop-down from the search text; the first call
+     * loads the directory from the DB.
+     */
+    private void searchDoctors() {
+        String query = doctorSearchField.getText();
+        doctorRunner.run(
+                () -> DoctorDirectory.getInstance().search(query, null, DOCTOR_SEARCH_LIMIT),
+                this::showDoctors,
+                e -> showError("Could not load doctors: " + e.getMessage())
+        );
+    }
 
-            int doctorId = Integer.parseInt(doctorIdText);
-            if (doctorId <= 0) {
-                showError("Doctor ID must be a positive number.");
-                return;
+    private void showDoctors(List<Doctor> doctors) {
+        Doctor previous = selectedDoctor();
+        DefaultComboBoxModel<Doctor> model = new DefaultComboBoxModel<>();
+        for (Doctor d : doctors) {
+            model.addElement(d);
+            if (previous != null && d.getId() == previous.getId()) {
+                model.setSelectedItem(d); // keep the choice while the list narrows
             }
+        }
+        doctorBox.setModel(model);
+    }
 
-            LocalDateTime appointmentDateTime;
-            try {
-                appointmentDateTime = LocalDateTime.parse(
-                        dateTimeField.getText().trim(), FORMATTER);
-            } catch (Exception ex) {
-                showError("Invalid date format! Use YYYY-MM-DDTHH:MM");
-                return;
-            }
+    private Doctor selectedDoctor() {
+        return (Doctor) doctorBox.getSelectedItem();
+    }
+
+    private void handleFindSlots() {
+        Doctor doctor = selectedDoctor();
+        if (doctor == null) {
+            showError("Select a doctor to search for free slots.");
+            return;
+        }
+        int doctorId = doctor.getId();
 
-            if (appointmentDateTime.isBefore(LocalDateTime.now())) {
-                showError("Appointment cannot be booked in the past.");
-                return;
+        // Search from the entered date if it is valid, otherwise from now
+        LocalDateTime from = LocalDateTime.now();
+        try {
+            LocalDateTime entered = LocalDateTime.parse(dateTimeField.getText().trim(), FORMATTER);
+            if (entered.isAfter(from)) {
+                from = entered;
             }
+        } catch (Exception ignored) {
+            // keep now
+        }
+        LocalDateTime start = from;
+
+        AppointmentService service = new AppointmentService();
 
-            Appointment appt = new Appointment();
-            appt.setPatientId(patient.getId());
-            appt.setDoctorId(doctorId);
-            appt.setAppointmentDateTime(appointmentDateTime);
-            appt.setStatus("BOOKED");
-            appt.setNotes(null);
-
-            AppointmentService service = new AppointmentService();
-            service.bookAppointment(appt); // may throw exception
-
-            JOptionPane.showMessageDialog(
-                    this,
-                    "Appointment booked successfully!",
-                    "Success",
-                    JOptionPane.INFORMATION_MESSAGE);
-            dispose();
-
-        } catch (NumberFormatException e) {
-            showError("Doctor ID must be a number.");
-        } catch (Exception e) {
-            // ✅ SHOW EXACT ERROR (doctor unavailable, DB error, etc.)
-            showError(e.getMessage());
+        slotRunner.run(
+                () -> service.findAvailableSlots(doctorId, start,
+                        start.plusDays(SLOT_SEARCH_DAYS), SLOT_SEARCH_LIMIT),
+                slots -> {
+                    Doctor selected = selectedDoctor();
+                    if (selected != null && selected.getId() == doctorId) {
+                        slotsDoctorId = doctorId;
+                        showSlots(slots);
+                    }
+                },
+                e -> showError("Could not load free slots: " + e.getMessage())
+        );
+    }
+
+    private void showSlots(List<LocalDateTime> slots) {
+        slotBox.removeAllItems();
+        for (LocalDateTime slot : slots) {
+            slotBox.addItem(FORMATTER.format(slot));
+        }
+        slotBox.setEnabled(!slots.isEmpty());
+        if (slots.isEmpty()) {
+            showError("No free slots in the next " + SLOT_SEARCH_DAYS + " days.");
         }
     }
 
+    private void handleBooking() {
+        if (bookingRunner.isBusy()) {
+            return;
+        }
+
+        Doctor doctor = selectedDoctor();
+        if (doctor == null) {
+            showError("Please select a doctor.");
+            return;
+        }
+
+        LocalDateTime appointmentDateTime;
+        try {
+            appointmentDateTime = LocalDateTime.parse(
+                    dateTimeField.getText().trim(), FORMATTER);
+        } catch (Exception ex) {
+            showError("Invalid date format! Use YYYY-MM-DDTHH:MM");
+            return;
+        }
+
+        if (appointmentDateTime.isBefore(LocalDateTime.now())) {
+            showError("Appointment cannot be booked in the past.");
+            return;
+        }
+
+        Appointment appt = new Appointment();
+        appt.setPatientId(patient.getId());
+        appt.setDoctorId(doctor.getId());
+        appt.setAppointmentDateTime(appointmentDateTime);
+        appt.setStatus(AppointmentStatus.BOOKED);
+        appt.setNotes(null);
+
+        AppointmentService service = new AppointmentService();
+
+        bookingRunner.run(
+                () -> {
+                    service.bookAppointment(appt); // may throw exception
+                    return appt;
+                },
+                booked -> {
+                    JOptionPane.showMessageDialog(
+                            this,
+                            "Appointment booked successfully!",
+                            "Success",
+                            JOptionPane.INFORMATION_MESSAGE);
+                    dispose();
+                },
+                // ✅ SHOW EXACT ERROR (doctor unavailable, DB error, etc.)
+                e -> showError(e.getMessage())
+        );
+    }
+
     private void showError(String msg) {
         JOptionPane.showMessageDialog(this, msg, "Error", JOptionPane.ERROR_MESSAGE);
     }
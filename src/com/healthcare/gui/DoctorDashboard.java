@@ -1,14 +1,17 @@
 package com.healthcare.gui;
 
 import com.healthcare.models.Appointment;
+import com.healthcare.models.AppointmentFilter;
+import com.healthcare.models.AppointmentPage;
+import com.healthcare.models.AppointmentStatus;
 import com.healthcare.models.Doctor;
+import com.healthcare.models.PageCursor;
 import com.healthcare.service.AppointmentService;
 
 import java.awt.*;
-import java.time.format.DateTimeFormatter;
-import java.util.List;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 
 /**
  * Dashboard for doctors.
@@ -21,10 +24,14 @@ public class DoctorDashboard extends JFrame {
     private final AppointmentService appointmentService;
 
     private JTable table;
-    private DefaultTableModel tableModel;
+    private LazyAppointmentTableModel tableModel;
 
-    private static final DateTimeFormatter DATE_TIME_FORMATTER =
-            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    // DB calls run off the EDT; a new refresh supersedes a running one
+    private AsyncRunner loader;
+    private AsyncRunner updater;
+
+    // DB time of the last refresh; only rows modified after it are fetched again
+    private LocalDateTime watermark;
 
     public DoctorDashboard(Doctor doctor) {
         if (doctor == null) {
@@ -54,20 +61,8 @@ public class DoctorDashboard extends JFrame {
         titleLabel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
         add(titleLabel, BorderLayout.NORTH);
 
-        String[] columnNames = {"ID", "Patient ID", "Date & Time", "Status"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
-
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-
-            @Override
-            public Class<?> getColumnClass(int columnIndex) {
-                return (columnIndex == 0 || columnIndex == 1)
-                        ? Integer.class : String.class;
-            }
-        };
+        // Rows are paged in as they scroll into view
+        tableModel = new LazyAppointmentTableModel(false, false);
 
         table = new JTable(tableModel);
         table.setRowHeight(26);
@@ -81,33 +76,86 @@ public class DoctorDashboard extends JFrame {
         JButton refreshButton = new JButton("Refresh");
         JButton markCompletedButton = new JButton("Mark as Completed");
 
-        refreshButton.addActionListener(e -> loadAppointments());
+        refreshButton.addActionListener(e -> refreshAppointments());
         markCompletedButton.addActionListener(e -> markSelectedAsCompleted());
 
+        JProgressBar progressBar = AsyncRunner.newProgressBar();
+
         bottomPanel.add(refreshButton);
         bottomPanel.add(markCompletedButton);
+        bottomPanel.add(progressBar);
 
         add(bottomPanel, BorderLayout.SOUTH);
+
+        loader = new AsyncRunner(this, progressBar);
+        updater = new AsyncRunner(this, progressBar, markCompletedButton);
     }
 
+    /**
+     * First load: take the change watermark, then count the rows.
+     * Rows themselves are fetched page by page as they are shown.
+     */
     private void loadAppointments() {
-        tableModel.setRowCount(0);
-
-        List<Appointment> appointments =
-                appointmentService.getAppointmentsForDoctor(doctor.getId());
-
-        for (Appointment a : appointments) {
-            String formattedDateTime = a.getAppointmentDateTime() != null
-                    ? a.getAppointmentDateTime().format(DATE_TIME_FORMATTER)
-                    : "N/A";
-
-            tableModel.addRow(new Object[]{
-                    a.getId(),
-                    a.getPatientId(),
-                    formattedDateTime,
-                    a.getStatus()
-            });
+        loader.run(
+                () -> appointmentService.getAppointmentChangesForDoctor(doctor.getId(), null),
+                start -> {
+                    watermark = start.getWatermark();
+                    reloadTable();
+                },
+                e -> showMessage("Failed to load appointments: " + e.getMessage(), "Error")
+        );
+    }
+
+    /**
+     * Refresh: fetch only the rows changed since the last refresh and
+     * patch them into the table; reload only if that is not enough.
+     */
+    private void refreshAppointments() {
+        if (watermark == null) {
+            loadAppointments();
+            return;
         }
+
+        LocalDateTime since = watermark;
+        loader.run(
+                () -> appointmentService.getAppointmentChangesForDoctor(doctor.getId(), since),
+                delta -> {
+                    watermark = delta.getWatermark();
+                    if (!tableModel.applyChanges(delta.getChanges())) {
+                        reloadTable();
+                    }
+                },
+                e -> showMessage("Failed to load appointments: " + e.getMessage(), "Error")
+        );
+    }
+
+    private void reloadTable() {
+        loader.run(
+                () -> appointmentService.countAppointmentsForDoctor(doctor.getId(), AppointmentFilter.NONE),
+                this::showAppointments,
+                e -> showMessage("Failed to load appointments: " + e.getMessage(), "Error")
+        );
+    }
+
+    private void showAppointments(int count) {
+        tableModel.reset(new LazyAppointmentTableModel.PageSource() {
+            @Override
+            public AppointmentPage fetch(PageCursor after, int pageSize) throws SQLException {
+                return appointmentService.getAppointmentsForDoctorPage(
+                        doctor.getId(), AppointmentFilter.NONE, after, pageSize);
+            }
+
+            @Override
+            public PageCursor cursorAtRow(int rowIndex) throws SQLException {
+                return appointmentService.getDoctorCursorAtRow(
+                        doctor.getId(), AppointmentFilter.NONE, rowIndex);
+            }
+
+            @Override
+            public int count() throws SQLException {
+                return appointmentService.countAppointmentsForDoctor(doctor.getId(), AppointmentFilter.NONE);
+            }
+        }, count);
     }
 
     private void markSelectedAsCompleted() {
@@ -117,10 +165,14 @@ public class DoctorDashboard extends JFrame {
             return;
         }
 
-        int appointmentId = (Integer) tableModel.getValueAt(selectedRow, 0);
-        String currentStatus = (String) tableModel.getValueAt(selectedRow, 3);
+        Appointment selected = tableModel.getAppointmentAt(selectedRow);
+        if (selected == null) {
+            showMessage("The selected row is still loading, please try again.", "Info");
+            return;
+        }
 
-        if ("COMPLETED".equalsIgnoreCase(currentStatus)) {
+        int appointmentId = selected.getId();
+        if (selected.getStatus() == AppointmentStatus.COMPLETED) {
             showMessage("This appointment is already marked as COMPLETED.", "Info");
             return;
         }
@@ -132,16 +184,19 @@ public class DoctorDashboard extends JFrame {
                 JOptionPane.YES_NO_OPTION
         );
 
-        if (confirm == JOptionPane.YES_OPTION) {
-            boolean updated =
-                    appointmentService.markAppointmentCompleted(appointmentId);
-
-            if (updated) {
-                showMessage("Status updated successfully.", "Success");
-                loadAppointments();
-            } else {
-                showMessage("Failed to update status.", "Error");
-            }
+        if (confirm == JOptionPane.YES_OPTION && !updater.isBusy()) {
+            updater.run(
+                    () -> appointmentService.markAppointmentCompleted(appointmentId),
+                    updated -> {
+                        if (updated) {
+                            showMessage("Status updated successfully.", "Success");
+                            refreshAppointments();
+                        } else {
+                            showMessage("Failed to update status.", "Error");
+                        }
+                    },
+                    e -> showMessage("Failed to update status: " + e.getMessage(), "Error")
+            );
         }
     }
 
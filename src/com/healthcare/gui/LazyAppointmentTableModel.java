@@ -0,0 +1,476 @@
+package com.healthcare.gui;
+
+import com.healthcare.models.Appointment;
+import com.healthcare.models.AppointmentPage;
+import com.healthcare.models.AppointmentStatus;
+import com.healthcare.models.PageCursor;
+import com.healthcare.utils.VirtualThreads;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import javax.swing.SwingUtilities;
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * Read-only appointment table that only holds the rows being looked at.
+ *
+ * The model is told the total row count up front; rows are fetched in
+ * pages of PAGE_SIZE the first time JTable asks for one of them (i.e. when
+ * it scrolls into view) and only the most recently used MAX_CACHED_PAGES
+ * pages are kept. Cells are formatted in getValueAt, so nothing is boxed
+ * or formatted for rows that are never painted.
+ *
+ * Pages are read with the keyset queries: the cursor of each loaded page
+ * seeds the next one, and a jump far ahead asks the source for the cursor
+ * at that row instead of walking every page in between.
+ *
+ * Refreshes go through applyChanges(): cached rows that kept their date
+ * are replaced in place and new rows are inserted where they sort, so
+ * only the pages after them are fetched again. A cached row whose date
+ * changed reorders the table and needs a reset().
+ *
+ * All methods must be called on the EDT.
+ */
+final class LazyAppointmentTableModel extends AbstractTableModel {
+
+    /**
+     * Where pages come from; called on a background thread.
+     */
+    interface PageSource {
+
+        AppointmentPage fetch(PageCursor after, int pageSize) throws Exception;
+
+        /**
+         * Cursor of the row at rowIndex, or null if there is no such row.
+         */
+        PageCursor cursorAtRow(int rowIndex) throws Exception;
+
+        /**
+         * Current number of rows.
+         */
+        int count() throws Exception;
+    }
+
+    static final int PAGE_SIZE = 100;
+    private static final int MAX_CACHED_PAGES = 8;
+
+    private static final String LOADING = "Loading…";
+
+    private static final DateTimeFormatter DATE_TIME_FORMATTER =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private static final ExecutorService EXECUTOR =
+            VirtualThreads.newThreadPerTaskExecutor("table-pager");
+
+    private final String[] columnNames;
+    private final boolean showDoctorId;
+    private final boolean newestFirst;
+
+    private PageSource source;
+    private int rowCount;
+
+    // Results requested before the last reset() or insert are dropped when they arrive
+    private long generation;
+
+    private final Map<Integer, Appointment[]> pages =
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, Appointment[]> eldest) {
+                    return size() > MAX_CACHED_PAGES;
+                }
+            };
+
+    // Start cursor of each page seen so far (a few bytes each, kept for the whole reset)
+    private final Map<Integer, PageCursor> pageStarts = new HashMap<>();
+    private final Set<Integer> loading = new HashSet<>();
+
+    // Rows counted as new since the last reset(); deltas overlap, so one may come again
+    private final Set<Integer> insertedIds = new HashSet<>();
+
+    /**
+     * @param showDoctorId second column shows the doctor (patient view)
+     *                     instead of the patient (doctor view)
+     * @param newestFirst  row order of the source: by date and id,
+     *                     descending if true
+     */
+    LazyAppointmentTableModel(boolean showDoctorId, boolean newestFirst) {
+        this.showDoctorId = showDoctorId;
+        this.newestFirst = newestFirst;
+        this.columnNames = new String[]{
+                "ID", showDoctorId ? "Doctor ID" : "Patient ID", "Date & Time", "Status"
+        };
+    }
+
+    /**
+     * Drops all cached rows and starts over with a new source and row count.
+     */
+    void reset(PageSource source, int rowCount) {
+        generation++;
+        this.source = source;
+        this.rowCount = Math.max(0, rowCount);
+        pages.clear();
+        pageStarts.clear();
+        loading.clear();
+        insertedIds.clear();
+        fireTableDataChanged();
+    }
+
+    /**
+     * Upserts changed appointments into the cached pages by id.
+     *
+     * A row that is not cached is taken to be new if it is BOOKED (or sorts
+     * into a cached page): it is inserted where it sorts and the cached
+     * pages after it are dropped. The row count is then re-read in the
+     * background; if it does not match (the row had moved rather than
+     * being new) the model resets itself.
+     *
+     * @return false if a cached row changed its date, i.e. rows reorder;
+     *         the caller should recount and reset()
+     */
+    boolean applyChanges(List<Appointment> changes) {
+        if (source == null) {
+            return false;
+        }
+        for (Appointment changed : changes) {
+            Appointment cached = findCached(changed.getId());
+            if (cached != null && !Objects.equals(cached.getAppointmentDateTime(),
+                    changed.getAppointmentDateTime())) {
+                return false;
+            }
+        }
+
+        boolean inserted = false;
+        for (Appointment changed : changes) {
+            if (replaceCached(changed) || insertedIds.contains(changed.getId())) {
+                continue;
+            }
+            if (!insertIntoCachedPage(changed)) {
+                if (changed.getStatus() != AppointmentStatus.BOOKED) {
+                    // A row that is not on screen changed status; its page is read fresh later
+                    continue;
+                }
+                insertOutsideCache(changed);
+            }
+            insertedIds.add(changed.getId());
+            inserted = true;
+        }
+
+        if (inserted) {
+            verifyCount();
+        }
+        return true;
+    }
+
+    private Appointment findCached(int id) {
+        for (Appointment[] page : pages.values()) {
+            for (Appointment a : page) {
+                if (a.getId() == id) {
+                    return a;
+                }
+            }
+        }
+        return null;
+    }
+
+    private boolean replaceCached(Appointment changed) {
+        for (Map.Entry<Integer, Appointment[]> e : pages.entrySet()) {
+            Appointment[] page = e.getValue();
+            for (int i = 0; i < page.length; i++) {
+                if (page[i].getId() == changed.getId()) {
+                    page[i] = changed;
+                    int row = e.getKey() * PAGE_SIZE + i;
+                    fireTableRowsUpdated(row, row);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Inserts the row into the cached page whose range it sorts into, if any.
+     */
+    private boolean insertIntoCachedPage(Appointment a) {
+        int pageIndex = -1;
+        for (Map.Entry<Integer, Appointment[]> e : pages.entrySet()) {
+            Appointment[] page = e.getValue();
+            if (page.length > 0 && sortsInto(a, e.getKey(), page)) {
+                pageIndex = e.getKey();
+                break;
+            }
+        }
+        if (pageIndex < 0) {
+            return false;
+        }
+
+        Appointment[] page = pages.get(pageIndex);
+        int offset = 0;
+        while (offset < page.length && compare(a, page[offset]) > 0) {
+            offset++;
+        }
+
+        // A full page passes its last row on to the next one
+        Appointment[] grown = new Appointment[Math.min(page.length + 1, PAGE_SIZE)];
+        System.arraycopy(page, 0, grown, 0, offset);
+        grown[offset] = a;
+        System.arraycopy(page, offset, grown, offset + 1, grown.length - offset - 1);
+
+        dropRowsAfter(a);
+        pages.put(pageIndex, grown);
+        if (grown.length == PAGE_SIZE) {
+            pageStarts.put(pageIndex + 1, PageCursor.after(grown[PAGE_SIZE - 1]));
+        }
+
+        int row = pageIndex * PAGE_SIZE + offset;
+        rowCount++;
+        fireTableRowsInserted(row, row);
+        return true;
+    }
+
+    /**
+     * The row sorts between pages that are not cached; its exact position
+     * is unknown, so every cached page after it is dropped.
+     */
+    private void insertOutsideCache(Appointment a) {
+        int firstDropped = dropRowsAfter(a);
+        int row = firstDropped >= 0 ? firstDropped * PAGE_SIZE : rowCount;
+        rowCount++;
+        fireTableRowsInserted(row, row);
+    }
+
+    private boolean sortsInto(Appointment a, int pageIndex, Appointment[] page) {
+        // Only a short (last) page takes rows after its last one
+        if (page.length == PAGE_SIZE && compare(a, page[PAGE_SIZE - 1]) > 0) {
+            return false;
+        }
+        if (pageIndex == 0) {
+            return true;
+        }
+        PageCursor start = pageStarts.get(pageIndex);
+        return start != null
+                ? compare(a, start.getDateTime(), start.getId()) > 0
+                : compare(a, page[0]) > 0;
+    }
+
+    /**
+     * Forgets cached pages and page starts that sort after the row (they
+     * are now one row further down) and restarts page loads still in flight.
+     *
+     * @return lowest index of a dropped page, or -1
+     */
+    private int dropRowsAfter(Appointment a) {
+        int firstDropped = -1;
+        for (Iterator<Map.Entry<Integer, Appointment[]>> it = pages.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Integer, Appointment[]> e = it.next();
+            Appointment[] page = e.getValue();
+            if (page.length > 0 && compare(a, page[0]) < 0) {
+                it.remove();
+                if (firstDropped < 0 || e.getKey() < firstDropped) {
+                    firstDropped = e.getKey();
+                }
+            }
+        }
+        pageStarts.values().removeIf(start -> compare(a, start.getDateTime(), start.getId()) < 0);
+
+        // Their rows may be off by one now; repainting asks for them again
+        generation++;
+        List<Integer> inFlight = new ArrayList<>(loading);
+        loading.clear();
+        for (int pageIndex : inFlight) {
+            int first = pageIndex * PAGE_SIZE;
+            int last = Math.min(rowCount, first + PAGE_SIZE) - 1;
+            if (first <= last) {
+                fireTableRowsUpdated(first, last);
+            }
+        }
+        return firstDropped;
+    }
+
+    /**
+     * Re-reads the row count in the background and resets if the inserts
+     * did not account for it.
+     */
+    private void verifyCount() {
+        PageSource mySource = source;
+        long myGeneration = generation;
+
+        EXECUTOR.submit(() -> {
+            int count;
+            try {
+                count = mySource.count();
+            } catch (Exception e) {
+                System.err.println("Error counting appointments: " + e.getMessage());
+                return;
+            }
+            SwingUtilities.invokeLater(() -> {
+                if (myGeneration == generation && count != rowCount) {
+                    reset(mySource, count);
+                }
+            });
+        });
+    }
+
+    private int compare(Appointment a, Appointment b) {
+        return compare(a, b.getAppointmentDateTime(), b.getId());
+    }
+
+    /**
+     * Position of a relative to (dateTime, id) in the source's row order.
+     */
+    private int compare(Appointment a, LocalDateTime dateTime, int id) {
+        int c = a.getAppointmentDateTime().compareTo(dateTime);
+        if (c == 0) {
+            c = Integer.compare(a.getId(), id);
+        }
+        return newestFirst ? -c : c;
+    }
+
+    /**
+     * The appointment shown in a row, or null while its page is still loading.
+     */
+    Appointment getAppointmentAt(int row) {
+        if (row < 0 || row >= rowCount) {
+            return null;
+        }
+        Appointment[] page = pages.get(row / PAGE_SIZE);
+        if (page == null) {
+            requestPage(row / PAGE_SIZE);
+            return null;
+        }
+        int offset = row % PAGE_SIZE;
+        return offset < page.length ? page[offset] : null;
+    }
+
+    // ================================
+    // TableModel
+    // ================================
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int columnIndex) {
+        switch (columnIndex) {
+            case 0:
+            case 1:
+                return Integer.class;
+            case 3:
+                return AppointmentStatus.class;
+            default:
+                return String.class;
+        }
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        if (!pages.containsKey(row / PAGE_SIZE)) {
+            requestPage(row / PAGE_SIZE);
+            return column == 2 ? LOADING : null;
+        }
+
+        Appointment a = getAppointmentAt(row);
+        if (a == null) {
+            return null;
+        }
+
+        switch (column) {
+            case 0:
+                return a.getId();
+            case 1:
+                return showDoctorId ? a.getDoctorId() : a.getPatientId();
+            case 2:
+                return a.getAppointmentDateTime() != null
+                        ? a.getAppointmentDateTime().format(DATE_TIME_FORMATTER)
+                        : "N/A";
+            default:
+                return a.getStatus();
+        }
+    }
+
+    // ================================
+    // PAGE LOADING
+    // ================================
+
+    private void requestPage(int pageIndex) {
+        if (source == null || !loading.add(pageIndex)) {
+            return;
+        }
+
+        PageSource mySource = source;
+        long myGeneration = generation;
+        PageCursor knownStart = pageStarts.get(pageIndex);
+
+        EXECUTOR.submit(() -> {
+            Appointment[] rows;
+            PageCursor next = null;
+            try {
+                PageCursor start = knownStart;
+                if (start == null && pageIndex > 0) {
+                    start = mySource.cursorAtRow(pageIndex * PAGE_SIZE - 1);
+                }
+                if (start == null && pageIndex > 0) {
+                    // Rows were removed since the count was taken
+                    rows = new Appointment[0];
+                } else {
+                    AppointmentPage page = mySource.fetch(start, PAGE_SIZE);
+                    List<Appointment> items = page.getItems();
+                    rows = items.toArray(new Appointment[0]);
+                    next = page.getNextCursor();
+                }
+            } catch (Exception e) {
+                System.err.println("Error loading appointment page " + pageIndex + ": " + e.getMessage());
+                // Show the page as empty rather than retrying on every repaint
+                rows = new Appointment[0];
+            }
+
+            Appointment[] finalRows = rows;
+            PageCursor finalNext = next;
+            SwingUtilities.invokeLater(() -> onPageLoaded(myGeneration, pageIndex, finalRows, finalNext));
+        });
+    }
+
+    private void onPageLoaded(long pageGeneration, int pageIndex,
+                              Appointment[] rows, PageCursor next) {
+        if (pageGeneration != generation) {
+            return;
+        }
+
+        loading.remove(pageIndex);
+        pages.put(pageIndex, rows);
+        if (next != null) {
+            pageStarts.put(pageIndex + 1, next);
+        }
+
+        int first = pageIndex * PAGE_SIZE;
+        int last = Math.min(rowCount, first + PAGE_SIZE) - 1;
+        if (first <= last) {
+            fireTableRowsUpdated(first, last);
+        }
+    }
+}
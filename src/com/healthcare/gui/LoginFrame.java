@@ -17,6 +17,9 @@ public class LoginFrame extends JFrame {
     private final JPasswordField passwordField = new JPasswordField(20);
     private final UserDAO userDAO = new UserDAO();
 
+    // Login lookups run off the EDT
+    private AsyncRunner loginRunner;
+
     public LoginFrame() {
         super("Login");
 
@@ -52,20 +55,28 @@ private void initUI() {
     JButton loginBtn = new JButton("Login");
     JButton registerBtn = new JButton("Register Sample User");
 
+    JProgressBar progressBar = AsyncRunner.newProgressBar();
+
     btnPanel.add(loginBtn);
     btnPanel.add(registerBtn);
+    btnPanel.add(progressBar);
 
     container.add(btnPanel, BorderLayout.SOUTH);
 
     add(container);
 
+    loginRunner = new AsyncRunner(this, progressBar, loginBtn, registerBtn);
+
     loginBtn.addActionListener(e -> doLogin());
     registerBtn.addActionListener(e -> {
         Patient p = new Patient(0, "patient2", "pass2", "Jane Doe", "+111222333");
-        boolean ok = userDAO.create(p);
-        JOptionPane.showMessageDialog(this, ok ?
-                "Sample patient created!" :
-                "User already exists!");
+        loginRunner.run(
+                () -> userDAO.create(p),
+                ok -> JOptionPane.showMessageDialog(this, ok ?
+                        "Sample patient created!" :
+                        "User already exists!"),
+                ex -> showError(ex.getMessage())
+        );
     });
 }
 
@@ -107,16 +118,24 @@ private void initUI() {
             return;
         }
 
-        userDAO.findByUsername(username).ifPresentOrElse(user -> {
-            if (!user.getPassword().equals(password)) {
-                showError("Invalid password");
-                return;
-            }
+        if (loginRunner.isBusy()) {
+            return;
+        }
 
-            // Open correct dashboard
-            openDashboardFor(user);
+        loginRunner.run(
+                () -> userDAO.findByUsername(username),
+                found -> found.ifPresentOrElse(user -> {
+                    if (!user.getPassword().equals(password)) {
+                        showError("Invalid password");
+                        return;
+                    }
 
-        }, () -> showError("User not found"));
+                    // Open correct dashboard
+                    openDashboardFor(user);
+
+                }, () -> showError("User not found")),
+                ex -> showError("Login failed: " + ex.getMessage())
+        );
     }
 
     /**
@@ -1,14 +1,17 @@
 package com.healthcare.gui;
 
 import com.healthcare.models.Appointment;
+import com.healthcare.models.AppointmentFilter;
+import com.healthcare.models.AppointmentPage;
+import com.healthcare.models.AppointmentStatus;
 import com.healthcare.models.Patient;
+import com.healthcare.models.PageCursor;
 import com.healthcare.service.AppointmentService;
 import java.awt.*;
-import java.time.format.DateTimeFormatter;
-import java.util.List;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
 import javax.swing.*;
 import javax.swing.table.DefaultTableCellRenderer;
-import javax.swing.table.DefaultTableModel;
 
 /**
  * Shows all appointments for the logged-in patient.
@@ -21,10 +24,14 @@ public class PatientAppointmentsFrame extends JFrame {
     private final AppointmentService appointmentService;
 
     private JTable table;
-    private DefaultTableModel tableModel;
+    private LazyAppointmentTableModel tableModel;
 
-    private static final DateTimeFormatter FORMATTER =
-            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    // DB calls run off the EDT; a new refresh supersedes a running one
+    private AsyncRunner loader;
+    private AsyncRunner updater;
+
+    // DB time of the last refresh; only rows modified after it are fetched again
+    private LocalDateTime watermark;
 
     public PatientAppointmentsFrame(Patient patient) {
         this.patient = patient;
@@ -48,19 +55,8 @@ public class PatientAppointmentsFrame extends JFrame {
         title.setFont(new Font("Segoe UI", Font.BOLD, 20));
         add(title, BorderLayout.NORTH);
 
-        String[] cols = {"ID", "Doctor ID", "Date & Time", "Status"};
-        tableModel = new DefaultTableModel(cols, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-
-            @Override
-            public Class<?> getColumnClass(int columnIndex) {
-                return (columnIndex == 0 || columnIndex == 1)
-                        ? Integer.class : String.class;
-            }
-        };
+        // Rows are paged in as they scroll into view
+        tableModel = new LazyAppointmentTableModel(true, true);
 
         table = new JTable(tableModel);
         table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
@@ -78,33 +74,89 @@ public class PatientAppointmentsFrame extends JFrame {
         JButton refreshBtn = new JButton("Refresh");
         JButton cancelBtn = new JButton("Cancel Appointment");
 
-        refreshBtn.addActionListener(e -> loadAppointments());
+        refreshBtn.addActionListener(e -> refreshAppointments());
         cancelBtn.addActionListener(e -> cancelSelected());
 
+        JProgressBar progressBar = AsyncRunner.newProgressBar();
+
         btnPanel.add(refreshBtn);
         btnPanel.add(cancelBtn);
+        btnPanel.add(progressBar);
 
         add(btnPanel, BorderLayout.SOUTH);
+
+        loader = new AsyncRunner(this, progressBar);
+        updater = new AsyncRunner(this, progressBar, cancelBtn);
     }
 
+    /**
+     * First load: take the change watermark, then count the rows.
+     * Rows themselves are fetched page by page as they are shown.
+     */
     private void loadAppointments() {
-        tableModel.setRowCount(0);
-
-        List<Appointment> list =
-                appointmentService.getAppointmentsForPatient(patient.getId());
-
-        for (Appointment a : list) {
-            String dt = a.getAppointmentDateTime() != null
-                    ? a.getAppointmentDateTime().format(FORMATTER)
-                    : "N/A";
-
-            tableModel.addRow(new Object[]{
-                    a.getId(),
-                    a.getDoctorId(),
-                    dt,
-                    a.getStatus()
-            });
+        loader.run(
+                () -> appointmentService.getAppointmentChangesForPatient(patient.getId(), null),
+                start -> {
+                    watermark = start.getWatermark();
+                    reloadTable();
+                },
+                e -> JOptionPane.showMessageDialog(this,
+                        "Failed to load appointments: " + e.getMessage())
+        );
+    }
+
+    /**
+     * Refresh: fetch only the rows changed since the last refresh and
+     * patch them into the table; reload only if that is not enough.
+     */
+    private void refreshAppointments() {
+        if (watermark == null) {
+            loadAppointments();
+            return;
         }
+
+        LocalDateTime since = watermark;
+        loader.run(
+                () -> appointmentService.getAppointmentChangesForPatient(patient.getId(), since),
+                delta -> {
+                    watermark = delta.getWatermark();
+                    if (!tableModel.applyChanges(delta.getChanges())) {
+                        reloadTable();
+                    }
+                },
+                e -> JOptionPane.showMessageDialog(this,
+                        "Failed to load appointments: " + e.getMessage())
+        );
+    }
+
+    private void reloadTable() {
+        loader.run(
+                () -> appointmentService.countAppointmentsForPatient(patient.getId(), AppointmentFilter.NONE),
+                this::showAppointments,
+                e -> JOptionPane.showMessageDialog(this,
+                        "Failed to load appointments: " + e.getMessage())
+        );
+    }
+
+    private void showAppointments(int count) {
+        tableModel.reset(new LazyAppointmentTableModel.PageSource() {
+            @Override
+            public AppointmentPage fetch(PageCursor after, int pageSize) throws SQLException {
+                return appointmentService.getAppointmentsForPatientPage(
+                        patient.getId(), AppointmentFilter.NONE, after, pageSize);
+            }
+
+            @Override
+            public PageCursor cursorAtRow(int rowIndex) throws SQLException {
+                return appointmentService.getPatientCursorAtRow(
+                        patient.getId(), AppointmentFilter.NONE, rowIndex);
+            }
+
+            @Override
+            public int count() throws SQLException {
+                return appointmentService.countAppointmentsForPatient(patient.getId(), AppointmentFilter.NONE);
+            }
+        }, count);
     }
 
     private Integer getSelectedAppointmentId() {
@@ -113,7 +165,12 @@ public class PatientAppointmentsFrame extends JFrame {
             JOptionPane.showMessageDialog(this, "Please select an appointment first.");
             return null;
         }
-        return (Integer) tableModel.getValueAt(row, 0);
+        Appointment selected = tableModel.getAppointmentAt(row);
+        if (selected == null) {
+            JOptionPane.showMessageDialog(this, "The selected row is still loading, please try again.");
+            return null;
+        }
+        return selected.getId();
     }
 
     // ENHANCEMENT 2: CANCEL APPOINTMENT
@@ -127,15 +184,21 @@ public class PatientAppointmentsFrame extends JFrame {
                 "Confirm Cancellation",
                 JOptionPane.YES_NO_OPTION
         );
-        if (confirm != JOptionPane.YES_OPTION) return;
-
-        boolean ok = appointmentService.cancelAppointment(id);
-        if (ok) {
-            JOptionPane.showMessageDialog(this, "Appointment cancelled successfully.");
-            loadAppointments();
-        } else {
-            JOptionPane.showMessageDialog(this, "Failed to cancel appointment.");
-        }
+        if (confirm != JOptionPane.YES_OPTION || updater.isBusy()) return;
+
+        updater.run(
+                () -> appointmentService.cancelAppointment(id),
+                ok -> {
+                    if (ok) {
+                        JOptionPane.showMessageDialog(this, "Appointment cancelled successfully.");
+                        refreshAppointments();
+                    } else {
+                        JOptionPane.showMessageDialog(this, "Failed to cancel appointment.");
+                    }
+                },
+                e -> JOptionPane.showMessageDialog(this,
+                        "Failed to cancel appointment: " + e.getMessage())
+        );
     }
 
     // 🎨 CUSTOM RENDERER FOR STATUS COLUMN
@@ -149,21 +212,21 @@ public class PatientAppointmentsFrame extends JFrame {
             Component c = super.getTableCellRendererComponent(
                     table, value, isSelected, hasFocus, row, column);
 
-            if (!isSelected && value != null) {
-                String status = value.toString();
-
-                switch (status) {
-                    case "BOOKED":
-                        c.setForeground(new Color(0, 102, 204)); // Blue
-                        break;
-                    case "CANCELLED":
-                        c.setForeground(Color.RED);
-                        break;
-                    case "COMPLETED":
-                        c.setForeground(new Color(0, 153, 0)); // Green
-                        break;
-                    default:
-                        c.setForeground(Color.BLACK);
+            if (!isSelected) {
+                if (value instanceof AppointmentStatus) {
+                    switch ((AppointmentStatus) value) {
+                        case BOOKED:
+                            c.setForeground(new Color(0, 102, 204)); // Blue
+                            break;
+                        case CANCELLED:
+                            c.setForeground(Color.RED);
+                            break;
+                        case COMPLETED:
+                            c.setForeground(new Color(0, 153, 0)); // Green
+                            break;
+                    }
+                } else {
+                    c.setForeground(Color.BLACK);
                 }
             }
 
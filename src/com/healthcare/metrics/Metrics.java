@@ -0,0 +1,151 @@
+package com.healthcare.metrics;
+
+import com.healthcare.utils.DBConfig;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Registry of per-operation metrics for the DAO and service layers.
+ *
+ * - Each operation (e.g. "AppointmentDAO.insertAppointment") is created
+ *   once, published over JMX under com.healthcare:type=Operation and
+ *   kept in a static field by its caller, so timing a call costs two
+ *   nanoTime() reads, one ThreadLocal lookup and a few atomic adds
+ * - Time spent in DBConnection.getConnection() is reported by the pool
+ *   and charged to the operation running on the same thread
+ * - With -Dhealthcare.metrics.logIntervalSeconds=N the table from
+ *   report() is printed every N seconds
+ * - -Dhealthcare.metrics.enabled=false turns all of it into no-ops
+ */
+public final class Metrics {
+
+    static final boolean ENABLED = DBConfig.METRICS_ENABLED;
+
+    private static final Map<String, OperationMetrics> OPERATIONS = new ConcurrentHashMap<>();
+
+    private static final ThreadLocal<Context> CONTEXT = ThreadLocal.withInitial(Context::new);
+
+    // Every borrow from the connection pool, whoever asked
+    private static final OperationMetrics CONNECTION_ACQUIRE = operation("DBConnection.getConnection");
+
+    static {
+        if (ENABLED && DBConfig.METRICS_LOG_INTERVAL_SECONDS > 0) {
+            startReporter(DBConfig.METRICS_LOG_INTERVAL_SECONDS);
+        }
+    }
+
+    // Prevent instantiation
+    private Metrics() { }
+
+    /**
+     * Per-thread state of the calls in progress.
+     */
+    static final class Context {
+        int depth;
+        long acquireNanos;
+    }
+
+    static Context context() {
+        return CONTEXT.get();
+    }
+
+    /**
+     * Returns the metrics of the named operation, creating and
+     * registering them with JMX on first use.
+     */
+    public static OperationMetrics operation(String name) {
+        return OPERATIONS.computeIfAbsent(name, n -> {
+            OperationMetrics metrics = new OperationMetrics(n);
+            if (ENABLED) {
+                register(metrics);
+            }
+            return metrics;
+        });
+    }
+
+    /**
+     * Called by the connection pool after every successful borrow.
+     */
+    public static void connectionAcquired(long waitedNanos) {
+        if (!ENABLED) {
+            return;
+        }
+        CONNECTION_ACQUIRE.record(waitedNanos, waitedNanos);
+
+        Context context = CONTEXT.get();
+        if (context.depth > 0) {
+            context.acquireNanos += waitedNanos;
+        }
+    }
+
+    /**
+     * Called by the connection pool when a borrow times out.
+     */
+    public static void connectionTimedOut() {
+        CONNECTION_ACQUIRE.error();
+    }
+
+    /**
+     * All operations seen so far, sorted by name.
+     */
+    public static List<OperationMetrics> operations() {
+        List<OperationMetrics> list = new ArrayList<>(OPERATIONS.values());
+        list.sort(Comparator.comparing(OperationMetrics::getName));
+        return list;
+    }
+
+    /**
+     * Text table of every operation that has been called at least once.
+     */
+    public static String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-52s %9s %6s %10s %9s %9s %9s %9s %9s%n",
+                "operation", "calls", "errors", "rows",
+                "mean ms", "p50 ms", "p99 ms", "max ms", "acq ms"));
+        for (OperationMetrics m : operations()) {
+            if (m.getCalls() > 0 || m.getErrors() > 0) {
+                sb.append(m).append(System.lineSeparator());
+            }
+        }
+        return sb.toString();
+    }
+
+    public static void resetAll() {
+        for (OperationMetrics m : OPERATIONS.values()) {
+            m.reset();
+        }
+    }
+
+    private static void register(OperationMetrics metrics) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName("com.healthcare:type=Operation,name="
+                    + ObjectName.quote(metrics.getName()));
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(metrics, objectName);
+            }
+        } catch (Exception e) {
+            System.err.println("Could not register metrics MBean for "
+                    + metrics.getName() + ": " + e.getMessage());
+        }
+    }
+
+    private static void startReporter(long intervalSeconds) {
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "metrics-reporter");
+            t.setDaemon(true);
+            return t;
+        });
+        reporter.scheduleAtFixedRate(() -> System.out.print(report()),
+                intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,192 @@
+package com.healthcare.metrics;
+
+import com.healthcare.utils.LatencyHistogram;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency, connection acquire time, rows and errors of one DAO or
+ * service operation. Obtained once per operation from
+ * Metrics.operation(name) and kept in a static field.
+ *
+ * Typical use:
+ *
+ *   OperationMetrics.Call call = FIND.start();
+ *   try (Connection con = DBConnection.getConnection()) {
+ *       ...
+ *       FIND.rows(list.size());
+ *   } catch (SQLException e) {
+ *       FIND.error();
+ *       ...
+ *   } finally {
+ *       call.close();
+ *   }
+ *
+ * (An explicit finally rather than try-with-resources: the body never
+ * touches the Call, which javac -Xlint:try would flag.)
+ *
+ * Everything is recorded with atomic adds, so any number of threads can
+ * report into the same operation without locking.
+ */
+public final class OperationMetrics implements OperationMetricsMXBean {
+
+    private static final Call NOOP = new Call(null, null);
+
+    private final String name;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LatencyHistogram acquire = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+
+    OperationMetrics(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Starts timing one call; close the returned Call in a finally block.
+     * Connections borrowed until then count as this call's acquire time.
+     */
+    public Call start() {
+        if (!Metrics.ENABLED) {
+            return NOOP;
+        }
+        return new Call(this, Metrics.context());
+    }
+
+    public void rows(long count) {
+        if (Metrics.ENABLED) {
+            rows.add(count);
+        }
+    }
+
+    public void error() {
+        if (Metrics.ENABLED) {
+            errors.increment();
+        }
+    }
+
+    void record(long nanos, long acquireNanos) {
+        latency.recordNanos(nanos);
+        if (acquireNanos > 0) {
+            acquire.recordNanos(acquireNanos);
+        }
+    }
+
+    // ================================
+    // MXBean
+    // ================================
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getCalls() {
+        return latency.getCount();
+    }
+
+    @Override
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    @Override
+    public long getRows() {
+        return rows.sum();
+    }
+
+    @Override
+    public double getMeanMillis() {
+        return latency.getMeanMicros() / 1000.0;
+    }
+
+    @Override
+    public double getP50Millis() {
+        return latency.getPercentileMicros(50) / 1000.0;
+    }
+
+    @Override
+    public double getP99Millis() {
+        return latency.getPercentileMicros(99) / 1000.0;
+    }
+
+    @Override
+    public double getP999Millis() {
+        return latency.getPercentileMicros(99.9) / 1000.0;
+    }
+
+    @Override
+    public double getMaxMillis() {
+        return latency.getMaxMicros() / 1000.0;
+    }
+
+    @Override
+    public long getAcquireCount() {
+        return acquire.getCount();
+    }
+
+    @Override
+    public double getMeanAcquireMillis() {
+        return acquire.getMeanMicros() / 1000.0;
+    }
+
+    @Override
+    public double getP99AcquireMillis() {
+        return acquire.getPercentileMicros(99) / 1000.0;
+    }
+
+    @Override
+    public void reset() {
+        latency.reset();
+        acquire.reset();
+        errors.reset();
+        rows.reset();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-52s %9d %6d %10d %9.2f %9.2f %9.2f %9.2f %9.2f",
+                name, getCalls(), getErrors(), getRows(),
+                getMeanMillis(), getP50Millis(), getP99Millis(), getMaxMillis(),
+                getMeanAcquireMillis());
+    }
+
+    /**
+     * One timed call. Remembers the enclosing call's acquire time so nested
+     * operations (a service calling a DAO) each see their own, and the
+     * outer one also includes what the inner ones waited.
+     */
+    public static final class Call implements AutoCloseable {
+
+        private final OperationMetrics operation;
+        private final Metrics.Context context;
+        private final long outerAcquireNanos;
+        private final long start;
+
+        private Call(OperationMetrics operation, Metrics.Context context) {
+            this.operation = operation;
+            this.context = context;
+            if (context == null) {
+                this.outerAcquireNanos = 0;
+                this.start = 0;
+                return;
+            }
+            this.outerAcquireNanos = context.acquireNanos;
+            context.acquireNanos = 0;
+            context.depth++;
+            this.start = System.nanoTime();
+        }
+
+        @Override
+        public void close() {
+            if (context == null) {
+                return;
+            }
+            long elapsed = System.nanoTime() - start;
+            long acquired = context.acquireNanos;
+            context.acquireNanos = outerAcquireNanos + acquired;
+            context.depth--;
+            operation.record(elapsed, acquired);
+        }
+    }
+}
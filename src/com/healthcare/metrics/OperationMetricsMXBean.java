@@ -0,0 +1,36 @@
+package com.healthcare.metrics;
+
+/**
+ * JMX view of one OperationMetrics, registered as
+ * com.healthcare:type=Operation,name=&lt;Class.method&gt;.
+ * Times are in milliseconds; counters run since start or the last reset().
+ */
+public interface OperationMetricsMXBean {
+
+    String getName();
+
+    long getCalls();
+
+    long getErrors();
+
+    long getRows();
+
+    double getMeanMillis();
+
+    double getP50Millis();
+
+    double getP99Millis();
+
+    double getP999Millis();
+
+    double getMaxMillis();
+
+    /** Calls that borrowed a pooled connection. */
+    long getAcquireCount();
+
+    double getMeanAcquireMillis();
+
+    double getP99AcquireMillis();
+
+    void reset();
+}
@@ -12,14 +12,15 @@ public class Appointment {
     private int patientId;
     private int doctorId;
     private LocalDateTime appointmentDateTime;   // matches DB column appointment_datetime
-    private String status;                       // BOOKED / COMPLETED / CANCELLED
+    private AppointmentStatus status;            // null until booked (service defaults to BOOKED)
     private String notes;                        // optional
+    private LocalDateTime lastModified;          // DB column last_modified, set by the DAO
 
     public Appointment() {
     }
 
     public Appointment(int id, int patientId, int doctorId,
-                       LocalDateTime appointmentDateTime, String status, String notes) {
+                       LocalDateTime appointmentDateTime, AppointmentStatus status, String notes) {
         this.id = id;
         this.patientId = patientId;
         this.doctorId = doctorId;
@@ -62,11 +63,11 @@ public class Appointment {
         this.appointmentDateTime = appointmentDateTime;
     }
 
-    public String getStatus() {
+    public AppointmentStatus getStatus() {
         return status;
     }
 
-    public void setStatus(String status) {
+    public void setStatus(AppointmentStatus status) {
         this.status = status;
     }
 
@@ -78,6 +79,14 @@ public class Appointment {
         this.notes = notes;
     }
 
+    public LocalDateTime getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(LocalDateTime lastModified) {
+        this.lastModified = lastModified;
+    }
+
     // Optional: Useful for debugging
     @Override
     public String toString() {
@@ -86,7 +95,7 @@ public class Appointment {
                 ", patientId=" + patientId +
                 ", doctorId=" + doctorId +
                 ", appointmentDateTime=" + appointmentDateTime +
-                ", status='" + status + '\'' +
+                ", status=" + status +
                 ", notes='" + notes + '\'' +
                 '}';
     }
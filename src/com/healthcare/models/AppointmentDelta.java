@@ -0,0 +1,40 @@
+package com.healthcare.models;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Appointments changed since a client's watermark, plus the watermark
+ * to send next time.
+ *
+ * Changes are re-sent for a short overlap window, so the same row may
+ * show up in two consecutive deltas; apply them by id (upsert).
+ */
+public class AppointmentDelta {
+
+    private final List<Appointment> changes;
+    private final LocalDateTime watermark;
+
+    public AppointmentDelta(List<Appointment> changes, LocalDateTime watermark) {
+        this.changes = Collections.unmodifiableList(changes);
+        this.watermark = watermark;
+    }
+
+    public List<Appointment> getChanges() {
+        return changes;
+    }
+
+    public LocalDateTime getWatermark() {
+        return watermark;
+    }
+
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "AppointmentDelta{changes=" + changes.size() + ", watermark=" + watermark + '}';
+    }
+}
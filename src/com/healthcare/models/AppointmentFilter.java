@@ -0,0 +1,43 @@
+package com.healthcare.models;
+
+import java.time.LocalDateTime;
+
+/**
+ * Optional filters for paginated appointment reads.
+ * Any field left null is not applied.
+ *
+ *  from    inclusive lower bound on appointment_datetime
+ *  to      exclusive upper bound on appointment_datetime
+ *  status  exact status match
+ */
+public class AppointmentFilter {
+
+    public static final AppointmentFilter NONE = new AppointmentFilter(null, null, null);
+
+    private final LocalDateTime from;
+    private final LocalDateTime to;
+    private final AppointmentStatus status;
+
+    public AppointmentFilter(LocalDateTime from, LocalDateTime to, AppointmentStatus status) {
+        this.from = from;
+        this.to = to;
+        this.status = status;
+    }
+
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    public LocalDateTime getTo() {
+        return to;
+    }
+
+    public AppointmentStatus getStatus() {
+        return status;
+    }
+
+    @Override
+    public String toString() {
+        return "AppointmentFilter{from=" + from + ", to=" + to + ", status=" + status + '}';
+    }
+}
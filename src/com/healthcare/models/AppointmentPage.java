@@ -0,0 +1,36 @@
+package com.healthcare.models;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of appointments plus the cursor for the next page.
+ * nextCursor is null when this is the last page.
+ */
+public class AppointmentPage {
+
+    private final List<Appointment> items;
+    private final PageCursor nextCursor;
+
+    public AppointmentPage(List<Appointment> items, PageCursor nextCursor) {
+        this.items = Collections.unmodifiableList(items);
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Appointment> getItems() {
+        return items;
+    }
+
+    public PageCursor getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+
+    @Override
+    public String toString() {
+        return "AppointmentPage{items=" + items.size() + ", nextCursor=" + nextCursor + '}';
+    }
+}
@@ -0,0 +1,40 @@
+package com.healthcare.models;
+
+/**
+ * Lifecycle of an appointment; mirrors the appointments.status ENUM column.
+ * The constant names are the values stored in the database.
+ */
+public enum AppointmentStatus {
+
+    BOOKED,
+    COMPLETED,
+    CANCELLED;
+
+    /**
+     * Maps a status column value; null stays null.
+     *
+     * @throws IllegalArgumentException for a value the schema does not allow
+     */
+    public static AppointmentStatus fromDb(String value) {
+        if (value == null) {
+            return null;
+        }
+        switch (value) {
+            case "BOOKED":
+                return BOOKED;
+            case "COMPLETED":
+                return COMPLETED;
+            case "CANCELLED":
+                return CANCELLED;
+            default:
+                throw new IllegalArgumentException("Unknown appointment status: " + value);
+        }
+    }
+
+    /**
+     * Value to bind to the status column; null stays null.
+     */
+    public static String toDb(AppointmentStatus status) {
+        return status != null ? status.name() : null;
+    }
+}
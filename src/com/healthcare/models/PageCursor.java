@@ -0,0 +1,39 @@
+package com.healthcare.models;
+
+import java.time.LocalDateTime;
+
+/**
+ * Keyset pagination cursor: position of the last row of a page,
+ * identified by (appointment_datetime, id).
+ * The next page starts right after this position.
+ */
+public final class PageCursor {
+
+    private final LocalDateTime dateTime;
+    private final int id;
+
+    public PageCursor(LocalDateTime dateTime, int id) {
+        if (dateTime == null) {
+            throw new IllegalArgumentException("Cursor date/time cannot be null");
+        }
+        this.dateTime = dateTime;
+        this.id = id;
+    }
+
+    public static PageCursor after(Appointment appointment) {
+        return new PageCursor(appointment.getAppointmentDateTime(), appointment.getId());
+    }
+
+    public LocalDateTime getDateTime() {
+        return dateTime;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return "PageCursor{" + dateTime + ", id=" + id + '}';
+    }
+}
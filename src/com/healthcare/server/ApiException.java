@@ -0,0 +1,20 @@
+package com.healthcare.server;
+
+/**
+ * A request that cannot be served; becomes {"error": message} with the given HTTP status.
+ */
+class ApiException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int status;
+
+    ApiException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    int getStatus() {
+        return status;
+    }
+}
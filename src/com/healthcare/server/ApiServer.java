@@ -0,0 +1,593 @@
+package com.healthcare.server;
+
+import com.healthcare.dao.DoctorDirectory;
+import com.healthcare.dao.UserDAO;
+import com.healthcare.models.Appointment;
+import com.healthcare.models.AppointmentFilter;
+import com.healthcare.models.AppointmentPage;
+import com.healthcare.models.AppointmentStatus;
+import com.healthcare.models.Doctor;
+import com.healthcare.models.PageCursor;
+import com.healthcare.models.Patient;
+import com.healthcare.models.User;
+import com.healthcare.service.AppointmentExportService;
+import com.healthcare.service.AppointmentService;
+import com.healthcare.service.BookingException;
+import com.healthcare.utils.DBConfig;
+import com.healthcare.utils.ValidationUtil;
+import com.healthcare.utils.VirtualThreads;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Headless JSON API over AppointmentService / UserDAO for web and mobile
+ * clients (Main --server).
+ *
+ * Endpoints (all but login/health need "Authorization: Bearer <token>"):
+ *   POST /api/login                        {"username","password"} -> token
+ *   POST /api/logout
+ *   GET  /api/health
+ *   GET  /api/appointments                 ?status=&from=&to=&limit=&cursor=
+ *   POST /api/appointments                 {"doctorId","appointmentDateTime","notes"} (patients)
+ *   GET  /api/appointments/{id}
+ *   POST /api/appointments/{id}/cancel
+ *   POST /api/appointments/{id}/complete   (doctors)
+ *   POST /api/appointments/{id}/reschedule {"appointmentDateTime"}
+ *   GET  /api/doctors                      ?q=&specialization=&limit= doctor search
+ *   GET  /api/doctors/{id}/slots           ?from=&to=&limit= free start times
+ *
+ * Date/times are ISO-8601 local date-times (2030-01-31T10:30). Listing
+ * returns the caller's own appointments, a page at a time; pass the
+ * returned nextCursor back as cursor for the next page. Cancel, complete
+ * and reschedule only apply to BOOKED appointments (409 otherwise); a
+ * taken slot is also a 409. Errors are {"error": "..."} with a matching
+ * status code; unexpected failures are a plain 500 "Internal error".
+ *
+ * Every request runs on its own virtual thread, so thousands of slow
+ * clients cost no more than their stacks; actual database work is still
+ * bounded by the connection pool. On JVMs without virtual threads a fixed
+ * pool of healthcare.server.platformThreads is used instead, and extra
+ * requests queue rather than creating more threads.
+ */
+public class ApiServer {
+
+    private static final int MAX_BODY_BYTES = 16 * 1024;
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int DEFAULT_SLOT_DAYS = 30;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final SessionStore sessions = new SessionStore(DBConfig.SERVER_SESSION_TTL_MS);
+
+    private final AppointmentService appointmentService = new AppointmentService();
+    private final UserDAO userDAO = new UserDAO();
+
+    public ApiServer(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(port), DBConfig.SERVER_BACKLOG);
+        executor = VirtualThreads.isSupported()
+                ? VirtualThreads.newThreadPerTaskExecutor("http")
+                : Executors.newFixedThreadPool(DBConfig.SERVER_PLATFORM_THREADS);
+        server.setExecutor(executor);
+
+        server.createContext("/api/health", route(this::health));
+        server.createContext("/api/login", route(this::login));
+        server.createContext("/api/logout", route(this::logout));
+        server.createContext("/api/appointments", route(this::appointments));
+        server.createContext("/api/doctors", route(this::doctors));
+    }
+
+    public void start() {
+        server.start();
+        System.out.println("API server listening on port " + getPort()
+                + (VirtualThreads.isSupported() ? " (virtual threads)" : " (platform threads)"));
+    }
+
+    /**
+     * Stops accepting requests, waits up to delaySeconds for running ones.
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(delaySeconds, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    // ================================
+    // AUTH
+    // ================================
+
+    private void health(HttpExchange ex) throws IOException {
+        requireMethod(ex, "GET");
+        send(ex, 200, "{\"status\":\"UP\",\"sessions\":" + sessions.size() + "}");
+    }
+
+    private void login(HttpExchange ex) throws IOException, SQLException {
+        requireMethod(ex, "POST");
+        Map<String, Object> body = readBody(ex);
+        String username = stringField(body, "username", true);
+        String password = stringField(body, "password", true);
+
+        User user = userDAO.findByUsername(username).orElse(null);
+        if (user == null || !user.getPassword().equals(password)) {
+            throw new ApiException(401, "Invalid username or password");
+        }
+
+        // A Patient carries its users.id, a Doctor its doctors.id already
+        int ownerId;
+        String name;
+        if (user instanceof Patient) {
+            ownerId = userDAO.findPatientId(user.getId());
+            name = ((Patient) user).getName();
+        } else if (user instanceof Doctor) {
+            ownerId = user.getId();
+            name = ((Doctor) user).getName();
+        } else {
+            ownerId = 0;
+            name = null;
+        }
+        if (ownerId == 0) {
+            throw new ApiException(403, "Only patients and doctors can use the API");
+        }
+
+        StringBuilder sb = new StringBuilder("{\"token\":");
+        Json.quote(sb, sessions.create(user, ownerId));
+        sb.append(",\"id\":").append(ownerId).append(",\"role\":");
+        Json.quote(sb, user.getRole());
+        sb.append(",\"username\":");
+        Json.quote(sb, user.getUsername());
+        sb.append(",\"name\":");
+        Json.quote(sb, name);
+        send(ex, 200, sb.append('}').toString());
+    }
+
+    private void logout(HttpExchange ex) throws IOException {
+        requireMethod(ex, "POST");
+        requireSession(ex);
+        sessions.remove(bearerToken(ex));
+        send(ex, 200, "{}");
+    }
+
+    // ================================
+    // APPOINTMENTS
+    // ================================
+
+    private void appointments(HttpExchange ex) throws Exception {
+        SessionStore.Session session = requireSession(ex);
+
+        // /api/appointments[/{id}[/{action}]]
+        String[] parts = ex.getRequestURI().getPath().split("/");
+        String method = ex.getRequestMethod();
+
+        if (parts.length == 3) {
+            if ("GET".equals(method)) {
+                listAppointments(ex, session);
+            } else if ("POST".equals(method)) {
+                bookAppointment(ex, session);
+            } else {
+                throw new ApiException(405, "Method not allowed");
+            }
+            return;
+        }
+
+        int id;
+        try {
+            id = Integer.parseInt(parts[3]);
+        } catch (NumberFormatException e) {
+            throw new ApiException(404, "Not found");
+        }
+        Appointment existing = requireOwned(session, id);
+
+        if (parts.length == 4) {
+            requireMethod(ex, "GET");
+            sendAppointment(ex, 200, existing);
+            return;
+        }
+        if (parts.length != 5) {
+            throw new ApiException(404, "Not found");
+        }
+
+        requireMethod(ex, "POST");
+        // Only BOOKED appointments change; the UPDATEs re-check the status,
+        // so a change racing with this request shows up as 0 rows
+        switch (parts[4]) {
+            case "cancel":
+                requireBooked(existing);
+                if (!appointmentService.cancelAppointment(id)) {
+                    throw stateChangeFailed(id, "Failed to cancel appointment");
+                }
+                break;
+
+            case "complete":
+                if (!session.isDoctor()) {
+                    throw new ApiException(403, "Only doctors can complete appointments");
+                }
+                requireBooked(existing);
+                if (!appointmentService.markAppointmentCompleted(id)) {
+                    throw stateChangeFailed(id, "Failed to update status");
+                }
+                break;
+
+            case "reschedule":
+                LocalDateTime newTime = dateTimeField(readBody(ex), "appointmentDateTime", true);
+                requireFuture(newTime);
+                requireBooked(existing);
+                try {
+                    appointmentService.rescheduleAppointment(id, newTime);
+                } catch (BookingException e) {
+                    throw rejected(e, 404);
+                }
+                break;
+
+            default:
+                throw new ApiException(404, "Not found");
+        }
+
+        sendAppointment(ex, 200, appointmentService.getAppointment(id));
+    }
+
+    private void listAppointments(HttpExchange ex, SessionStore.Session session)
+            throws IOException, SQLException {
+        Map<String, String> q = queryParams(ex);
+
+        AppointmentStatus status = null;
+        if (q.get("status") != null) {
+            try {
+                status = AppointmentStatus.valueOf(q.get("status").toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new ApiException(400, "Unknown status: " + q.get("status"));
+            }
+        }
+        AppointmentFilter filter = new AppointmentFilter(
+                parseDateTime(q.get("from"), "from"), parseDateTime(q.get("to"), "to"), status);
+
+        int limit = parseLimit(q.get("limit"), DEFAULT_PAGE_SIZE);
+        PageCursor after = parseCursor(q.get("cursor"));
+
+        AppointmentPage page = session.isDoctor()
+                ? appointmentService.getAppointmentsForDoctorPage(session.ownerId, filter, after, limit)
+                : appointmentService.getAppointmentsForPatientPage(session.ownerId, filter, after, limit);
+
+        StringBuilder sb = new StringBuilder(256 + page.getItems().size() * 160);
+        sb.append("{\"items\":[");
+        for (int i = 0; i < page.getItems().size(); i++) {
+            if (i > 0) sb.append(',');
+            AppointmentExportService.appendJson(sb, page.getItems().get(i));
+        }
+        sb.append("],\"nextCursor\":");
+        PageCursor next = page.getNextCursor();
+        Json.quote(sb, next != null ? next.getDateTime() + "_" + next.getId() : null);
+        send(ex, 200, sb.append('}').toString());
+    }
+
+    private void bookAppointment(HttpExchange ex, SessionStore.Session session) throws Exception {
+        if (!session.isPatient()) {
+            throw new ApiException(403, "Only patients can book appointments");
+        }
+        Map<String, Object> body = readBody(ex);
+
+        Appointment a = new Appointment();
+        a.setPatientId(session.ownerId);
+        a.setDoctorId(intField(body, "doctorId"));
+        a.setAppointmentDateTime(dateTimeField(body, "appointmentDateTime", true));
+        a.setStatus(AppointmentStatus.BOOKED);
+        a.setNotes(stringField(body, "notes", false));
+
+        String problem = ValidationUtil.APPOINTMENT.validate(a);
+        if (problem != null) {
+            throw new ApiException(400, "Invalid appointment: " + problem);
+        }
+        requireFuture(a.getAppointmentDateTime());
+
+        try {
+            appointmentService.bookAppointment(a);
+        } catch (BookingException e) {
+            // The doctor comes from the request body, so a missing one is a bad request
+            throw rejected(e, 400);
+        }
+        sendAppointment(ex, 201, a);
+    }
+
+    /**
+     * The appointment, if it belongs to the caller; otherwise 404 so ids of
+     * other users' appointments are not revealed.
+     */
+    private Appointment requireOwned(SessionStore.Session session, int id) throws SQLException {
+        Appointment a = appointmentService.getAppointment(id);
+        boolean owned = a != null && (session.isDoctor()
+                ? a.getDoctorId() == session.ownerId
+                : a.getPatientId() == session.ownerId);
+        if (!owned) {
+            throw new ApiException(404, "Appointment " + id + " not found");
+        }
+        return a;
+    }
+
+    /**
+     * 409 for a conflict; notFoundStatus when the doctor or appointment is gone.
+     * Anything else the service throws is left to route() as a 500.
+     */
+    private static ApiException rejected(BookingException e, int notFoundStatus) {
+        int status = e.getReason() == BookingException.Reason.NOT_FOUND ? notFoundStatus : 409;
+        return new ApiException(status, e.getMessage());
+    }
+
+    private static void requireBooked(Appointment a) {
+        if (a.getStatus() != AppointmentStatus.BOOKED) {
+            throw new ApiException(409, "Appointment is " + String.valueOf(a.getStatus()).toLowerCase());
+        }
+    }
+
+    /**
+     * A status UPDATE that changed no row: 409 if the appointment stopped
+     * being BOOKED meanwhile, 500 if the service failed.
+     */
+    private ApiException stateChangeFailed(int id, String message) throws SQLException {
+        Appointment current = appointmentService.getAppointment(id);
+        if (current == null || current.getStatus() != AppointmentStatus.BOOKED) {
+            return new ApiException(409, "Appointment is no longer booked");
+        }
+        return new ApiException(500, message);
+    }
+
+    // ================================
+    // DOCTORS
+    // ================================
+
+    private void doctors(HttpExchange ex) throws Exception {
+        requireSession(ex);
+        requireMethod(ex, "GET");
+
+        // /api/doctors or /api/doctors/{id}/slots
+        String[] parts = ex.getRequestURI().getPath().split("/");
+        if (parts.length == 3) {
+            searchDoctors(ex);
+            return;
+        }
+        if (parts.length != 5 || !"slots".equals(parts[4])) {
+            throw new ApiException(404, "Not found");
+        }
+        int doctorId;
+        try {
+            doctorId = Integer.parseInt(parts[3]);
+        } catch (NumberFormatException e) {
+            throw new ApiException(404, "Not found");
+        }
+
+        Map<String, String> q = queryParams(ex);
+        LocalDateTime from = parseDateTime(q.get("from"), "from");
+        if (from == null) {
+            from = LocalDateTime.now();
+        }
+        LocalDateTime to = parseDateTime(q.get("to"), "to");
+        if (to == null) {
+            to = from.plusDays(DEFAULT_SLOT_DAYS);
+        }
+        int limit = parseLimit(q.get("limit"), DEFAULT_PAGE_SIZE);
+
+        StringBuilder sb = new StringBuilder("{\"doctorId\":").append(doctorId).append(",\"slots\":[");
+        boolean first = true;
+        for (LocalDateTime slot : appointmentService.findAvailableSlots(doctorId, from, to, limit)) {
+            if (!first) sb.append(',');
+            first = false;
+            Json.quote(sb, slot.toString());
+        }
+        send(ex, 200, sb.append("]}").toString());
+    }
+
+    private void searchDoctors(HttpExchange ex) throws IOException, SQLException {
+        Map<String, String> q = queryParams(ex);
+        int limit = parseLimit(q.get("limit"), DEFAULT_PAGE_SIZE);
+
+        List<Doctor> doctors = DoctorDirectory.getInstance().search(q.get("q"), q.get("specialization"), limit);
+
+        StringBuilder sb = new StringBuilder(32 + doctors.size() * 96).append("{\"items\":[");
+        for (int i = 0; i < doctors.size(); i++) {
+            Doctor d = doctors.get(i);
+            if (i > 0) sb.append(',');
+            sb.append("{\"id\":").append(d.getId()).append(",\"name\":");
+            Json.quote(sb, d.getName()).append(",\"specialization\":");
+            Json.quote(sb, d.getSpecialization()).append('}');
+        }
+        send(ex, 200, sb.append("]}").toString());
+    }
+
+    private static void requireFuture(LocalDateTime time) {
+        if (time.isBefore(LocalDateTime.now())) {
+            throw new ApiException(400, "Appointment cannot be booked in the past");
+        }
+    }
+
+    // ================================
+    // REQUEST / RESPONSE PLUMBING
+    // ================================
+
+    @FunctionalInterface
+    private interface Route {
+        void handle(HttpExchange ex) throws Exception;
+    }
+
+    /**
+     * Turns exceptions into JSON errors and always closes the exchange.
+     */
+    private static HttpHandler route(Route route) {
+        return ex -> {
+            try {
+                route.handle(ex);
+            } catch (ApiException e) {
+                sendError(ex, e.getStatus(), e.getMessage());
+            } catch (SQLTimeoutException e) {
+                sendError(ex, 503, "Server busy, try again");
+            } catch (SQLException e) {
+                System.err.println("API database error: " + e.getMessage());
+                sendError(ex, 500, "Database error");
+            } catch (Exception e) {
+                System.err.println("API error on " + ex.getRequestURI() + ": " + e);
+                sendError(ex, 500, "Internal error");
+            } finally {
+                ex.close();
+            }
+        };
+    }
+
+    private SessionStore.Session requireSession(HttpExchange ex) {
+        SessionStore.Session session = sessions.get(bearerToken(ex));
+        if (session == null) {
+            throw new ApiException(401, "Login required");
+        }
+        return session;
+    }
+
+    private static String bearerToken(HttpExchange ex) {
+        String header = ex.getRequestHeaders().getFirst("Authorization");
+        if (header == null || !header.regionMatches(true, 0, "Bearer ", 0, 7)) {
+            return null;
+        }
+        return header.substring(7).trim();
+    }
+
+    private static void requireMethod(HttpExchange ex, String method) {
+        if (!method.equals(ex.getRequestMethod())) {
+            throw new ApiException(405, "Method not allowed");
+        }
+    }
+
+    private static Map<String, Object> readBody(HttpExchange ex) throws IOException {
+        byte[] bytes;
+        try (InputStream in = ex.getRequestBody()) {
+            bytes = in.readNBytes(MAX_BODY_BYTES + 1);
+        }
+        if (bytes.length > MAX_BODY_BYTES) {
+            throw new ApiException(413, "Request body too large");
+        }
+        if (bytes.length == 0) {
+            throw new ApiException(400, "JSON body required");
+        }
+        return Json.parseObject(new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    private static Map<String, String> queryParams(HttpExchange ex) {
+        Map<String, String> params = new HashMap<>();
+        String query = ex.getRequestURI().getRawQuery();
+        if (query == null || query.isEmpty()) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            if (!value.isEmpty()) {
+                params.put(key, value);
+            }
+        }
+        return params;
+    }
+
+    private static String stringField(Map<String, Object> body, String name, boolean required) {
+        Object value = body.get(name);
+        if (value == null) {
+            if (required) throw new ApiException(400, name + " is required");
+            return null;
+        }
+        if (!(value instanceof String)) {
+            throw new ApiException(400, name + " must be a string");
+        }
+        return (String) value;
+    }
+
+    private static int intField(Map<String, Object> body, String name) {
+        Object value = body.get(name);
+        if (!(value instanceof Long) || (Long) value <= 0 || (Long) value > Integer.MAX_VALUE) {
+            throw new ApiException(400, name + " must be a positive integer");
+        }
+        return ((Long) value).intValue();
+    }
+
+    private static LocalDateTime dateTimeField(Map<String, Object> body, String name, boolean required) {
+        LocalDateTime value = parseDateTime(stringField(body, name, required), name);
+        if (value == null && required) {
+            throw new ApiException(400, name + " is required");
+        }
+        return value;
+    }
+
+    private static LocalDateTime parseDateTime(String text, String name) {
+        if (text == null) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(text);
+        } catch (DateTimeParseException e) {
+            throw new ApiException(400, name + " must be an ISO date-time like 2030-01-31T10:30");
+        }
+    }
+
+    private static int parseLimit(String text, int fallback) {
+        if (text == null) {
+            return fallback;
+        }
+        if (!ValidationUtil.isInteger(text) || text.length() > 6 || Integer.parseInt(text) == 0) {
+            throw new ApiException(400, "limit must be a positive number");
+        }
+        return Integer.parseInt(text);
+    }
+
+    // nextCursor format: <appointment_datetime>_<id>
+    private static PageCursor parseCursor(String text) {
+        if (text == null) {
+            return null;
+        }
+        int sep = text.lastIndexOf('_');
+        if (sep < 0 || !ValidationUtil.isInteger(text.substring(sep + 1)) || text.length() - sep > 10) {
+            throw new ApiException(400, "Invalid cursor");
+        }
+        return new PageCursor(parseDateTime(text.substring(0, sep), "cursor"),
+                Integer.parseInt(text.substring(sep + 1)));
+    }
+
+    private static void sendAppointment(HttpExchange ex, int status, Appointment a) throws IOException {
+        StringBuilder sb = new StringBuilder(192);
+        AppointmentExportService.appendJson(sb, a);
+        send(ex, status, sb.toString());
+    }
+
+    private static void sendError(HttpExchange ex, int status, String message) {
+        try {
+            send(ex, status, Json.quote(new StringBuilder("{\"error\":"), message).append('}').toString());
+        } catch (IOException ignored) {
+            // Client went away
+        }
+    }
+
+    private static void send(HttpExchange ex, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        ex.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = ex.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
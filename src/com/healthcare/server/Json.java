@@ -0,0 +1,179 @@
+package com.healthcare.server;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Just enough JSON for the API, without a library.
+ *
+ * Requests are flat objects: string, number, boolean and null values
+ * (nested objects and arrays are rejected). Responses are built with
+ * StringBuilder and quote().
+ */
+final class Json {
+
+    // Prevent instantiation
+    private Json() { }
+
+    /**
+     * Parses a flat JSON object. Numbers come back as Long or Double.
+     *
+     * @throws ApiException 400 on malformed input
+     */
+    static Map<String, Object> parseObject(String text) {
+        Parser p = new Parser(text);
+        Map<String, Object> result = p.object();
+        p.skipWhitespace();
+        if (p.pos != text.length()) {
+            throw p.error("unexpected trailing characters");
+        }
+        return result;
+    }
+
+    /**
+     * Appends value as a JSON string literal, or null.
+     */
+    static StringBuilder quote(StringBuilder sb, String value) {
+        if (value == null) {
+            return sb.append("null");
+        }
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':  sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        return sb.append('"');
+    }
+
+    private static final class Parser {
+
+        private final String s;
+        private int pos;
+
+        Parser(String s) {
+            this.s = s;
+        }
+
+        Map<String, Object> object() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            expect('{');
+            skipWhitespace();
+            if (peek() == '}') {
+                pos++;
+                return map;
+            }
+            while (true) {
+                skipWhitespace();
+                String key = string();
+                skipWhitespace();
+                expect(':');
+                skipWhitespace();
+                map.put(key, value());
+                skipWhitespace();
+                char c = next();
+                if (c == '}') return map;
+                if (c != ',') throw error("expected ',' or '}'");
+            }
+        }
+
+        private Object value() {
+            char c = peek();
+            if (c == '"') return string();
+            if (c == '-' || (c >= '0' && c <= '9')) return number();
+            if (s.startsWith("true", pos)) { pos += 4; return Boolean.TRUE; }
+            if (s.startsWith("false", pos)) { pos += 5; return Boolean.FALSE; }
+            if (s.startsWith("null", pos)) { pos += 4; return null; }
+            throw error("unsupported value");
+        }
+
+        private String string() {
+            expect('"');
+            StringBuilder sb = new StringBuilder();
+            while (true) {
+                char c = next();
+                if (c == '"') return sb.toString();
+                if (c != '\\') {
+                    sb.append(c);
+                    continue;
+                }
+                char e = next();
+                switch (e) {
+                    case '"':  sb.append('"'); break;
+                    case '\\': sb.append('\\'); break;
+                    case '/':  sb.append('/'); break;
+                    case 'b':  sb.append('\b'); break;
+                    case 'f':  sb.append('\f'); break;
+                    case 'n':  sb.append('\n'); break;
+                    case 'r':  sb.append('\r'); break;
+                    case 't':  sb.append('\t'); break;
+                    case 'u':
+                        if (pos + 4 > s.length()) throw error("bad \\u escape");
+                        try {
+                            sb.append((char) Integer.parseInt(s.substring(pos, pos + 4), 16));
+                        } catch (NumberFormatException ex) {
+                            throw error("bad \\u escape");
+                        }
+                        pos += 4;
+                        break;
+                    default:
+                        throw error("bad escape");
+                }
+            }
+        }
+
+        private Object number() {
+            int start = pos;
+            boolean decimal = false;
+            while (pos < s.length()) {
+                char c = s.charAt(pos);
+                if (c == '.' || c == 'e' || c == 'E') {
+                    decimal = true;
+                } else if (!(c == '-' || c == '+' || (c >= '0' && c <= '9'))) {
+                    break;
+                }
+                pos++;
+            }
+            String text = s.substring(start, pos);
+            try {
+                return decimal ? (Object) Double.parseDouble(text) : (Object) Long.parseLong(text);
+            } catch (NumberFormatException e) {
+                throw error("bad number");
+            }
+        }
+
+        void skipWhitespace() {
+            while (pos < s.length() && Character.isWhitespace(s.charAt(pos))) pos++;
+        }
+
+        private char peek() {
+            if (pos >= s.length()) throw error("unexpected end of input");
+            return s.charAt(pos);
+        }
+
+        private char next() {
+            char c = peek();
+            pos++;
+            return c;
+        }
+
+        private void expect(char c) {
+            if (next() != c) throw error("expected '" + c + "'");
+        }
+
+        ApiException error(String message) {
+            return new ApiException(400, "Malformed JSON at " + pos + ": " + message);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.healthcare.server;
+
+import com.healthcare.models.User;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bearer tokens handed out by /api/login, kept in memory.
+ *
+ * A token stays valid while it is used at least once per ttl; expired
+ * tokens are dropped when looked up, and swept at most once a minute
+ * when someone logs in.
+ */
+final class SessionStore {
+
+    /**
+     * The logged-in user behind a token.
+     * ownerId is what appointments reference: patients.id or doctors.id.
+     */
+    static final class Session {
+
+        final String username;
+        final String role;
+        final int ownerId;
+        volatile long lastUsed;
+
+        Session(User user, int ownerId, long now) {
+            this.username = user.getUsername();
+            this.role = user.getRole();
+            this.ownerId = ownerId;
+            this.lastUsed = now;
+        }
+
+        boolean isPatient() {
+            return "PATIENT".equals(role);
+        }
+
+        boolean isDoctor() {
+            return "DOCTOR".equals(role);
+        }
+    }
+
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final SecureRandom random = new SecureRandom();
+    private final AtomicLong nextSweep = new AtomicLong();
+    private final long ttlMs;
+
+    SessionStore(long ttlMs) {
+        this.ttlMs = ttlMs;
+    }
+
+    String create(User user, int ownerId) {
+        long now = System.currentTimeMillis();
+        long sweepAt = nextSweep.get();
+        if (now >= sweepAt && nextSweep.compareAndSet(sweepAt, now + 60_000L)) {
+            sessions.values().removeIf(s -> now - s.lastUsed > ttlMs);
+        }
+
+        byte[] bytes = new byte[24];
+        random.nextBytes(bytes);
+        String token = HexFormat.of().formatHex(bytes);
+
+        sessions.put(token, new Session(user, ownerId, now));
+        return token;
+    }
+
+    /**
+     * @return the live session for the token, or null
+     */
+    Session get(String token) {
+        if (token == null) {
+            return null;
+        }
+        Session session = sessions.get(token);
+        if (session == null) {
+            return null;
+        }
+
+        long now = System.currentTimeMillis();
+        if (now - session.lastUsed > ttlMs) {
+            sessions.remove(token, session);
+            return null;
+        }
+        session.lastUsed = now;
+        return session;
+    }
+
+    void remove(String token) {
+        if (token != null) {
+            sessions.remove(token);
+        }
+    }
+
+    int size() {
+        return sessions.size();
+    }
+}
@@ -0,0 +1,330 @@
+package com.healthcare.service;
+
+import com.healthcare.dao.AppointmentDAO;
+import com.healthcare.models.Appointment;
+import com.healthcare.models.AppointmentStatus;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.IntConsumer;
+
+/**
+ * Read-only, column-oriented copy of appointments for reporting.
+ *
+ * One primitive array per column instead of one Appointment object per row:
+ * - id, patient_id, doctor_id: int[]
+ * - appointment_datetime: long[] minutes since 1970-01-01T00:00 (no zone)
+ * - status: byte[] AppointmentStatus ordinals
+ * - notes: side table holding only the rows that have notes
+ *
+ * About 21 bytes per row, against a few hundred for Appointment objects,
+ * and scans walk plain arrays. Built with load() (a streaming read, so the
+ * table is never held as objects) or with a Builder.
+ *
+ * Immutable once built, so it can be shared between threads.
+ */
+public final class AppointmentColumnStore {
+
+    // Datetime column value for rows without a date
+    private static final long NO_TIME = Long.MIN_VALUE;
+
+    // Status column value for rows without a status
+    private static final byte NO_STATUS = -1;
+
+    private static final AppointmentStatus[] STATUSES = AppointmentStatus.values();
+
+    private final int size;
+    private final int[] ids;
+    private final int[] patientIds;
+    private final int[] doctorIds;
+    private final long[] minutes;
+    private final byte[] statuses;
+    private final int maxDoctorId;
+    private final Map<Integer, String> notesByRow;
+
+    private AppointmentColumnStore(Builder b) {
+        this.size = b.size;
+        this.ids = Arrays.copyOf(b.ids, b.size);
+        this.patientIds = Arrays.copyOf(b.patientIds, b.size);
+        this.doctorIds = Arrays.copyOf(b.doctorIds, b.size);
+        this.minutes = Arrays.copyOf(b.minutes, b.size);
+        this.statuses = Arrays.copyOf(b.statuses, b.size);
+        this.maxDoctorId = b.maxDoctorId;
+        this.notesByRow = new HashMap<>(b.notesByRow);
+    }
+
+    // ================================
+    // LOADING
+    // ================================
+
+    /**
+     * Loads every appointment through AppointmentDAO's streaming read.
+     */
+    public static AppointmentColumnStore load() throws SQLException {
+        return load(null, null);
+    }
+
+    /**
+     * Loads appointments with from <= appointment_datetime < to
+     * (either bound may be null). The range is applied by the query
+     * (idx_appointments_time), so other rows are never read.
+     */
+    public static AppointmentColumnStore load(LocalDateTime from, LocalDateTime to) throws SQLException {
+        Builder builder = new Builder();
+        new AppointmentDAO().forEachAppointment(from, to, builder::add);
+        return builder.build();
+    }
+
+    // ================================
+    // ROW ACCESS
+    // ================================
+
+    public int size() {
+        return size;
+    }
+
+    public int getId(int row) {
+        return ids[row];
+    }
+
+    public int getPatientId(int row) {
+        return patientIds[row];
+    }
+
+    public int getDoctorId(int row) {
+        return doctorIds[row];
+    }
+
+    public LocalDateTime getDateTime(int row) {
+        return minutes[row] == NO_TIME ? null : fromMinutes(minutes[row]);
+    }
+
+    public AppointmentStatus getStatus(int row) {
+        return statuses[row] == NO_STATUS ? null : STATUSES[statuses[row]];
+    }
+
+    public String getNotes(int row) {
+        return notesByRow.get(row);
+    }
+
+    /**
+     * Materializes one row, e.g. to show it in the UI.
+     */
+    public Appointment toAppointment(int row) {
+        return new Appointment(ids[row], patientIds[row], doctorIds[row],
+                getDateTime(row), getStatus(row), getNotes(row));
+    }
+
+    /**
+     * Approximate heap used by the columns (notes excluded).
+     */
+    public long estimatedBytes() {
+        return (long) size * (4 + 4 + 4 + 8 + 1);
+    }
+
+    public Query query() {
+        return new Query();
+    }
+
+    @Override
+    public String toString() {
+        return "AppointmentColumnStore{rows=" + size + ", ~" + estimatedBytes() / 1024 + " KB, notes="
+                + notesByRow.size() + '}';
+    }
+
+    private static long toMinutes(LocalDateTime t) {
+        return t.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+
+    private static LocalDateTime fromMinutes(long m) {
+        return LocalDateTime.ofEpochSecond(m * 60, 0, ZoneOffset.UTC);
+    }
+
+    // ================================
+    // FILTERED SCANS / AGGREGATIONS
+    // ================================
+
+    /**
+     * Filter over the columns; every terminal operation is one pass over
+     * the arrays. Not thread-safe; create one per use.
+     *
+     *   store.query().doctor(7).status(AppointmentStatus.BOOKED).between(from, to).hourlyHistogram();
+     */
+    public final class Query {
+
+        private int doctorId = -1;
+        private int patientId = -1;
+        private boolean statusFilter;
+        private byte statusCode;
+        private long fromMinute = Long.MIN_VALUE;   // inclusive
+        private long toMinute = Long.MAX_VALUE;     // exclusive
+
+        private Query() { }
+
+        public Query doctor(int doctorId) {
+            this.doctorId = doctorId;
+            return this;
+        }
+
+        public Query patient(int patientId) {
+            this.patientId = patientId;
+            return this;
+        }
+
+        public Query status(AppointmentStatus status) {
+            statusFilter = true;
+            statusCode = status != null ? (byte) status.ordinal() : NO_STATUS;
+            return this;
+        }
+
+        /**
+         * from inclusive, to exclusive; either may be null. Rows without a
+         * date never match a time range.
+         */
+        public Query between(LocalDateTime from, LocalDateTime to) {
+            fromMinute = from != null ? toMinutes(from) : NO_TIME + 1;
+            toMinute = to != null ? toMinutes(to) : Long.MAX_VALUE;
+            return this;
+        }
+
+        private boolean matches(int row) {
+            if (doctorId >= 0 && doctorIds[row] != doctorId) return false;
+            if (patientId >= 0 && patientIds[row] != patientId) return false;
+            if (statusFilter && statuses[row] != statusCode) return false;
+            long m = minutes[row];
+            return m >= fromMinute && m < toMinute;
+        }
+
+        public int count() {
+            int n = 0;
+            for (int row = 0; row < size; row++) {
+                if (matches(row)) n++;
+            }
+            return n;
+        }
+
+        /**
+         * Calls the consumer with the row index of every match, in load order.
+         */
+        public void forEachRow(IntConsumer rowConsumer) {
+            for (int row = 0; row < size; row++) {
+                if (matches(row)) rowConsumer.accept(row);
+            }
+        }
+
+        public int[] ids() {
+            int[] out = new int[size];
+            int n = 0;
+            for (int row = 0; row < size; row++) {
+                if (matches(row)) out[n++] = ids[row];
+            }
+            return Arrays.copyOf(out, n);
+        }
+
+        /**
+         * Matching appointments per doctor, ordered by doctor id.
+         */
+        public Map<Integer, Integer> countByDoctor() {
+            // Doctor ids are dense and small: count into an array, box once per doctor
+            int[] perDoctor = new int[maxDoctorId + 1];
+            for (int row = 0; row < size; row++) {
+                if (matches(row)) perDoctor[doctorIds[row]]++;
+            }
+
+            Map<Integer, Integer> counts = new TreeMap<>();
+            for (int id = 0; id < perDoctor.length; id++) {
+                if (perDoctor[id] > 0) counts.put(id, perDoctor[id]);
+            }
+            return counts;
+        }
+
+        /**
+         * Matching appointments per status; rows without status are left out.
+         */
+        public Map<AppointmentStatus, Integer> countByStatus() {
+            int[] perCode = new int[STATUSES.length];
+            for (int row = 0; row < size; row++) {
+                if (matches(row) && statuses[row] != NO_STATUS) perCode[statuses[row]]++;
+            }
+
+            Map<AppointmentStatus, Integer> counts = new EnumMap<>(AppointmentStatus.class);
+            for (int code = 0; code < perCode.length; code++) {
+                if (perCode[code] > 0) counts.put(STATUSES[code], perCode[code]);
+            }
+            return counts;
+        }
+
+        /**
+         * Matching appointments by hour of day: result[h] is the count for h:00-h:59.
+         */
+        public int[] hourlyHistogram() {
+            int[] hours = new int[24];
+            for (int row = 0; row < size; row++) {
+                if (matches(row) && minutes[row] != NO_TIME) {
+                    hours[(int) Math.floorMod(minutes[row] / 60, 24L)]++;
+                }
+            }
+            return hours;
+        }
+    }
+
+    // ================================
+    // BUILDER
+    // ================================
+
+    /**
+     * Appends rows into growing arrays; build() trims them to size.
+     */
+    public static final class Builder {
+
+        private int size;
+        private int maxDoctorId;
+        private int[] ids = new int[1024];
+        private int[] patientIds = new int[1024];
+        private int[] doctorIds = new int[1024];
+        private long[] minutes = new long[1024];
+        private byte[] statuses = new byte[1024];
+
+        private final Map<Integer, String> notesByRow = new HashMap<>();
+
+        public Builder add(Appointment a) {
+            if (a.getDoctorId() < 0) {
+                throw new IllegalArgumentException("Negative doctor id: " + a.getDoctorId());
+            }
+            if (size == ids.length) {
+                grow();
+            }
+
+            ids[size] = a.getId();
+            patientIds[size] = a.getPatientId();
+            doctorIds[size] = a.getDoctorId();
+            maxDoctorId = Math.max(maxDoctorId, a.getDoctorId());
+            minutes[size] = a.getAppointmentDateTime() != null
+                    ? toMinutes(a.getAppointmentDateTime()) : NO_TIME;
+            statuses[size] = a.getStatus() != null ? (byte) a.getStatus().ordinal() : NO_STATUS;
+            if (a.getNotes() != null) {
+                notesByRow.put(size, a.getNotes());
+            }
+            size++;
+            return this;
+        }
+
+        public AppointmentColumnStore build() {
+            return new AppointmentColumnStore(this);
+        }
+
+        private void grow() {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            patientIds = Arrays.copyOf(patientIds, capacity);
+            doctorIds = Arrays.copyOf(doctorIds, capacity);
+            minutes = Arrays.copyOf(minutes, capacity);
+            statuses = Arrays.copyOf(statuses, capacity);
+        }
+    }
+}
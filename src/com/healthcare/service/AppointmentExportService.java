@@ -0,0 +1,221 @@
+package com.healthcare.service;
+
+import com.healthcare.dao.AppointmentDAO;
+import com.healthcare.models.Appointment;
+import com.healthcare.models.AppointmentStatus;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Exports the whole appointments table for nightly reporting.
+ *
+ * Rows come from AppointmentDAO.streamAllAppointments() and are encoded
+ * straight into a reusable direct buffer that is flushed to an NIO
+ * channel, so memory use stays constant regardless of table size.
+ */
+public class AppointmentExportService {
+
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final DateTimeFormatter DATE_TIME_FORMAT =
+            DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    /**
+     * Writes all appointments to a file (created or truncated).
+     *
+     * @return number of appointments written
+     */
+    public long export(Format format, Path target) throws IOException, SQLException {
+        try (FileChannel channel = FileChannel.open(target,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            return export(format, channel);
+        }
+    }
+
+    /**
+     * Writes all appointments to an open channel. The channel is not closed.
+     *
+     * @return number of appointments written
+     */
+    public long export(Format format, WritableByteChannel channel) throws IOException, SQLException {
+        ChannelWriter out = new ChannelWriter(channel);
+        StringBuilder line = new StringBuilder(256);
+        long count = 0;
+
+        if (format == Format.CSV) {
+            out.write("id,patient_id,doctor_id,appointment_datetime,status,notes\n");
+        }
+
+        AppointmentDAO dao = new AppointmentDAO();
+        try (Stream<Appointment> rows = dao.streamAllAppointments()) {
+            Iterator<Appointment> it = rows.iterator();
+            while (it.hasNext()) {
+                Appointment a = it.next();
+                line.setLength(0);
+                if (format == Format.CSV) {
+                    appendCsv(line, a);
+                } else {
+                    appendJson(line, a);
+                    line.append('\n');
+                }
+                out.write(line);
+                count++;
+            }
+        } catch (IllegalStateException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            throw e;
+        }
+
+        out.flush();
+        return count;
+    }
+
+    // ---------------------- Row encoders ----------------------
+
+    private static void appendCsv(StringBuilder sb, Appointment a) {
+        sb.append(a.getId()).append(',')
+          .append(a.getPatientId()).append(',')
+          .append(a.getDoctorId()).append(',');
+        if (a.getAppointmentDateTime() != null) {
+            DATE_TIME_FORMAT.formatTo(a.getAppointmentDateTime(), sb);
+        }
+        sb.append(',');
+        appendCsvField(sb, AppointmentStatus.toDb(a.getStatus()));
+        sb.append(',');
+        appendCsvField(sb, a.getNotes());
+        sb.append('\n');
+    }
+
+    private static void appendCsvField(StringBuilder sb, String value) {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            sb.append(value);
+            return;
+        }
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') sb.append('"');
+            sb.append(c);
+        }
+        sb.append('"');
+    }
+
+    /**
+     * One appointment as a JSON object: the NDJSON row format, also used
+     * by the HTTP API so both speak the same shape.
+     */
+    public static void appendJson(StringBuilder sb, Appointment a) {
+        sb.append("{\"id\":").append(a.getId())
+          .append(",\"patientId\":").append(a.getPatientId())
+          .append(",\"doctorId\":").append(a.getDoctorId())
+          .append(",\"appointmentDateTime\":");
+        if (a.getAppointmentDateTime() != null) {
+            sb.append('"');
+            DATE_TIME_FORMAT.formatTo(a.getAppointmentDateTime(), sb);
+            sb.append('"');
+        } else {
+            sb.append("null");
+        }
+        sb.append(",\"status\":");
+        appendJsonString(sb, AppointmentStatus.toDb(a.getStatus()));
+        sb.append(",\"notes\":");
+        appendJsonString(sb, a.getNotes());
+        sb.append('}');
+    }
+
+    private static void appendJsonString(StringBuilder sb, String value) {
+        if (value == null) {
+            sb.append("null");
+            return;
+        }
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':  sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+    }
+
+    /**
+     * UTF-8 encodes text into one reusable direct buffer and drains it
+     * to the channel whenever it fills up.
+     */
+    private static final class ChannelWriter {
+
+        private final WritableByteChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+
+        ChannelWriter(WritableByteChannel channel) {
+            this.channel = channel;
+        }
+
+        void write(CharSequence text) throws IOException {
+            CharBuffer chars = CharBuffer.wrap(text);
+            while (true) {
+                CoderResult result = encoder.encode(chars, buffer, true);
+                if (result.isOverflow()) {
+                    drain();
+                } else if (result.isUnderflow()) {
+                    break;
+                } else {
+                    result.throwException();
+                }
+            }
+            encoder.reset();
+        }
+
+        void flush() throws IOException {
+            drain();
+        }
+
+        private void drain() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
@@ -1,27 +1,124 @@
 package com.healthcare.service;
 
 import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransactionRollbackException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
 
 import com.healthcare.dao.AppointmentDAO;
+import com.healthcare.dao.AvailabilityIndex;
 import com.healthcare.dao.DBConnection;
+import com.healthcare.metrics.Metrics;
+import com.healthcare.metrics.OperationMetrics;
 import com.healthcare.models.Appointment;
+import com.healthcare.models.AppointmentDelta;
+import com.healthcare.models.AppointmentFilter;
+import com.healthcare.models.AppointmentPage;
+import com.healthcare.models.AppointmentStatus;
+import com.healthcare.models.PageCursor;
+import com.healthcare.utils.DBConfig;
+import com.healthcare.utils.ValidationUtil;
 
 /**
  * Service layer for Appointment-related operations.
  * Handles business logic and transaction management.
+ *
+ * Writes run on the primary; the appointment list reads may be served by
+ * read replicas, except for a patient's / doctor's own reads right after
+ * their appointments changed (recordWrite, see DBConnection).
  */
 public class AppointmentService {
 
+    // Shared by all service instances: bookings serialize per doctor only
+    private static final DoctorLocks DOCTOR_LOCKS = new DoctorLocks();
+
+    private static final BookingMode BOOKING_MODE = BookingMode.fromConfig(DBConfig.BOOKING_MODE);
+
+    // Two conditional inserts into the same gap can deadlock; the loser retries
+    private static final int MAX_CONDITIONAL_INSERT_ATTEMPTS = 3;
+
+    // Per-method latency / errors (see Metrics); rows are counted by the DAOs.
+    // A slot that is already taken is a rejection, not an error.
+    private static final OperationMetrics BOOK = op("bookAppointment");
+    private static final OperationMetrics COMPLETE = op("markAppointmentCompleted");
+    private static final OperationMetrics CANCEL = op("cancelAppointment");
+    private static final OperationMetrics FOR_PATIENT = op("getAppointmentsForPatient");
+    private static final OperationMetrics FOR_DOCTOR = op("getAppointmentsForDoctor");
+    private static final OperationMetrics PAGE_FOR_PATIENT = op("getAppointmentsForPatientPage");
+    private static final OperationMetrics PAGE_FOR_DOCTOR = op("getAppointmentsForDoctorPage");
+    private static final OperationMetrics COUNT_FOR_PATIENT = op("countAppointmentsForPatient");
+    private static final OperationMetrics COUNT_FOR_DOCTOR = op("countAppointmentsForDoctor");
+    private static final OperationMetrics CURSOR_FOR_PATIENT = op("getPatientCursorAtRow");
+    private static final OperationMetrics CURSOR_FOR_DOCTOR = op("getDoctorCursorAtRow");
+    private static final OperationMetrics CHANGES_FOR_PATIENT = op("getAppointmentChangesForPatient");
+    private static final OperationMetrics CHANGES_FOR_DOCTOR = op("getAppointmentChangesForDoctor");
+    private static final OperationMetrics RESCHEDULE = op("rescheduleAppointment");
+    private static final OperationMetrics BOOK_BATCH = op("bookAppointments");
+    private static final OperationMetrics GET = op("getAppointment");
+    private static final OperationMetrics FREE_SLOTS = op("findAvailableSlots");
+
+    private static OperationMetrics op(String method) {
+        return Metrics.operation("AppointmentService." + method);
+    }
+
     // ================================
     // 1️⃣ BOOK APPOINTMENT (ENHANCEMENT 1)
     // ================================
+
     public void bookAppointment(Appointment appointment) throws Exception {
+        bookAppointment(appointment, BOOKING_MODE);
+    }
 
-        // ---- Business logic ----
-        if (appointment.getStatus() == null || appointment.getStatus().isBlank()) {
-            appointment.setStatus("BOOKED");
+    /**
+     * LOCKED: check-then-insert is race free:
+     * - the doctor's lock stripe serializes bookings inside this JVM
+     *   (taken before a connection is borrowed, so waiters hold no connection)
+     * - a FOR UPDATE lock on the doctor row serializes them across JVMs,
+     *   and the clash check under it goes to the DB, not the in-process
+     *   AvailabilityIndex (which may not have seen other JVMs' bookings)
+     * Bookings for different doctors never wait on each other.
+     *
+     * CONDITIONAL_INSERT: one INSERT ... WHERE NOT EXISTS statement.
+     */
+    public void bookAppointment(Appointment appointment, BookingMode mode) throws Exception {
+
+        OperationMetrics.Call call = BOOK.start();
+        try {
+            // ---- Business logic ----
+            if (appointment.getStatus() == null) {
+                appointment.setStatus(AppointmentStatus.BOOKED);
+            }
+
+            if (mode == BookingMode.CONDITIONAL_INSERT) {
+                bookWithConditionalInsert(appointment);
+                return;
+            }
+
+            ReentrantLock doctorLock = DOCTOR_LOCKS.forDoctor(appointment.getDoctorId());
+            doctorLock.lockInterruptibly();
+            try {
+                bookWhileHoldingDoctorLock(appointment);
+            } finally {
+                doctorLock.unlock();
+            }
+        } catch (SQLException e) {
+            BOOK.error();
+            throw e;
+        } finally {
+            call.close();
         }
+    }
+
+    private void bookWhileHoldingDoctorLock(Appointment appointment) throws Exception {
 
         Connection con = null;
 
@@ -31,15 +128,25 @@ public class AppointmentService {
 
             AppointmentDAO dao = new AppointmentDAO();
 
+            if (!dao.lockDoctor(con, appointment.getDoctorId())) {
+                throw new BookingException(BookingException.Reason.NOT_FOUND,
+                        "Doctor " + appointment.getDoctorId() + " does not exist.");
+            }
+
             // ✅ Check doctor availability (prevent double booking)
-            boolean available = dao.isDoctorAvailable(
+            // Asked of the DB, not the AvailabilityIndex: under the row lock it
+            // also sees bookings committed by other app instances
+            boolean available = dao.isDoctorAvailableInDb(
                     con,
                     appointment.getDoctorId(),
-                    appointment.getAppointmentDateTime()
+                    appointment.getAppointmentDateTime(),
+                    0
             );
 
             if (!available) {
-                throw new Exception("Doctor is already booked at the selected time.");
+                AvailabilityIndex.getInstance().invalidate(appointment.getDoctorId());
+                throw new BookingException(BookingException.Reason.CONFLICT,
+                        "Doctor is already booked at the selected time.");
             }
 
             // Insert appointment
@@ -47,6 +154,13 @@ public class AppointmentService {
 
             con.commit(); // COMMIT
 
+            AvailabilityIndex.getInstance().onBooked(
+                    appointment.getId(),
+                    appointment.getDoctorId(),
+                    appointment.getAppointmentDateTime()
+            );
+            recordWrite(appointment);
+
         } catch (Exception e) {
             if (con != null) {
                 con.rollback(); // ROLLBACK
@@ -59,6 +173,62 @@ public class AppointmentService {
         }
     }
 
+    private void bookWithConditionalInsert(Appointment appointment) throws Exception {
+
+        AppointmentDAO dao = new AppointmentDAO();
+
+        try (Connection con = DBConnection.getConnection()) {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    if (dao.insertAppointmentIfAvailable(con, appointment)) {
+                        AvailabilityIndex.getInstance().onBooked(
+                                appointment.getId(),
+                                appointment.getDoctorId(),
+                                appointment.getAppointmentDateTime()
+                        );
+                        recordWrite(appointment);
+                        return;
+                    }
+                    break; // 0 rows inserted -> slot taken
+
+                } catch (SQLException e) {
+                    if (!isDeadlock(e) || attempt >= MAX_CONDITIONAL_INSERT_ATTEMPTS) {
+                        throw e;
+                    }
+                }
+            }
+        }
+
+        // The DB saw a clash, so a cached copy of this doctor may be stale
+        AvailabilityIndex.getInstance().invalidate(appointment.getDoctorId());
+        throw new BookingException(BookingException.Reason.CONFLICT,
+                "Doctor is already booked at the selected time.");
+    }
+
+    private static boolean isDeadlock(SQLException e) {
+        return e instanceof SQLTransactionRollbackException || "40001".equals(e.getSQLState());
+    }
+
+    /**
+     * Keeps the patient's and doctor's list reads on the primary for the
+     * read-your-writes window, so they see this change before the read
+     * replicas do. No-op without replicas.
+     */
+    private static void recordWrite(Appointment a) {
+        DBConnection.recordPatientWrite(a.getPatientId());
+        DBConnection.recordDoctorWrite(a.getDoctorId());
+    }
+
+    /**
+     * The appointment's current row, read before an update by id so the
+     * doctor and patient are known afterwards (availability index,
+     * recordWrite). Null if there is no such appointment.
+     */
+    private static Appointment ownersOf(AppointmentDAO dao, Connection con, int appointmentId)
+            throws SQLException {
+        return dao.findById(con, appointmentId);
+    }
+
     // ================================
     // 2️⃣ MARK APPOINTMENT AS COMPLETED
     // ================================
@@ -66,17 +236,25 @@ public class AppointmentService {
 
         Connection con = null;
 
+        OperationMetrics.Call call = COMPLETE.start();
         try {
             con = DBConnection.getConnection();
             con.setAutoCommit(false);
 
             AppointmentDAO dao = new AppointmentDAO();
-            boolean ok = dao.updateStatus(con, appointmentId, "COMPLETED");
+            Appointment owners = ownersOf(dao, con, appointmentId);
+            boolean ok = dao.updateStatus(con, appointmentId, AppointmentStatus.COMPLETED);
 
             con.commit();
+
+            if (ok) {
+                AvailabilityIndex.getInstance().onReleased(appointmentId, owners.getDoctorId());
+                recordWrite(owners);
+            }
             return ok;
 
         } catch (Exception e) {
+            COMPLETE.error();
             try {
                 if (con != null) con.rollback();
             } catch (Exception ex) {
@@ -90,6 +268,7 @@ public class AppointmentService {
             } catch (Exception e) {
                 e.printStackTrace();
             }
+            call.close();
         }
     }
 
@@ -100,17 +279,25 @@ public class AppointmentService {
 
         Connection con = null;
 
+        OperationMetrics.Call call = CANCEL.start();
         try {
             con = DBConnection.getConnection();
             con.setAutoCommit(false); // START TRANSACTION
 
             AppointmentDAO dao = new AppointmentDAO();
+            Appointment owners = ownersOf(dao, con, appointmentId);
             boolean result = dao.cancelAppointment(con, appointmentId);
 
             con.commit(); // COMMIT
+
+            if (result) {
+                AvailabilityIndex.getInstance().onReleased(appointmentId, owners.getDoctorId());
+                recordWrite(owners);
+            }
             return result;
 
         } catch (Exception e) {
+            CANCEL.error();
             try {
                 if (con != null) con.rollback(); // ROLLBACK
             } catch (Exception ex) {
@@ -124,6 +311,7 @@ public class AppointmentService {
             } catch (Exception e) {
                 e.printStackTrace();
             }
+            call.close();
         }
     }
 
@@ -131,15 +319,532 @@ public class AppointmentService {
     // 4️⃣ FETCH PATIENT APPOINTMENTS (READ)
     // ================================
     public List<Appointment> getAppointmentsForPatient(int patientId) {
-        AppointmentDAO dao = new AppointmentDAO();
-        return dao.getAppointmentsForPatient(patientId);
+        OperationMetrics.Call call = FOR_PATIENT.start();
+        try {
+            AppointmentDAO dao = new AppointmentDAO();
+            return dao.getAppointmentsForPatient(patientId);
+        } finally {
+            call.close();
+        }
     }
 
     // ================================
     // 5️⃣ FETCH DOCTOR APPOINTMENTS (READ)
     // ================================
     public List<Appointment> getAppointmentsForDoctor(int doctorId) {
+        OperationMetrics.Call call = FOR_DOCTOR.start();
+        try {
+            AppointmentDAO dao = new AppointmentDAO();
+            return dao.getAppointmentsForDoctor(doctorId);
+        } finally {
+            call.close();
+        }
+    }
+
+    // ================================
+    // 4️⃣b / 5️⃣b PAGINATED READS
+    // ================================
+
+    // Upper bound so a client cannot ask for the whole history in one page
+    public static final int MAX_PAGE_SIZE = 500;
+
+    public AppointmentPage getAppointmentsForPatientPage(int patientId, AppointmentFilter filter,
+                                                         PageCursor after, int pageSize)
+            throws SQLException {
+        OperationMetrics.Call call = PAGE_FOR_PATIENT.start();
+        try {
+            AppointmentDAO dao = new AppointmentDAO();
+            return dao.getAppointmentsForPatientPage(patientId, filter, after, clampPageSize(pageSize));
+        } catch (SQLException e) {
+            PAGE_FOR_PATIENT.error();
+            throw e;
+        } finally {
+            call.close();
+        }
+    }
+
+    public AppointmentPage getAppointmentsForDoctorPage(int doctorId, AppointmentFilter filter,
+                                                        PageCursor after, int pageSize)
+            throws SQLException {
+        OperationMetrics.Call call = PAGE_FOR_DOCTOR.start();
+        try {
+            AppointmentDAO dao = new AppointmentDAO();
+            return dao.getAppointmentsForDoctorPage(doctorId, filter, after, clampPageSize(pageSize));
+        } catch (SQLException e) {
+            PAGE_FOR_DOCTOR.error();
+            throw e;
+        } finally {
+            call.close();
+        }
+    }
+
+    public int countAppointmentsForPatient(int patientId, AppointmentFilter filter)
+            throws SQLException {
+        OperationMetrics.Call call = COUNT_FOR_PATIENT.start();
+        try {
+            return new AppointmentDAO().countAppointmentsForPatient(patientId, filter);
+        } catch (SQLException e) {
+            COUNT_FOR_PATIENT.error();
+            throw e;
+        } finally {
+            call.close();
+        }
+    }
+
+    public int countAppointmentsForDoctor(int doctorId, AppointmentFilter filter)
+            throws SQLException {
+        OperationMetrics.Call call = COUNT_FOR_DOCTOR.start();
+        try {
+            return new AppointmentDAO().countAppointmentsForDoctor(doctorId, filter);
+        } catch (SQLException e) {
+            COUNT_FOR_DOCTOR.error();
+            throw e;
+        } finally {
+            call.close();
+        }
+    }
+
+    /**
+     * Cursor to pass to getAppointmentsFor*Page so the page starts at row
+     * rowIndex + 1 (used for random access when scrolling far ahead).
+     */
+    public PageCursor getPatientCursorAtRow(int patientId, AppointmentFilter filter, int rowIndex)
+            throws SQLException {
+        OperationMetrics.Call call = CURSOR_FOR_PATIENT.start();
+        try {
+            return new AppointmentDAO().findPatientCursorAtRow(patientId, filter, rowIndex);
+        } catch (SQLException e) {
+            CURSOR_FOR_PATIENT.error();
+            throw e;
+        } finally {
+            call.close();
+        }
+    }
+
+    public PageCursor getDoctorCursorAtRow(int doctorId, AppointmentFilter filter, int rowIndex)
+            throws SQLException {
+        OperationMetrics.Call call = CURSOR_FOR_DOCTOR.start();
+        try {
+            return new AppointmentDAO().findDoctorCursorAtRow(doctorId, filter, rowIndex);
+        } catch (SQLException e) {
+            CURSOR_FOR_DOCTOR.error();
+            throw e;
+        } finally {
+            call.close();
+        }
+    }
+
+    private static int clampPageSize(int pageSize) {
+        return Math.max(1, Math.min(MAX_PAGE_SIZE, pageSize));
+    }
+
+    // ================================
+    // 4️⃣c / 5️⃣c INCREMENTAL REFRESH
+    // ================================
+
+    /**
+     * Appointments of a patient inserted or modified since the watermark.
+     * Pass null on the first call to get just a starting watermark.
+     */
+    public AppointmentDelta getAppointmentChangesForPatient(int patientId, LocalDateTime since)
+            throws SQLException {
+        OperationMetrics.Call call = CHANGES_FOR_PATIENT.start();
+        try {
+            return changesSince(patientId, since, false);
+        } catch (SQLException e) {
+            CHANGES_FOR_PATIENT.error();
+            throw e;
+        } finally {
+            call.close();
+        }
+    }
+
+    public AppointmentDelta getAppointmentChangesForDoctor(int doctorId, LocalDateTime since)
+            throws SQLException {
+        OperationMetrics.Call call = CHANGES_FOR_DOCTOR.start();
+        try {
+            return changesSince(doctorId, since, true);
+        } catch (SQLException e) {
+            CHANGES_FOR_DOCTOR.error();
+            throw e;
+        } finally {
+            call.close();
+        }
+    }
+
+    /**
+     * last_modified is taken when a statement runs, not when its transaction
+     * commits, so rows up to DELTA_OVERLAP_MS older than the watermark are
+     * read again to catch slow commits. Callers upsert by id, so the repeats
+     * are harmless. The next watermark is the DB time read before the query.
+     */
+    private AppointmentDelta changesSince(int ownerId, LocalDateTime since, boolean doctor)
+            throws SQLException {
+
         AppointmentDAO dao = new AppointmentDAO();
-        return dao.getAppointmentsForDoctor(doctorId);
+        LocalDateTime watermark = dao.currentDbTime();
+        if (since == null) {
+            return new AppointmentDelta(new ArrayList<>(), watermark);
+        }
+
+        LocalDateTime from = since.minusNanos(DBConfig.DELTA_OVERLAP_MS * 1_000_000L);
+        List<Appointment> changes = doctor
+                ? dao.getChangedAppointmentsForDoctor(ownerId, from)
+                : dao.getChangedAppointmentsForPatient(ownerId, from);
+
+        return new AppointmentDelta(changes, watermark);
+    }
+
+    // ================================
+    // 6️⃣ RESCHEDULE APPOINTMENT
+    // ================================
+    public void rescheduleAppointment(int appointmentId, LocalDateTime newDateTime) throws Exception {
+
+        OperationMetrics.Call call = RESCHEDULE.start();
+        try {
+            Appointment existing;
+            try (Connection con = DBConnection.getConnection()) {
+                existing = new AppointmentDAO().findById(con, appointmentId);
+            }
+            if (existing == null) {
+                throw new BookingException(BookingException.Reason.NOT_FOUND,
+                        "Appointment " + appointmentId + " does not exist.");
+            }
+            if (existing.getStatus() != AppointmentStatus.BOOKED) {
+                throw new BookingException(BookingException.Reason.CONFLICT,
+                        "Only booked appointments can be rescheduled.");
+            }
+
+            ReentrantLock doctorLock = DOCTOR_LOCKS.forDoctor(existing.getDoctorId());
+            doctorLock.lockInterruptibly();
+            try {
+                rescheduleWhileHoldingDoctorLock(existing, newDateTime);
+            } finally {
+                doctorLock.unlock();
+            }
+        } catch (SQLException e) {
+            RESCHEDULE.error();
+            throw e;
+        } finally {
+            call.close();
+        }
+    }
+
+    private void rescheduleWhileHoldingDoctorLock(Appointment existing,
+                                                  LocalDateTime newDateTime) throws Exception {
+
+        Connection con = null;
+
+        try {
+            con = DBConnection.getConnection();
+            con.setAutoCommit(false); // START TRANSACTION
+
+            AppointmentDAO dao = new AppointmentDAO();
+            dao.lockDoctor(con, existing.getDoctorId());
+
+            // The appointment being moved does not count as a clash; checked
+            // against the DB like a booking (see bookWhileHoldingDoctorLock)
+            boolean available = dao.isDoctorAvailableInDb(
+                    con,
+                    existing.getDoctorId(),
+                    newDateTime,
+                    existing.getId()
+            );
+
+            if (!available) {
+                AvailabilityIndex.getInstance().invalidate(existing.getDoctorId());
+                throw new BookingException(BookingException.Reason.CONFLICT,
+                        "Doctor is already booked at the selected time.");
+            }
+
+            // Cancelled or completed since it was read
+            if (!dao.rescheduleAppointment(con, existing.getId(), newDateTime)) {
+                throw new BookingException(BookingException.Reason.CONFLICT,
+                        "Only booked appointments can be rescheduled.");
+            }
+
+            con.commit(); // COMMIT
+
+            AvailabilityIndex.getInstance().onRescheduled(
+                    existing.getId(), existing.getDoctorId(), newDateTime);
+            recordWrite(existing);
+
+        } catch (Exception e) {
+            if (con != null) {
+                con.rollback(); // ROLLBACK
+            }
+            throw e;
+        } finally {
+            if (con != null) {
+                con.close();
+            }
+        }
+    }
+
+    // ================================
+    // 7️⃣ BOOK MANY APPOINTMENTS (BULK SCHEDULING)
+    // ================================
+    public BatchBookingResult bookAppointments(List<Appointment> appointments)
+            throws InterruptedException {
+        return bookAppointments(appointments, DBConfig.BOOKING_BATCH_CHUNK_SIZE);
+    }
+
+    /**
+     * Books a whole series (follow-ups, vaccination drives) at once.
+     *
+     * - Clashes inside the batch are detected in memory (earlier item wins)
+     * - Clashes with existing bookings are found with one set-based query
+     *   per chunk instead of one query per appointment
+     * - Accepted appointments are inserted with JDBC batching and each
+     *   chunk of chunkSize appointments is committed separately
+     *
+     * Failures are reported per item; a failing chunk does not stop the
+     * following ones.
+     */
+    public BatchBookingResult bookAppointments(List<Appointment> appointments, int chunkSize)
+            throws InterruptedException {
+
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive");
+        }
+
+        List<BatchBookingResult.Item> items = new ArrayList<>(appointments.size());
+        Set<Integer> doctorIds = new TreeSet<>();
+
+        for (int i = 0; i < appointments.size(); i++) {
+            Appointment a = appointments.get(i);
+            BatchBookingResult.Item item = new BatchBookingResult.Item(i, a);
+            items.add(item);
+
+            if (a == null || a.getAppointmentDateTime() == null) {
+                item.fail("Appointment date/time is missing.");
+                continue;
+            }
+            if (a.getStatus() == null) {
+                a.setStatus(AppointmentStatus.BOOKED);
+            }
+            String problem = ValidationUtil.APPOINTMENT.validate(a);
+            if (problem != null) {
+                item.fail("Invalid appointment: " + problem + ".");
+                continue;
+            }
+            doctorIds.add(a.getDoctorId());
+        }
+
+        // Same per-doctor locks as single bookings, taken in stripe order
+        List<ReentrantLock> locks = DOCTOR_LOCKS.forDoctors(doctorIds);
+        int held = 0;
+        OperationMetrics.Call call = BOOK_BATCH.start();
+        try {
+            for (ReentrantLock lock : locks) {
+                lock.lockInterruptibly();
+                held++;
+            }
+
+            // doctor -> (time -> item index) of appointments accepted so far
+            Map<Integer, TreeMap<LocalDateTime, Integer>> accepted = new HashMap<>();
+
+            for (int from = 0; from < items.size(); from += chunkSize) {
+                int to = Math.min(items.size(), from + chunkSize);
+                bookChunk(items.subList(from, to), accepted);
+            }
+
+        } finally {
+            for (int i = held - 1; i >= 0; i--) {
+                locks.get(i).unlock();
+            }
+            call.close();
+        }
+
+        return new BatchBookingResult(items);
+    }
+
+    private void bookChunk(List<BatchBookingResult.Item> chunk,
+                           Map<Integer, TreeMap<LocalDateTime, Integer>> accepted) {
+
+        List<BatchBookingResult.Item> pending = new ArrayList<>();
+        TreeSet<Integer> doctorIds = new TreeSet<>();
+        LocalDateTime min = null;
+        LocalDateTime max = null;
+
+        for (BatchBookingResult.Item item : chunk) {
+            if (!item.isPending()) continue;
+            Appointment a = item.getAppointment();
+            pending.add(item);
+            doctorIds.add(a.getDoctorId());
+            LocalDateTime t = a.getAppointmentDateTime();
+            if (min == null || t.isBefore(min)) min = t;
+            if (max == null || t.isAfter(max)) max = t;
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<BatchBookingResult.Item> toInsert = new ArrayList<>();
+        Connection con = null;
+
+        try {
+            con = DBConnection.getConnection();
+            con.setAutoCommit(false); // START TRANSACTION
+
+            AppointmentDAO dao = new AppointmentDAO();
+
+            // Ascending doctor id: the same lock order in every JVM
+            Set<Integer> missingDoctors = new HashSet<>();
+            for (int doctorId : doctorIds) {
+                if (!dao.lockDoctor(con, doctorId)) {
+                    missingDoctors.add(doctorId);
+                }
+            }
+
+            Map<Integer, List<LocalDateTime>> booked = dao.findBookedTimes(
+                    con, doctorIds, min.minusMinutes(20), max.plusMinutes(20));
+
+            Map<Integer, TreeSet<LocalDateTime>> existing = new HashMap<>();
+            for (Map.Entry<Integer, List<LocalDateTime>> e : booked.entrySet()) {
+                existing.put(e.getKey(), new TreeSet<>(e.getValue()));
+            }
+
+            for (BatchBookingResult.Item item : pending) {
+                Appointment a = item.getAppointment();
+                int doctorId = a.getDoctorId();
+
+                if (missingDoctors.contains(doctorId)) {
+                    item.fail("Doctor " + doctorId + " does not exist.");
+                    continue;
+                }
+
+                LocalDateTime t = a.getAppointmentDateTime();
+                LocalDateTime start = t.minusMinutes(20);
+                LocalDateTime end = t.plusMinutes(20);
+
+                TreeSet<LocalDateTime> taken = existing.get(doctorId);
+                LocalDateTime clash = taken == null ? null : taken.ceiling(start);
+                if (clash != null && !clash.isAfter(end)) {
+                    item.fail("Doctor is already booked at the selected time.");
+                    continue;
+                }
+
+                TreeMap<LocalDateTime, Integer> ours =
+                        accepted.computeIfAbsent(doctorId, k -> new TreeMap<>());
+                Map.Entry<LocalDateTime, Integer> sibling = ours.ceilingEntry(start);
+                if (sibling != null && !sibling.getKey().isAfter(end)) {
+                    item.fail("Clashes with item #" + sibling.getValue() + " of the same batch.");
+                    continue;
+                }
+
+                ours.put(t, item.getIndex());
+                toInsert.add(item);
+            }
+
+            if (!toInsert.isEmpty()) {
+                List<Appointment> rows = new ArrayList<>(toInsert.size());
+                for (BatchBookingResult.Item item : toInsert) {
+                    rows.add(item.getAppointment());
+                }
+                dao.insertAppointments(con, rows);
+            }
+
+            con.commit(); // COMMIT
+
+            for (BatchBookingResult.Item item : toInsert) {
+                item.markBooked();
+                Appointment a = item.getAppointment();
+                AvailabilityIndex.getInstance().onBooked(
+                        a.getId(), a.getDoctorId(), a.getAppointmentDateTime());
+                recordWrite(a);
+            }
+
+        } catch (SQLException e) {
+            BOOK_BATCH.error();
+            try {
+                if (con != null) con.rollback(); // ROLLBACK
+            } catch (SQLException ex) {
+                ex.printStackTrace();
+            }
+
+            for (BatchBookingResult.Item item : toInsert) {
+                Appointment a = item.getAppointment();
+                accepted.get(a.getDoctorId()).remove(a.getAppointmentDateTime());
+                a.setId(0);
+            }
+            for (BatchBookingResult.Item item : pending) {
+                if (item.isPending()) {
+                    item.fail("Batch insert failed: " + e.getMessage());
+                }
+            }
+
+        } finally {
+            try {
+                if (con != null) con.close();
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    // ================================
+    // 8️⃣ FETCH ONE APPOINTMENT (READ)
+    // ================================
+
+    /**
+     * @return the appointment, or null if there is no such id
+     */
+    public Appointment getAppointment(int appointmentId) throws SQLException {
+        OperationMetrics.Call call = GET.start();
+        try (Connection con = DBConnection.getConnection()) {
+            return new AppointmentDAO().findById(con, appointmentId);
+        } catch (SQLException e) {
+            GET.error();
+            throw e;
+        } finally {
+            call.close();
+        }
+    }
+
+    // ================================
+    // 9️⃣ FREE SLOTS (BOOKING PICKER)
+    // ================================
+
+    // Upper bound on the slots returned by one search
+    public static final int MAX_SLOTS = 500;
+
+    /**
+     * The first limit start times in [from, to] at which the doctor can be
+     * booked, earliest first, on a grid of healthcare.availability.slotMinutes
+     * (20) from midnight. Times in the past are skipped.
+     *
+     * Computed in one pass over the doctor's BOOKED times, which are read at
+     * most once per call, so a month of calendar costs one query or none.
+     * A listed slot can still be taken before it is booked; bookAppointment
+     * stays the authority.
+     */
+    public List<LocalDateTime> findAvailableSlots(int doctorId, LocalDateTime from,
+                                                  LocalDateTime to, int limit) throws SQLException {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        if (DBConfig.AVAILABILITY_SLOT_MINUTES <= 0) {
+            throw new IllegalStateException("healthcare.availability.slotMinutes must be positive, got "
+                    + DBConfig.AVAILABILITY_SLOT_MINUTES);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (from.isBefore(now)) {
+            from = now;
+        }
+        if (to.isBefore(from)) {
+            return new ArrayList<>();
+        }
+
+        OperationMetrics.Call call = FREE_SLOTS.start();
+        try (Connection con = DBConnection.getConnection()) {
+            return new AppointmentDAO().findAvailableSlots(con, doctorId, from, to,
+                    DBConfig.AVAILABILITY_SLOT_MINUTES, Math.min(limit, MAX_SLOTS));
+        } catch (SQLException e) {
+            FREE_SLOTS.error();
+            throw e;
+        } finally {
+            call.close();
+        }
     }
 }
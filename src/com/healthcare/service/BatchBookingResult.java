@@ -0,0 +1,110 @@
+package com.healthcare.service;
+
+import com.healthcare.models.Appointment;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of AppointmentService.bookAppointments, one entry per input
+ * appointment in input order.
+ */
+public class BatchBookingResult {
+
+    /**
+     * Result for a single appointment of the batch.
+     */
+    public static final class Item {
+
+        private final int index;
+        private final Appointment appointment;
+        private boolean booked;
+        private String error;
+
+        Item(int index, Appointment appointment) {
+            this.index = index;
+            this.appointment = appointment;
+        }
+
+        /** Position of the appointment in the submitted list. */
+        public int getIndex() {
+            return index;
+        }
+
+        /** The submitted appointment; its id is set when booked. */
+        public Appointment getAppointment() {
+            return appointment;
+        }
+
+        public boolean isBooked() {
+            return booked;
+        }
+
+        /** Why the appointment was not booked, or null if it was. */
+        public String getError() {
+            return error;
+        }
+
+        void markBooked() {
+            this.booked = true;
+            this.error = null;
+        }
+
+        void fail(String error) {
+            this.booked = false;
+            this.error = error;
+        }
+
+        boolean isPending() {
+            return !booked && error == null;
+        }
+
+        @Override
+        public String toString() {
+            return "#" + index + (booked
+                    ? " booked id=" + appointment.getId()
+                    : " failed: " + error);
+        }
+    }
+
+    private final List<Item> items;
+
+    BatchBookingResult(List<Item> items) {
+        this.items = items;
+    }
+
+    public List<Item> getItems() {
+        return Collections.unmodifiableList(items);
+    }
+
+    public int getBookedCount() {
+        int n = 0;
+        for (Item item : items) {
+            if (item.isBooked()) n++;
+        }
+        return n;
+    }
+
+    public List<Item> getFailures() {
+        List<Item> failures = new ArrayList<>();
+        for (Item item : items) {
+            if (!item.isBooked()) failures.add(item);
+        }
+        return failures;
+    }
+
+    /** Generated appointment ids of the booked items, in input order. */
+    public List<Integer> getGeneratedIds() {
+        List<Integer> ids = new ArrayList<>();
+        for (Item item : items) {
+            if (item.isBooked()) ids.add(item.getAppointment().getId());
+        }
+        return ids;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchBookingResult{booked=" + getBookedCount()
+                + ", failed=" + (items.size() - getBookedCount()) + '}';
+    }
+}
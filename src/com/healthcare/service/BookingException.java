@@ -0,0 +1,34 @@
+package com.healthcare.service;
+
+/**
+ * A booking or reschedule that AppointmentService refused for a business
+ * reason; the message can be shown to the user as is.
+ */
+public class BookingException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Reason {
+
+        /**
+         * The doctor or appointment does not exist.
+         */
+        NOT_FOUND,
+
+        /**
+         * The slot is taken, or the appointment is no longer BOOKED.
+         */
+        CONFLICT
+    }
+
+    private final Reason reason;
+
+    BookingException(Reason reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+}
@@ -0,0 +1,30 @@
+package com.healthcare.service;
+
+/**
+ * How AppointmentService.bookAppointment guards against double booking.
+ * Selected with -Dhealthcare.booking.mode (see DBConfig.BOOKING_MODE).
+ */
+public enum BookingMode {
+
+    /**
+     * Per-doctor lock stripe + doctor row lock, then availability
+     * check and insert inside one transaction.
+     */
+    LOCKED,
+
+    /**
+     * Single INSERT ... SELECT ... WHERE NOT EXISTS statement in autocommit
+     * mode; the affected-row count tells whether the slot was free.
+     * One round trip per booking.
+     */
+    CONDITIONAL_INSERT;
+
+    static BookingMode fromConfig(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException | NullPointerException e) {
+            System.err.println("Unknown booking mode '" + value + "', using LOCKED.");
+            return LOCKED;
+        }
+    }
+}
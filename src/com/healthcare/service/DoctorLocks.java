@@ -0,0 +1,53 @@
+package com.healthcare.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Striped in-JVM locks keyed by doctor id.
+ *
+ * Bookings for the same doctor serialize on one stripe, while bookings
+ * for different doctors (almost always on different stripes) proceed in
+ * parallel. A fixed number of stripes keeps memory bounded no matter
+ * how many doctors exist.
+ */
+final class DoctorLocks {
+
+    private static final int STRIPES = 64; // must be a power of two
+
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+
+    DoctorLocks() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    ReentrantLock forDoctor(int doctorId) {
+        return locks[stripeOf(doctorId)];
+    }
+
+    /**
+     * Locks covering all given doctors, without duplicates and in stripe
+     * order, so two batches locking overlapping doctors cannot deadlock.
+     */
+    List<ReentrantLock> forDoctors(Collection<Integer> doctorIds) {
+        TreeSet<Integer> stripes = new TreeSet<>();
+        for (int doctorId : doctorIds) {
+            stripes.add(stripeOf(doctorId));
+        }
+        List<ReentrantLock> result = new ArrayList<>(stripes.size());
+        for (int stripe : stripes) {
+            result.add(locks[stripe]);
+        }
+        return result;
+    }
+
+    static int stripeOf(int doctorId) {
+        int h = doctorId * 0x9E3779B9; // spread sequential ids across stripes
+        return (h ^ (h >>> 16)) & (STRIPES - 1);
+    }
+}
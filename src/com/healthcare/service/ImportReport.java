@@ -0,0 +1,87 @@
+package com.healthcare.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Outcome of a bulk user import: counts, timing and one error per rejected row.
+ */
+public class ImportReport {
+
+    /**
+     * A rejected CSV row. line is 1-based and counts the header.
+     */
+    public static class RowError {
+
+        private final long line;
+        private final String username;
+        private final String message;
+
+        public RowError(long line, String username, String message) {
+            this.line = line;
+            this.username = username;
+            this.message = message;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public String toString() {
+            return "line " + line + (username != null ? " (" + username + ")" : "") + ": " + message;
+        }
+    }
+
+    private final long rows;
+    private final long imported;
+    private final List<RowError> errors;
+    private final long elapsedNanos;
+
+    public ImportReport(long rows, long imported, List<RowError> errors, long elapsedNanos) {
+        List<RowError> sorted = new ArrayList<>(errors);
+        sorted.sort(Comparator.comparingLong(RowError::getLine));
+        this.rows = rows;
+        this.imported = imported;
+        this.errors = Collections.unmodifiableList(sorted);
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /** Data rows read from the file (header excluded). */
+    public long getRows() {
+        return rows;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    /** Rejected rows, ordered by line number. */
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    public double getUsersPerSecond() {
+        return elapsedNanos == 0 ? 0.0 : imported / (elapsedNanos / 1e9);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ImportReport{rows=%d, imported=%d, rejected=%d, %d ms, %.0f users/s}",
+                rows, imported, errors.size(), getElapsedMillis(), getUsersPerSecond());
+    }
+}
@@ -0,0 +1,350 @@
+package com.healthcare.service;
+
+import com.healthcare.dao.DBConnection;
+import com.healthcare.dao.DoctorDirectory;
+import com.healthcare.dao.UserDAO;
+import com.healthcare.models.Doctor;
+import com.healthcare.models.Patient;
+import com.healthcare.models.User;
+import com.healthcare.utils.DBConfig;
+import com.healthcare.utils.ValidationUtil;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk import of patients and doctors from a CSV file (hospital onboarding).
+ *
+ * File format (header required, fields may be double-quoted):
+ *   role,username,password,name,contact,specialization
+ *   PATIENT,jdoe,secret,John Doe,9876543210,
+ *   DOCTOR,drlee,secret,Dr. Lee,,Cardiology
+ *
+ * Pipeline:
+ * - the file is streamed in chunks of batchSize rows
+ * - each chunk is parsed and validated in parallel (ValidationUtil.PATIENT / DOCTOR)
+ * - writer threads insert a chunk in one transaction: a batched users
+ *   INSERT whose generated keys are read back in one go, then batched
+ *   patients/doctors INSERTs
+ * - at most 2 chunks per writer are in flight, so memory stays bounded
+ *
+ * A chunk that fails as a whole (e.g. a username registered concurrently)
+ * is retried row by row, so one bad row never costs the others.
+ */
+public class UserImportService {
+
+    private static final String HEADER = "role,username,password,name,contact,specialization";
+
+    private final int batchSize;
+    private final int writers;
+
+    public UserImportService() {
+        this(DBConfig.IMPORT_BATCH_SIZE, DBConfig.IMPORT_WRITERS);
+    }
+
+    public UserImportService(int batchSize, int writers) {
+        this.batchSize = Math.max(1, batchSize);
+        this.writers = Math.max(1, writers);
+    }
+
+    public ImportReport importCsv(Path file) throws IOException, InterruptedException {
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return importCsv(in);
+        }
+    }
+
+    public ImportReport importCsv(BufferedReader in) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+
+        String header = in.readLine();
+        if (header == null) {
+            return new ImportReport(0, 0, new ArrayList<>(), System.nanoTime() - start);
+        }
+        if (!HEADER.equalsIgnoreCase(header.replace("\uFEFF", "").replace(" ", ""))) {
+            throw new IOException("Unexpected header, expected: " + HEADER);
+        }
+
+        Queue<ImportReport.RowError> errors = new ConcurrentLinkedQueue<>();
+        LongAdder imported = new LongAdder();
+        Set<String> seenUsernames = new HashSet<>();
+
+        ExecutorService writerPool = Executors.newFixedThreadPool(writers);
+        Semaphore inFlight = new Semaphore(writers * 2);
+
+        long rows = 0;
+        long lineNo = 1;
+        List<RawLine> chunk = new ArrayList<>(batchSize);
+
+        try {
+            String line;
+            while ((line = in.readLine()) != null) {
+                lineNo++;
+                if (line.isBlank()) continue;
+
+                chunk.add(new RawLine(lineNo, line));
+                rows++;
+
+                if (chunk.size() == batchSize) {
+                    dispatch(chunk, seenUsernames, errors, imported, writerPool, inFlight);
+                    chunk = new ArrayList<>(batchSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                dispatch(chunk, seenUsernames, errors, imported, writerPool, inFlight);
+            }
+        } finally {
+            writerPool.shutdown();
+            writerPool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        }
+
+        return new ImportReport(rows, imported.sum(), new ArrayList<>(errors),
+                System.nanoTime() - start);
+    }
+
+    /**
+     * Validates a chunk in parallel, drops duplicates within the file
+     * (first occurrence wins) and hands the rest to a writer.
+     */
+    private void dispatch(List<RawLine> chunk, Set<String> seenUsernames,
+                          Queue<ImportReport.RowError> errors, LongAdder imported,
+                          ExecutorService writerPool, Semaphore inFlight) throws InterruptedException {
+
+        List<ImportRow> parsed = chunk.parallelStream()
+                .map(UserImportService::parse)
+                .collect(Collectors.toList());
+
+        List<ImportRow> valid = new ArrayList<>(parsed.size());
+        for (ImportRow row : parsed) {
+            if (row.error != null) {
+                errors.add(new ImportReport.RowError(row.line, row.username, row.error));
+            } else if (!seenUsernames.add(row.username)) {
+                errors.add(new ImportReport.RowError(row.line, row.username,
+                        "duplicate username in file"));
+            } else {
+                valid.add(row);
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        inFlight.acquire();
+        writerPool.submit(() -> {
+            try {
+                write(valid, errors, imported);
+            } catch (RuntimeException e) {
+                for (ImportRow row : valid) {
+                    errors.add(new ImportReport.RowError(row.line, row.username, e.toString()));
+                }
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    // ================================
+    // WRITE (one transaction per chunk)
+    // ================================
+
+    private void write(List<ImportRow> rows, Queue<ImportReport.RowError> errors, LongAdder imported) {
+        UserDAO userDAO = new UserDAO();
+        Connection con = null;
+        SQLException failure = null;
+
+        try {
+            con = DBConnection.getConnection();
+            con.setAutoCommit(false);
+
+            List<String> usernames = new ArrayList<>(rows.size());
+            for (ImportRow row : rows) {
+                usernames.add(row.username);
+            }
+            Set<String> taken = userDAO.findExistingUsernames(con, usernames);
+
+            // Reported only once the chunk commits; a failed chunk is re-checked row by row
+            List<ImportReport.RowError> rejected = new ArrayList<>();
+            List<User> users = new ArrayList<>(rows.size());
+            List<Patient> patients = new ArrayList<>();
+            List<Doctor> doctors = new ArrayList<>();
+            for (ImportRow row : rows) {
+                if (taken.contains(row.username)) {
+                    rejected.add(new ImportReport.RowError(row.line, row.username, "username already exists"));
+                    continue;
+                }
+                users.add(row.user);
+                if (row.user instanceof Patient) {
+                    patients.add((Patient) row.user);
+                } else {
+                    doctors.add((Doctor) row.user);
+                }
+            }
+
+            if (!users.isEmpty()) {
+                userDAO.insertUsers(con, users);
+                userDAO.insertPatients(con, patients);
+                userDAO.insertDoctors(con, doctors);
+            }
+
+            con.commit();
+            imported.add(users.size());
+            if (!doctors.isEmpty()) {
+                DoctorDirectory.getInstance().invalidate(); // batch inserts return no doctors.id
+            }
+            errors.addAll(rejected);
+
+        } catch (SQLException e) {
+            failure = e;
+            try {
+                if (con != null) con.rollback();
+            } catch (Exception ignored) {}
+
+        } finally {
+            try {
+                if (con != null) {
+                    con.setAutoCommit(true);
+                    con.close();
+                }
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+
+        if (failure == null) {
+            return;
+        }
+        if (rows.size() == 1) {
+            ImportRow row = rows.get(0);
+            errors.add(new ImportReport.RowError(row.line, row.username, failure.getMessage()));
+        } else {
+            // Find the offending row(s) without losing the good ones; the
+            // chunk's connection is back in the pool, so a writer never holds two
+            for (ImportRow row : rows) {
+                write(List.of(row), errors, imported);
+            }
+        }
+    }
+
+    // ================================
+    // PARSE + VALIDATE (runs in parallel)
+    // ================================
+
+    private static ImportRow parse(RawLine raw) {
+        List<String> f = splitCsv(raw.text);
+        String username = f.size() > 1 ? f.get(1).trim() : null;
+
+        if (f.size() < 4 || f.size() > 6) {
+            return ImportRow.invalid(raw.line, username, "expected 4 to 6 fields, got " + f.size());
+        }
+
+        String role = f.get(0).trim().toUpperCase();
+        String password = f.get(2);
+        String name = f.get(3).trim();
+        String contact = f.size() > 4 ? f.get(4).trim() : "";
+        String specialization = f.size() > 5 ? f.get(5).trim() : "";
+
+        User user;
+        String problem;
+        switch (role) {
+            case "PATIENT":
+                Patient p = new Patient(0, username, password, name, contact.isEmpty() ? null : contact);
+                problem = ValidationUtil.PATIENT.validate(p);
+                user = p;
+                break;
+
+            case "DOCTOR":
+                Doctor d = new Doctor(0, username, password, name,
+                        specialization.isEmpty() ? null : specialization);
+                problem = ValidationUtil.DOCTOR.validate(d);
+                user = d;
+                break;
+
+            default:
+                return ImportRow.invalid(raw.line, username, "role must be PATIENT or DOCTOR");
+        }
+
+        return problem != null
+                ? ImportRow.invalid(raw.line, username, problem)
+                : new ImportRow(raw.line, username, user, null);
+    }
+
+    /**
+     * Splits one CSV line; handles double-quoted fields with "" escapes
+     * (quoted line breaks are not supported).
+     */
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>(6);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static final class RawLine {
+
+        final long line;
+        final String text;
+
+        RawLine(long line, String text) {
+            this.line = line;
+            this.text = text;
+        }
+    }
+
+    private static final class ImportRow {
+
+        final long line;
+        final String username;
+        final User user;
+        final String error;
+
+        ImportRow(long line, String username, User user, String error) {
+            this.line = line;
+            this.username = username;
+            this.user = user;
+            this.error = error;
+        }
+
+        static ImportRow invalid(long line, String username, String error) {
+            return new ImportRow(line, username, null, error);
+        }
+    }
+}
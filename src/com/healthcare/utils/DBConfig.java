@@ -10,15 +10,176 @@ package com.healthcare.utils;
  */
 public final class DBConfig {
 
-    // MySQL connection URL
-    public static final String URL =
-            "jdbc:mysql://localhost:3306/healthcare_db?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC";
+    // MySQL connection URL (override with -Dhealthcare.db.url, e.g. for the benchmarks' embedded DB)
+    // rewriteBatchedStatements: executeBatch() sends one multi-row INSERT
+    // useServerPrepStmts: statements are parsed and planned once on the server; with
+    //   cachePrepStmts the driver keeps them (dynamic SQL included) across close()
+    public static final String URL = System.getProperty("healthcare.db.url",
+            "jdbc:mysql://localhost:3306/healthcare_db?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC"
+            + "&rewriteBatchedStatements=true"
+            + "&useServerPrepStmts=true&cachePrepStmts=true&prepStmtCacheSize=250&prepStmtCacheSqlLimit=2048");
 
-    // MySQL user credentials
-    public static final String USER = "healthapp";
+    // MySQL user credentials (-Dhealthcare.db.user / -Dhealthcare.db.password)
+    public static final String USER = System.getProperty("healthcare.db.user", "healthapp");
 
     // ⚠ CHANGE THIS to your actual MySQL password before running the project
-    public static final String PASSWORD = "health123";
+    public static final String PASSWORD = System.getProperty("healthcare.db.password", "health123");
+
+    // ---------- Read replicas (override with -Dhealthcare.db.replica*) ----------
+
+    // Comma-separated JDBC URLs of read replicas; empty = every read goes to URL
+    public static final String REPLICA_URLS = System.getProperty("healthcare.db.replicaUrls", "");
+
+    // Replica credentials, the primary's by default
+    public static final String REPLICA_USER = System.getProperty("healthcare.db.replicaUser", USER);
+    public static final String REPLICA_PASSWORD = System.getProperty("healthcare.db.replicaPassword", PASSWORD);
+
+    // How long a read waits for a busy replica's pool before trying the next replica / the primary
+    public static final long REPLICA_BORROW_TIMEOUT_MS =
+            Long.getLong("healthcare.db.replicaBorrowTimeoutMs", 250L);
+
+    // After writing, a patient's / doctor's own reads stay on the primary this long (replication lag)
+    public static final long READ_YOUR_WRITES_MS =
+            Long.getLong("healthcare.db.readYourWritesMs", 5_000L);
+
+    // ---------- Connection pool (override with -Dhealthcare.pool.*) ----------
+
+    // Connections kept open even when the application is idle
+    public static final int POOL_MIN_SIZE =
+            Integer.getInteger("healthcare.pool.minSize", 2);
+
+    // Upper bound on open connections; further callers wait
+    public static final int POOL_MAX_SIZE =
+            Integer.getInteger("healthcare.pool.maxSize", 10);
+
+    // Idle connections above the minimum are closed after this long
+    public static final long POOL_IDLE_TIMEOUT_MS =
+            Long.getLong("healthcare.pool.idleTimeoutMs", 300_000L);
+
+    // How long getConnection() waits for a free connection before failing
+    public static final long POOL_BORROW_TIMEOUT_MS =
+            Long.getLong("healthcare.pool.borrowTimeoutMs", 5_000L);
+
+    // Connections held longer than this are reported as possible leaks (0 = off)
+    public static final long POOL_LEAK_DETECTION_MS =
+            Long.getLong("healthcare.pool.leakDetectionMs", 60_000L);
+
+    // Timeout for the liveness check done when an idle connection is borrowed
+    public static final int POOL_VALIDATION_TIMEOUT_SECONDS =
+            Integer.getInteger("healthcare.pool.validationTimeoutSeconds", 2);
+
+    // Registered DAO statements kept prepared per connection (0 = prepare on every call)
+    public static final int POOL_STATEMENT_CACHE_SIZE =
+            Integer.getInteger("healthcare.pool.statementCacheSize", 64);
+
+    // ---------- Availability index ----------
+
+    // How long a doctor's cached BOOKED slots are trusted before reloading (0 = always ask the DB)
+    public static final long AVAILABILITY_INDEX_TTL_MS =
+            Long.getLong("healthcare.availability.ttlMs", 60_000L);
+
+    // Grid of start times offered by the free-slot search, in minutes from each midnight (> 0)
+    public static final int AVAILABILITY_SLOT_MINUTES =
+            Integer.getInteger("healthcare.availability.slotMinutes", 20);
+
+    // ---------- Doctor directory ----------
+
+    // Age after which the in-memory doctor search index is reloaded in the background (0 = never)
+    public static final long DOCTOR_DIRECTORY_TTL_MS =
+            Long.getLong("healthcare.doctorDirectory.ttlMs", 600_000L);
+
+    // ---------- User lookup cache ----------
+
+    // Users kept per key space (username / id) before the least recently used are evicted
+    public static final int USER_CACHE_MAX_SIZE =
+            Integer.getInteger("healthcare.userCache.maxSize", 1_000);
+
+    // How long a cached user/profile is trusted (0 = cache disabled)
+    public static final long USER_CACHE_TTL_MS =
+            Long.getLong("healthcare.userCache.ttlMs", 300_000L);
+
+    // ---------- Streaming reads ----------
+
+    // Fetch size for streaming exports; Integer.MIN_VALUE = MySQL row-by-row streaming
+    public static final int STREAM_FETCH_SIZE =
+            Integer.getInteger("healthcare.stream.fetchSize", Integer.MIN_VALUE);
+
+    // ---------- Incremental refresh ----------
+
+    // Changes this much older than a client's watermark are sent again;
+    // must exceed the longest appointment write transaction
+    public static final long DELTA_OVERLAP_MS =
+            Long.getLong("healthcare.delta.overlapMs", 5_000L);
+
+    // ---------- Booking ----------
+
+    // LOCKED (per-doctor locks + check + insert) or CONDITIONAL_INSERT (single statement)
+    public static final String BOOKING_MODE =
+            System.getProperty("healthcare.booking.mode", "LOCKED");
+
+    // Bulk bookings are committed in chunks of this many appointments
+    public static final int BOOKING_BATCH_CHUNK_SIZE =
+            Integer.getInteger("healthcare.booking.batchChunkSize", 500);
+
+    // ---------- Bulk user import ----------
+
+    // Rows inserted per transaction (one batched INSERT per table)
+    public static final int IMPORT_BATCH_SIZE =
+            Integer.getInteger("healthcare.import.batchSize", 1_000);
+
+    // Threads writing chunks concurrently; each holds one pooled connection
+    public static final int IMPORT_WRITERS =
+            Integer.getInteger("healthcare.import.writers", 4);
+
+    // ---------- HTTP API server (Main --server) ----------
+
+    // Port the JSON API listens on
+    public static final int SERVER_PORT =
+            Integer.getInteger("healthcare.server.port", 8080);
+
+    // Pending TCP connections the OS queues while all requests are busy
+    public static final int SERVER_BACKLOG =
+            Integer.getInteger("healthcare.server.backlog", 1_024);
+
+    // Request threads when virtual threads are not available (Java < 21)
+    public static final int SERVER_PLATFORM_THREADS =
+            Integer.getInteger("healthcare.server.platformThreads", 200);
+
+    // Idle time after which a login token stops working
+    public static final long SERVER_SESSION_TTL_MS =
+            Long.getLong("healthcare.server.sessionTtlMs", 1_800_000L);
+
+    // ---------- Metrics ----------
+
+    // Per-operation latency / row / error counters of the DAOs and services (also over JMX)
+    public static final boolean METRICS_ENABLED =
+            Boolean.parseBoolean(System.getProperty("healthcare.metrics.enabled", "true"));
+
+    // Seconds between metric dumps to stdout (0 = off)
+    public static final long METRICS_LOG_INTERVAL_SECONDS =
+            Long.getLong("healthcare.metrics.logIntervalSeconds", 0L);
+
+    // ---------- SQL tracing (off by default: every JDBC call goes through a proxy) ----------
+
+    // Wraps pooled connections to time each statement, its row fetches and row count
+    public static final boolean SQL_TRACE_ENABLED =
+            Boolean.getBoolean("healthcare.sqlTrace.enabled");
+
+    // Executions slower than this (exec + fetch) are printed with their parameters
+    public static final long SQL_TRACE_SLOW_QUERY_MS =
+            Long.getLong("healthcare.sqlTrace.slowQueryMs", 200L);
+
+    // Statements listed in the most-expensive report
+    public static final int SQL_TRACE_TOP_N =
+            Integer.getInteger("healthcare.sqlTrace.topN", 10);
+
+    // Seconds per report window; the top-N is printed and reset each time (0 = never)
+    public static final long SQL_TRACE_REPORT_INTERVAL_SECONDS =
+            Long.getLong("healthcare.sqlTrace.reportIntervalSeconds", 0L);
+
+    // Show string parameters (names, contacts, passwords, notes) instead of masking them
+    public static final boolean SQL_TRACE_SHOW_STRINGS =
+            Boolean.getBoolean("healthcare.sqlTrace.showStrings");
 
     // Private constructor to prevent instantiation
     private DBConfig() { }
@@ -0,0 +1,132 @@
+package com.healthcare.utils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram in microseconds, safe to record into from
+ * any number of threads.
+ *
+ * Buckets are log-linear: exact below 16 us, then 16 buckets per power
+ * of two, so a reported percentile is within about 6% of the true value
+ * from 1 us up to days.
+ *
+ * Each bucket is a LongAdder, created when first hit, so threads that
+ * record similar latencies at the same time do not contend on one
+ * counter, and only the few dozen buckets actually used take memory.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKETS = 16;
+    private static final int SUB_BITS = 4;
+
+    // 16 exact buckets + 16 per power of two up to 2^63
+    private static final int BUCKETS = SUB_BUCKETS * (64 - SUB_BITS + 1);
+
+    private final AtomicReferenceArray<LongAdder> counts = new AtomicReferenceArray<>(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sumMicros = new LongAdder();
+    private final LongAccumulator maxMicros = new LongAccumulator(Math::max, 0);
+
+    public void recordNanos(long nanos) {
+        recordMicros(TimeUnit.NANOSECONDS.toMicros(nanos));
+    }
+
+    public void recordMicros(long micros) {
+        long v = Math.max(0, micros);
+        bucket(bucketOf(v)).increment();
+        total.increment();
+        sumMicros.add(v);
+        maxMicros.accumulate(v);
+    }
+
+    public long getCount() {
+        return total.sum();
+    }
+
+    public long getMaxMicros() {
+        return maxMicros.get();
+    }
+
+    public double getMeanMicros() {
+        long n = total.sum();
+        return n == 0 ? 0.0 : (double) sumMicros.sum() / n;
+    }
+
+    /**
+     * Value at the given percentile (0-100), in microseconds; 0 when empty.
+     */
+    public long getPercentileMicros(double percentile) {
+        long[] snapshot = new long[BUCKETS];
+        long n = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            LongAdder count = counts.get(i);
+            snapshot[i] = count == null ? 0 : count.sum();
+            n += snapshot[i];
+        }
+        if (n == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), getMaxMicros());
+            }
+        }
+        return getMaxMicros();
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            LongAdder count = counts.get(i);
+            if (count != null) {
+                count.reset();
+            }
+        }
+        total.reset();
+        sumMicros.reset();
+        maxMicros.reset();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("n=%d mean=%.2fms p50=%.2fms p99=%.2fms p99.9=%.2fms max=%.2fms",
+                getCount(), getMeanMicros() / 1000.0,
+                getPercentileMicros(50) / 1000.0, getPercentileMicros(99) / 1000.0,
+                getPercentileMicros(99.9) / 1000.0, getMaxMicros() / 1000.0);
+    }
+
+    private LongAdder bucket(int index) {
+        LongAdder count = counts.get(index);
+        if (count == null) {
+            LongAdder created = new LongAdder();
+            count = counts.compareAndSet(index, null, created) ? created : counts.get(index);
+        }
+        return count;
+    }
+
+    static int bucketOf(long v) {
+        if (v < SUB_BUCKETS) {
+            return (int) v;
+        }
+        int msb = 63 - Long.numberOfLeadingZeros(v);
+        int sub = (int) (v >>> (msb - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return SUB_BUCKETS * (msb - SUB_BITS + 1) + sub;
+    }
+
+    // Largest value that falls into the bucket
+    static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int msb = bucket / SUB_BUCKETS + SUB_BITS - 1;
+        int sub = bucket % SUB_BUCKETS;
+        long lower = (long) (SUB_BUCKETS + sub) << (msb - SUB_BITS);
+        return lower + (1L << (msb - SUB_BITS)) - 1;
+    }
+}
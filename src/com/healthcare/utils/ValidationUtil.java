@@ -1,9 +1,20 @@
 package com.healthcare.utils;
 
+import com.healthcare.models.Appointment;
+import com.healthcare.models.Doctor;
+import com.healthcare.models.Patient;
+import com.healthcare.models.User;
+
 /**
  * Utility class containing common validation methods
  * used throughout the application (login, registration,
- * appointment booking, etc.).
+ * appointment booking, bulk import, etc.).
+ *
+ * The checks are hand-written character scans with the same results as
+ * the regular expressions they replaced (noted on each method); they
+ * compile nothing and allocate nothing, since they run on every imported
+ * row and API request. Whole objects are checked with the Validator
+ * constants at the bottom.
  */
 public final class ValidationUtil {
 
@@ -11,50 +22,107 @@ public final class ValidationUtil {
     private ValidationUtil() { }
 
     /**
-     * Basic email validation with regex.
+     * Basic email validation.
+     * Same as ^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+$
      * Example valid: user@example.com
      */
     public static boolean isValidEmail(String email) {
         if (email == null) return false;
 
-        // Simple & effective email pattern
-        return email.matches("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+$");
+        int at = -1;
+        for (int i = 0; i < email.length(); i++) {
+            char c = email.charAt(i);
+            if (c == '@') {
+                if (at >= 0) return false;   // '@' is in neither character class
+                at = i;
+            } else if (!isAsciiLetterOrDigit(c) && c != '.' && c != '-'
+                    && (at >= 0 || (c != '+' && c != '_'))) {
+                return false;                // '+' and '_' only before the '@'
+            }
+        }
+        return at > 0 && at < email.length() - 1;
     }
 
     /**
-     * Checks if a string is non-null and not empty/blank.
+     * Checks if a string is non-null and not empty/blank
+     * (blank = only characters trim() would remove).
      */
     public static boolean isNonEmpty(String value) {
-        return value != null && !value.trim().isEmpty();
+        if (value == null) return false;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > ' ') return true;
+        }
+        return false;
     }
 
     /**
      * Validates mobile/contact number.
-     * Example: 10 digits (Indian format)
+     * Same as ^[0-9]{10}$ (10 digits, Indian format)
      */
     public static boolean isValidMobile(String mobile) {
-        if (mobile == null) return false;
-
-        // Accepts only digits, 10-digit mobile numbers
-        return mobile.matches("^[0-9]{10}$");
+        return mobile != null && mobile.length() == 10 && isAsciiDigits(mobile);
     }
 
     /**
-     * Checks if a string is a valid integer number.
+     * Checks if a string is a valid (non-negative) integer number.
+     * Same as ^[0-9]+$
      */
     public static boolean isInteger(String value) {
-        if (value == null || value.trim().isEmpty()) return false;
-
-        return value.matches("^[0-9]+$");
+        return value != null && !value.isEmpty() && isAsciiDigits(value);
     }
 
     /**
-     * Checks if length is within a given range.
+     * Checks if the trimmed length is within a given range.
      */
     public static boolean isLengthBetween(String value, int min, int max) {
         if (value == null) return false;
-        int len = value.trim().length();
+
+        // Bounds of value.trim(), without creating the substring
+        int start = 0;
+        int end = value.length();
+        while (start < end && value.charAt(start) <= ' ') start++;
+        while (end > start && value.charAt(end - 1) <= ' ') end--;
+
+        int len = end - start;
         return len >= min && len <= max;
     }
-}
 
+    private static boolean isAsciiDigits(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') return false;
+        }
+        return true;
+    }
+
+    private static boolean isAsciiLetterOrDigit(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+    }
+
+    // ================================
+    // OBJECT VALIDATORS
+    // ================================
+
+    private static final Validator<User> USER = Validator.<User>check(
+                    u -> isLengthBetween(u.getUsername(), 3, 50), "username must be 3-50 characters")
+            .and(Validator.check(
+                    u -> isNonEmpty(u.getPassword()) && u.getPassword().length() <= 100,
+                    "password must be 1-100 characters"));
+
+    public static final Validator<Patient> PATIENT = Validator.<Patient>of(USER)
+            .and(Validator.check(p -> isLengthBetween(p.getName(), 1, 100), "name must be 1-100 characters"))
+            .and(Validator.check(p -> p.getContact() == null || p.getContact().isEmpty()
+                    || isValidMobile(p.getContact()), "invalid mobile number"));
+
+    public static final Validator<Doctor> DOCTOR = Validator.<Doctor>of(USER)
+            .and(Validator.check(d -> isLengthBetween(d.getName(), 1, 100), "name must be 1-100 characters"))
+            .and(Validator.check(d -> d.getSpecialization() == null || d.getSpecialization().length() <= 100,
+                    "specialization longer than 100 characters"));
+
+    public static final Validator<Appointment> APPOINTMENT = Validator.<Appointment>check(
+                    a -> a.getPatientId() > 0, "patient is missing")
+            .and(Validator.check(a -> a.getDoctorId() > 0, "doctor is missing"))
+            .and(Validator.check(a -> a.getAppointmentDateTime() != null, "appointment date/time is missing"))
+            .and(Validator.check(a -> a.getNotes() == null || a.getNotes().length() <= 255,
+                    "notes longer than 255 characters"));
+}
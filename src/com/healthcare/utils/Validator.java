@@ -0,0 +1,52 @@
+package com.healthcare.utils;
+
+import java.util.function.Predicate;
+
+/**
+ * Checks one object and names the first rule it breaks.
+ *
+ * Validators are built once (see the constants in ValidationUtil) and
+ * then only run predicates, so validating a valid object allocates
+ * nothing; failures return one of the constant messages.
+ *
+ * Example:
+ *   Validator<Patient> v = Validator.<Patient>check(p -> p.getName() != null, "name is missing")
+ *           .and(Validator.check(p -> ValidationUtil.isValidMobile(p.getContact()), "invalid mobile"));
+ *   String problem = v.validate(patient);   // null when valid
+ */
+@FunctionalInterface
+public interface Validator<T> {
+
+    /**
+     * @return null when the value is valid, otherwise what is wrong with it
+     */
+    String validate(T value);
+
+    default boolean isValid(T value) {
+        return validate(value) == null;
+    }
+
+    /**
+     * Runs this validator, then (only if it passed) the next one.
+     */
+    default Validator<T> and(Validator<? super T> next) {
+        return value -> {
+            String problem = validate(value);
+            return problem != null ? problem : next.validate(value);
+        };
+    }
+
+    /**
+     * A single rule: fails with message when the predicate is false.
+     */
+    static <T> Validator<T> check(Predicate<? super T> rule, String message) {
+        return value -> rule.test(value) ? null : message;
+    }
+
+    /**
+     * Reuses a validator of a supertype, e.g. the User rules for a Patient.
+     */
+    static <T> Validator<T> of(Validator<? super T> validator) {
+        return validator::validate;
+    }
+}
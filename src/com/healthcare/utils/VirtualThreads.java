@@ -0,0 +1,56 @@
+package com.healthcare.utils;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates thread-per-task executors backed by virtual threads when the
+ * JVM supports them (Java 21+), and by cached daemon platform threads
+ * otherwise, so the code still compiles and runs on Java 17.
+ */
+public final class VirtualThreads {
+
+    private static final Method NEW_VIRTUAL_EXECUTOR = findVirtualExecutorFactory();
+
+    // Prevent instantiation
+    private VirtualThreads() { }
+
+    /**
+     * @return true if executors from this class run tasks on virtual threads
+     */
+    public static boolean isSupported() {
+        return NEW_VIRTUAL_EXECUTOR != null;
+    }
+
+    /**
+     * Executor that starts a new (virtual, if available) thread per task.
+     *
+     * @param name prefix for platform thread names in the fallback case
+     */
+    public static ExecutorService newThreadPerTaskExecutor(String name) {
+        if (NEW_VIRTUAL_EXECUTOR != null) {
+            try {
+                return (ExecutorService) NEW_VIRTUAL_EXECUTOR.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                System.err.println("Virtual threads unavailable, using platform threads: " + e.getMessage());
+            }
+        }
+
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, name + "-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    private static Method findVirtualExecutorFactory() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null; // Java < 21
+        }
+    }
+}